@@ -0,0 +1,413 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.dto.AssetPair;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * This class represents an immutable fixed-point decimal number, as a
+ * {@code long} unscaled value and a scale of at most 18 decimals. It's a
+ * compact and allocation friendly alternative to {@code BigDecimal} for the
+ * prices and volumes Kraken delivers as decimal strings.
+ * <p>
+ * Parsing and arithmetic stay within primitive {@code long} math as long as
+ * the values fit, falling back to {@code BigDecimal} only where they don't.
+ * Unlike {@code BigDecimal}, two decimals with the same numeric value are
+ * equal regardless of their scales. Any rounding is done half-up.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Decimal extends Number implements Comparable<Decimal> {
+    public static final int MAX_SCALE = 18;
+    public static final Decimal ZERO = new Decimal(0L, 0);
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+            1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+            100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+            1000000000000000000L};
+
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final long unscaled;
+    private final int scale;
+
+
+    private Decimal(final long unscaled, final int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+    }
+
+    /**
+     * Returns a decimal with the given unscaled value and scale, that is
+     * {@code unscaled / 10^scale}.
+     *
+     * @param unscaled The unscaled value.
+     * @param scale    The number of decimals, 0 to 18.
+     * @return The decimal.
+     * @throws IllegalArgumentException If the scale is out of range.
+     */
+    public static Decimal valueOf(final long unscaled, final int scale) throws IllegalArgumentException {
+        checkScale(scale);
+        return new Decimal(unscaled, scale);
+    }
+
+    /**
+     * Parses the given decimal string exactly, keeping all its decimals,
+     * like "271.49000" with the scale 5.
+     *
+     * @param text The decimal string.
+     * @return The decimal.
+     * @throws NumberFormatException If the text isn't a decimal number, has
+     *                               more than 18 decimals or doesn't fit.
+     */
+    public static Decimal parse(final CharSequence text) throws NumberFormatException {
+        return parseScaled(text, -1);
+    }
+
+    /**
+     * Parses the given decimal string, rounded to the given scale.
+     *
+     * @param text  The decimal string.
+     * @param scale The number of decimals, 0 to 18.
+     * @return The decimal.
+     * @throws NumberFormatException    If the text isn't a decimal number or doesn't fit.
+     * @throws IllegalArgumentException If the scale is out of range.
+     */
+    public static Decimal parse(final CharSequence text, final int scale) throws NumberFormatException {
+        checkScale(scale);
+        return parseScaled(text, scale);
+    }
+
+    /**
+     * Parses the given price string of the given asset pair, rounded to the
+     * price precision of the pair.
+     *
+     * @param text The price string, like {@code Order.price}.
+     * @param pair The asset pair the price applies to.
+     * @return The decimal.
+     * @throws NumberFormatException If the text isn't a decimal number or doesn't fit.
+     */
+    public static Decimal parsePrice(final CharSequence text, final AssetPair pair) throws NumberFormatException {
+        return pair != null && pair.pairDecimals != null ?
+                parse(text, pair.pairDecimals) :
+                parse(text);
+    }
+
+    /**
+     * Parses the given volume string of the given asset pair, rounded to the
+     * lot precision of the pair.
+     *
+     * @param text The volume string, like {@code Order.volume}.
+     * @param pair The asset pair the volume applies to.
+     * @return The decimal.
+     * @throws NumberFormatException If the text isn't a decimal number or doesn't fit.
+     */
+    public static Decimal parseVolume(final CharSequence text, final AssetPair pair) throws NumberFormatException {
+        return pair != null && pair.lotDecimals != null ?
+                parse(text, pair.lotDecimals) :
+                parse(text);
+    }
+
+    /**
+     * Returns the unscaled value of this decimal.
+     *
+     * @return The unscaled value.
+     */
+    public long getUnscaledValue() {
+        return unscaled;
+    }
+
+    /**
+     * Returns the number of decimals of this decimal.
+     *
+     * @return The scale.
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns this decimal with the given number of decimals, rounded if
+     * decimals are dropped.
+     *
+     * @param newScale The number of decimals, 0 to 18.
+     * @return The rescaled decimal.
+     * @throws ArithmeticException If the rescaled value doesn't fit in a long.
+     */
+    public Decimal withScale(final int newScale) throws ArithmeticException {
+        checkScale(newScale);
+        return newScale == scale ?
+                this :
+                new Decimal(rescale(unscaled, scale, newScale), newScale);
+    }
+
+    /**
+     * Returns the sum of this and the given decimal, with the larger of the
+     * two scales.
+     *
+     * @param other The decimal to add.
+     * @return The sum.
+     * @throws ArithmeticException If the sum doesn't fit in a long.
+     */
+    public Decimal add(final Decimal other) throws ArithmeticException {
+        int common = Math.max(scale, other.scale);
+        return new Decimal(Math.addExact(
+                rescale(unscaled, scale, common),
+                rescale(other.unscaled, other.scale, common)), common);
+    }
+
+    /**
+     * Returns the difference between this and the given decimal, with the
+     * larger of the two scales.
+     *
+     * @param other The decimal to subtract.
+     * @return The difference.
+     * @throws ArithmeticException If the difference doesn't fit in a long.
+     */
+    public Decimal subtract(final Decimal other) throws ArithmeticException {
+        int common = Math.max(scale, other.scale);
+        return new Decimal(Math.subtractExact(
+                rescale(unscaled, scale, common),
+                rescale(other.unscaled, other.scale, common)), common);
+    }
+
+    /**
+     * Returns the product of this and the given decimal, rounded to the
+     * given scale, like the cost of a volume at a price.
+     *
+     * @param other    The decimal to multiply with.
+     * @param newScale The number of decimals of the product, 0 to 18.
+     * @return The product.
+     * @throws ArithmeticException If the product doesn't fit in a long.
+     */
+    public Decimal multiply(final Decimal other, final int newScale) throws ArithmeticException {
+        checkScale(newScale);
+        int productScale = scale + other.scale;
+        if (productScale <= MAX_SCALE)
+            try {
+                long product = Math.multiplyExact(unscaled, other.unscaled);
+                return new Decimal(rescale(product, productScale, newScale), newScale);
+            } catch (ArithmeticException e) {
+                // Fall through to the slow path.
+            }
+
+        return valueOf(toBigDecimal()
+                .multiply(other.toBigDecimal())
+                .setScale(newScale, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Returns the quotient of this and the given decimal, rounded to the
+     * given scale, like the average price of a cost and a volume.
+     *
+     * @param other    The decimal to divide by.
+     * @param newScale The number of decimals of the quotient, 0 to 18.
+     * @return The quotient.
+     * @throws ArithmeticException If the divisor is zero or the quotient doesn't fit in a long.
+     */
+    public Decimal divide(final Decimal other, final int newScale) throws ArithmeticException {
+        checkScale(newScale);
+        return valueOf(toBigDecimal().divide(other.toBigDecimal(), newScale, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Returns the negated value of this decimal.
+     *
+     * @return The negated decimal.
+     * @throws ArithmeticException If the negated value doesn't fit in a long.
+     */
+    public Decimal negate() throws ArithmeticException {
+        return new Decimal(Math.negateExact(unscaled), scale);
+    }
+
+    /**
+     * Returns the sign of this decimal.
+     *
+     * @return -1, 0 or 1 if this decimal is negative, zero or positive.
+     */
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    /**
+     * Returns the smaller of this and the given decimal.
+     *
+     * @param other The decimal to compare with.
+     * @return The smaller decimal.
+     */
+    public Decimal min(final Decimal other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    /**
+     * Returns the larger of this and the given decimal.
+     *
+     * @param other The decimal to compare with.
+     * @return The larger decimal.
+     */
+    public Decimal max(final Decimal other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    /**
+     * Returns this decimal as a {@code BigDecimal} with the same scale.
+     *
+     * @return The big decimal.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int compareTo(final Decimal other) {
+        if (scale == other.scale)
+            return Long.compare(unscaled, other.unscaled);
+
+        int common = Math.max(scale, other.scale);
+        try {
+            return Long.compare(
+                    rescale(unscaled, scale, common),
+                    rescale(other.unscaled, other.scale, common));
+        } catch (ArithmeticException e) {
+            return toBigDecimal().compareTo(other.toBigDecimal());
+        }
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return unscaled / POWERS_OF_TEN[scale];
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        // Both operands are exact doubles, so the division rounds correctly.
+        return unscaled > -MAX_EXACT_DOUBLE && unscaled < MAX_EXACT_DOUBLE ?
+                unscaled / (double) POWERS_OF_TEN[scale] :
+                toBigDecimal().doubleValue();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof Decimal && compareTo((Decimal) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long value = unscaled;
+        int decimals = scale;
+        while (decimals > 0 && value % 10L == 0L) {
+            value /= 10L;
+            decimals--;
+        }
+
+        return 31 * Long.hashCode(value) + decimals;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * Parses the given decimal string.
+     *
+     * @param text  The decimal string.
+     * @param scale The number of decimals, or -1 to keep all decimals.
+     * @return The decimal.
+     * @throws NumberFormatException If the text isn't a decimal number or doesn't fit.
+     */
+    private static Decimal parseScaled(final CharSequence text, final int scale) throws NumberFormatException {
+        if (text == null)
+            throw new NumberFormatException("null");
+
+        int length = text.length();
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        boolean plain = length > (negative ? 1 : 0) && length < 19;
+        long value = 0L;
+        int decimals = -1;
+
+        // At most 18 digits, which always fit in a long.
+        for (int i = negative ? 1 : 0; plain && i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10L + (c - '0');
+                if (decimals >= 0)
+                    decimals++;
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                plain = false;
+            }
+        }
+
+        if (plain) {
+            Decimal exact = new Decimal(negative ? -value : value, Math.max(0, decimals));
+            try {
+                return scale == -1 ? exact : exact.withScale(scale);
+            } catch (ArithmeticException e) {
+                throw new NumberFormatException("Out of range: " + text);
+            }
+        }
+
+        // Exponents, or more digits than the fast path can handle.
+        BigDecimal number = new BigDecimal(text.toString());
+        number = scale == -1 ?
+                number.setScale(Math.max(0, number.scale()), RoundingMode.UNNECESSARY) :
+                number.setScale(scale, RoundingMode.HALF_UP);
+
+        try {
+            return valueOf(number);
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            throw new NumberFormatException("Out of range: " + text);
+        }
+    }
+
+    /**
+     * Returns a decimal with the value of the given big decimal.
+     *
+     * @param number The big decimal. Expected to have a scale of 0 to 18.
+     * @return The decimal.
+     * @throws ArithmeticException If the value doesn't fit in a long.
+     */
+    private static Decimal valueOf(final BigDecimal number) throws ArithmeticException {
+        return valueOf(number.unscaledValue().longValueExact(), number.scale());
+    }
+
+    /**
+     * Rescales the given unscaled value, rounding half-up if decimals are
+     * dropped.
+     *
+     * @return The rescaled unscaled value.
+     * @throws ArithmeticException If the rescaled value doesn't fit in a long.
+     */
+    private static long rescale(final long value, final int from, final int to) throws ArithmeticException {
+        if (to >= from)
+            return Math.multiplyExact(value, POWERS_OF_TEN[to - from]);
+
+        long divisor = POWERS_OF_TEN[from - to];
+        long quotient = value / divisor;
+        long remainder = Math.abs(value % divisor);
+        return remainder >= divisor - remainder ?
+                quotient + Long.signum(value) :
+                quotient;
+    }
+
+    private static void checkScale(final int scale) throws IllegalArgumentException {
+        if (scale < 0 || scale > MAX_SCALE)
+            throw new IllegalArgumentException("Scale out of range: " + scale);
+    }
+
+}
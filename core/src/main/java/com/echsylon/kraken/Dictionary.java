@@ -1,16 +1,17 @@
 package com.echsylon.kraken;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * This class knows how to represent a dictionary of Kraken domain objects
- * that holds extra meta information about the data.
+ * that holds extra meta information about the data. The entries keep the
+ * order in which Kraken delivered them.
  * <p>
  * For technical details on the API see the online documentation:
  * https://www.kraken.com/help/api
  */
 @SuppressWarnings("WeakerAccess")
-public class Dictionary<V> extends HashMap<String, V> {
+public class Dictionary<V> extends LinkedHashMap<String, V> {
 
     /**
      * If applicable; holds the reference to the last item included in the
@@ -7,18 +7,22 @@ import com.echsylon.kraken.request.AddOrderRequestBuilder;
 import com.echsylon.kraken.request.AssetInfoRequestBuilder;
 import com.echsylon.kraken.request.CancelOrderRequestBuilder;
 import com.echsylon.kraken.request.ClosedOrdersRequestBuilder;
+import com.echsylon.kraken.request.DecimalOrderBookRequestBuilder;
 import com.echsylon.kraken.request.DepositAddressesRequestBuilder;
 import com.echsylon.kraken.request.DepositMethodsRequestBuilder;
 import com.echsylon.kraken.request.DepositStatusesRequestBuilder;
 import com.echsylon.kraken.request.LedgersRequestBuilder;
 import com.echsylon.kraken.request.OhlcDataRequestBuilder;
+import com.echsylon.kraken.request.OhlcSeriesRequestBuilder;
 import com.echsylon.kraken.request.OpenOrdersRequestBuilder;
 import com.echsylon.kraken.request.OpenPositionsRequestBuilder;
 import com.echsylon.kraken.request.OrderBookRequestBuilder;
 import com.echsylon.kraken.request.QueryLedgersRequestBuilder;
 import com.echsylon.kraken.request.QueryOrdersRequestBuilder;
 import com.echsylon.kraken.request.QueryTradesRequestBuilder;
+import com.echsylon.kraken.request.RecentSpreadBatchRequestBuilder;
 import com.echsylon.kraken.request.RecentSpreadRequestBuilder;
+import com.echsylon.kraken.request.RecentTradeBatchRequestBuilder;
 import com.echsylon.kraken.request.RecentTradesRequestBuilder;
 import com.echsylon.kraken.request.ServerTimeRequestBuilder;
 import com.echsylon.kraken.request.TickerInfoRequestBuilder;
@@ -32,6 +36,7 @@ import com.echsylon.kraken.request.WithdrawRequestBuilder;
 import com.echsylon.kraken.request.WithdrawStatusesRequestBuilder;
 
 import java.io.File;
+import java.util.concurrent.Executor;
 
 import static com.echsylon.kraken.internal.Utils.base64Decode;
 
@@ -77,10 +82,90 @@ public class Kraken {
         callCounter = null;
     }
 
+    /**
+     * Initiate the automatic call rate limit management, reserving part of
+     * the call rate budget for order entry requests (adding and cancelling
+     * orders) only.
+     *
+     * @param tier             The tier that decides which call rate limits to apply. Note that the
+     *                         server has the last say regarding what tier the account actually
+     *                         has.
+     * @param reservedHeadroom The amount of call rate budget that only order entry requests are
+     *                         allowed to use.
+     */
+    public static void setCallRateLimit(int tier, int reservedHeadroom) {
+        callCounter = new CallCounter(tier, reservedHeadroom);
+    }
+
+    /**
+     * Initiate the automatic call rate limit management, reserving part of
+     * the call rate budget for order entry requests only, and allowing the
+     * call rate limit to probe above the documented max count of the tier.
+     * The call rate limit is always decreased when the server reports it as
+     * exceeded, and slowly increased again, up to the ceiling, as requests
+     * succeed.
+     *
+     * @param tier             The tier that decides which call rate limits to apply.
+     * @param reservedHeadroom The amount of call rate budget that only order entry requests are
+     *                         allowed to use.
+     * @param maxCountCeiling  The highest max count to probe for. Zero or less means the
+     *                         documented max count of the tier.
+     */
+    public static void setCallRateLimit(int tier, int reservedHeadroom, int maxCountCeiling) {
+        callCounter = new CallCounter(tier, reservedHeadroom, maxCountCeiling);
+    }
+
+    /**
+     * Returns a snapshot of the call rate limit parameters, as learned from
+     * the server responses so far.
+     *
+     * @return The call rate limit status or null if no automatic call rate
+     * limit management is enabled.
+     */
+    public static CallCounter.Status getCallRateStatus() {
+        CallCounter counter = callCounter;
+        return counter != null ?
+                counter.getStatus() :
+                null;
+    }
+
+    /**
+     * Calculates the time until a request of the given cost can be executed
+     * without exceeding the call rate limit. All already enqueued requests
+     * waiting for call rate budget are taken into account.
+     *
+     * @param cost The cost of the request.
+     * @return The number of milliseconds until the cost is available. Always
+     * zero if no automatic call rate limit management is enabled.
+     */
+    public static long getMillisUntilCallRateAvailable(int cost) {
+        return getMillisUntilCallRateAvailable(cost, Priority.BULK_HISTORY);
+    }
+
+    /**
+     * Calculates the time until a request of the given cost and priority can
+     * be executed without exceeding the call rate limit. Any already enqueued
+     * requests of the same or higher priority waiting for call rate budget
+     * are taken into account.
+     *
+     * @param cost     The cost of the request.
+     * @param priority The priority class of the request.
+     * @return The number of milliseconds until the cost is available. Always
+     * zero if no automatic call rate limit management is enabled.
+     */
+    public static long getMillisUntilCallRateAvailable(int cost, Priority priority) {
+        CallCounter counter = callCounter;
+        return counter != null ?
+                counter.getMillisUntilAvailable(cost, priority) :
+                0L;
+    }
+
 
     private String baseUrl;
     private String key;
     private byte[] secret;
+    private Executor executor;
+    private Executor callbackExecutor;
 
     /**
      * Allows test cases to redirect requests to a test environment. Not exposed
@@ -111,9 +196,45 @@ public class Kraken {
      * @param apiSecret The corresponding key secret.
      */
     public Kraken(String apiKey, String apiSecret) {
-        baseUrl = BASE_URL;
-        key = apiKey;
-        secret = base64Decode(apiSecret);
+        this(apiKey, apiSecret, (Executor) null);
+    }
+
+    /**
+     * Initializes an instance of the Kraken API Client that's capable of
+     * executing private API requests (given that the provided credentials are
+     * valid) on the given executor. See {@link RequestExecutors} for bounded
+     * executors honoring the request priorities.
+     *
+     * @param apiKey    The Kraken API key for the targeted account. May be null.
+     * @param apiSecret The corresponding key secret. May be null.
+     * @param executor  The executor to run all requests on. Null means the
+     *                  shared default executor.
+     */
+    public Kraken(String apiKey, String apiSecret, Executor executor) {
+        this(apiKey, apiSecret, executor, null);
+    }
+
+    /**
+     * Initializes an instance of the Kraken API Client that's capable of
+     * executing private API requests (given that the provided credentials are
+     * valid) on the given executor, delivering the results through the given
+     * callback executor. Use {@link RequestExecutors#directExecutor()} to
+     * deliver results on the worker thread that produced them, without any
+     * thread hop.
+     *
+     * @param apiKey           The Kraken API key for the targeted account. May be null.
+     * @param apiSecret        The corresponding key secret. May be null.
+     * @param executor         The executor to run all requests on. Null means the
+     *                         shared default executor.
+     * @param callbackExecutor The executor to call all listeners through. Null means the
+     *                         main thread on Android and the worker thread elsewhere.
+     */
+    public Kraken(String apiKey, String apiSecret, Executor executor, Executor callbackExecutor) {
+        this.baseUrl = BASE_URL;
+        this.key = apiKey;
+        this.secret = base64Decode(apiSecret);
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
     }
 
     // Public data API
@@ -126,7 +247,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public ServerTimeRequestBuilder getServerTime() {
-        return new ServerTimeRequestBuilder(callCounter, baseUrl, key, secret);
+        return new ServerTimeRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -137,7 +260,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public AssetInfoRequestBuilder getAssetInfo() {
-        return new AssetInfoRequestBuilder(callCounter, baseUrl, key, secret);
+        return new AssetInfoRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -148,7 +273,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public TradableAssetPairsRequestBuilder getTradableAssetPairs() {
-        return new TradableAssetPairsRequestBuilder(callCounter, baseUrl, key, secret);
+        return new TradableAssetPairsRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -161,6 +288,8 @@ public class Kraken {
      */
     public TickerInfoRequestBuilder getTickerInformation(final String... pairs) {
         return new TickerInfoRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPairs(pairs);
     }
 
@@ -174,6 +303,25 @@ public class Kraken {
      */
     public OhlcDataRequestBuilder getOhlcData(final String pair) {
         return new OhlcDataRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
+                .useAssetPair(pair);
+    }
+
+    /**
+     * Retrieves information about the Open/High/Low/Close state for a tradable
+     * asset pair, as a columnar series of primitive arrays rather than one
+     * object per candle. The user is expected to provide at least one asset
+     * pair.
+     *
+     * @param pair The single asset pair to get information for.
+     * @return A request builder object to configure the request and any client side cache metrics
+     * with, and to attach any callback implementations to.
+     */
+    public OhlcSeriesRequestBuilder getOhlcSeries(final String pair) {
+        return new OhlcSeriesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPair(pair);
     }
 
@@ -187,6 +335,24 @@ public class Kraken {
      */
     public OrderBookRequestBuilder getOrderBook(final String pair) {
         return new OrderBookRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
+                .useAssetPair(pair);
+    }
+
+    /**
+     * Retrieves the market depth for tradable asset pairs, with the prices and
+     * volumes parsed into fixed-point decimals. The user is expected to provide
+     * at least one asset pair.
+     *
+     * @param pair The asset pair to get market depth for.
+     * @return A request builder object to configure the request and any client side cache metrics
+     * with, and to attach any callback implementations to.
+     */
+    public DecimalOrderBookRequestBuilder getDecimalOrderBook(final String pair) {
+        return new DecimalOrderBookRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPair(pair);
     }
 
@@ -200,6 +366,24 @@ public class Kraken {
      */
     public RecentTradesRequestBuilder getRecentTrades(final String pair) {
         return new RecentTradesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
+                .useAssetPair(pair);
+    }
+
+    /**
+     * Retrieves recent trades on the market, as a columnar batch of primitive
+     * arrays rather than one object per trade. The user is expected to provide
+     * at least one asset pair.
+     *
+     * @param pair The asset pair to get data for.
+     * @return A request builder object to configure the request and any client side cache metrics
+     * with, and to attach any callback implementations to.
+     */
+    public RecentTradeBatchRequestBuilder getRecentTradeBatch(final String pair) {
+        return new RecentTradeBatchRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPair(pair);
     }
 
@@ -213,6 +397,24 @@ public class Kraken {
      */
     public RecentSpreadRequestBuilder getRecentSpreadData(final String pair) {
         return new RecentSpreadRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
+                .useAssetPair(pair);
+    }
+
+    /**
+     * Retrieves information about recent spread data for a tradable asset
+     * pair, as a columnar batch of primitive arrays rather than one object per
+     * row. The user is expected to provide at least one asset pair.
+     *
+     * @param pair The asset pair to get information for.
+     * @return A request builder object to configure the request and any client side cache metrics
+     * with, and to attach any callback implementations to.
+     */
+    public RecentSpreadBatchRequestBuilder getRecentSpreadBatch(final String pair) {
+        return new RecentSpreadBatchRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPair(pair);
     }
 
@@ -225,7 +427,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public AccountBalanceRequestBuilder getAccountBalance() {
-        return new AccountBalanceRequestBuilder(callCounter, baseUrl, key, secret);
+        return new AccountBalanceRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -235,7 +439,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public TradeBalanceRequestBuilder getTradeBalance() {
-        return new TradeBalanceRequestBuilder(callCounter, baseUrl, key, secret);
+        return new TradeBalanceRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -245,7 +451,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public OpenOrdersRequestBuilder getOpenOrders() {
-        return new OpenOrdersRequestBuilder(callCounter, baseUrl, key, secret);
+        return new OpenOrdersRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -255,20 +463,24 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public ClosedOrdersRequestBuilder getClosedOrders() {
-        return new ClosedOrdersRequestBuilder(callCounter, baseUrl, key, secret);
+        return new ClosedOrdersRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
      * Retrieves information about any particular order(s). The user is expected
      * to provide at least one transaction id.
      *
-     * @param transactionIds Transaction ids of the orders to get info about. 20 max, at least one
-     *                       is required.
+     * @param transactionIds Transaction ids of the orders to get info about. At least one is
+     *                       required, any number is accepted.
      * @return A request builder object to configure the request and any client side cache metrics
      * with, and to attach any callback implementations to.
      */
     public QueryOrdersRequestBuilder queryOrdersInfo(final String... transactionIds) {
         return new QueryOrdersRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useTransactions(transactionIds);
     }
 
@@ -279,20 +491,24 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public TradeHistoryRequestBuilder getTradesHistory() {
-        return new TradeHistoryRequestBuilder(callCounter, baseUrl, key, secret);
+        return new TradeHistoryRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
      * Retrieves information about any particular trades(s). The user is
      * expected to provide at least one transaction id.
      *
-     * @param transactionIds Transaction ids of the orders to get info about. 20 max, at least one
-     *                       is required.
+     * @param transactionIds Transaction ids of the orders to get info about. At least one is
+     *                       required, any number is accepted.
      * @return A request builder object to configure the request and any client side cache metrics
      * with, and to attach any callback implementations to.
      */
     public QueryTradesRequestBuilder queryTradesInfo(final String... transactionIds) {
         return new QueryTradesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useTransactions(transactionIds);
     }
 
@@ -303,7 +519,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public OpenPositionsRequestBuilder getOpenPositions() {
-        return new OpenPositionsRequestBuilder(callCounter, baseUrl, key, secret);
+        return new OpenPositionsRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -313,19 +531,24 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public LedgersRequestBuilder getLedgersInfo() {
-        return new LedgersRequestBuilder(callCounter, baseUrl, key, secret);
+        return new LedgersRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
      * Retrieves information about any particular ledger(s). The user is
      * expected to provide at least one ledger id.
      *
-     * @param ledgerIds Id of ledgers to get. 20 max, at least one is required.
+     * @param ledgerIds Id of ledgers to get. At least one is required, any number is
+     *                  accepted.
      * @return A request builder object to configure the request and any client side cache metrics
      * with, and to attach any callback implementations to.
      */
     public QueryLedgersRequestBuilder queryLedgers(final String... ledgerIds) {
         return new QueryLedgersRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useLedgers(ledgerIds);
     }
 
@@ -336,7 +559,9 @@ public class Kraken {
      * with, and to attach any callback implementations to.
      */
     public TradeVolumeRequestBuilder getTradeVolume() {
-        return new TradeVolumeRequestBuilder(callCounter, baseUrl, key, secret);
+        return new TradeVolumeRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     // Private user trading
@@ -356,6 +581,8 @@ public class Kraken {
                                                    final String orderType,
                                                    final String price) {
         return new AddOrderRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAssetPair(pair)
                 .useType(type)
                 .useOrderType(orderType)
@@ -371,6 +598,8 @@ public class Kraken {
      */
     public CancelOrderRequestBuilder cancelOpenOrder(final String id) {
         return new CancelOrderRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useOrderId(id);
     }
 
@@ -383,7 +612,9 @@ public class Kraken {
      * attach any callback implementations to.
      */
     public DepositMethodsRequestBuilder getDepositMethods() {
-        return new DepositMethodsRequestBuilder(callCounter, baseUrl, key, secret);
+        return new DepositMethodsRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor);
     }
 
     /**
@@ -397,6 +628,8 @@ public class Kraken {
     public DepositAddressesRequestBuilder getDepositAddresses(final String asset,
                                                               final String method) {
         return new DepositAddressesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAsset(asset)
                 .useMethod(method);
     }
@@ -410,6 +643,8 @@ public class Kraken {
      */
     public DepositStatusesRequestBuilder getDepositStatuses(final String asset) {
         return new DepositStatusesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAsset(asset);
     }
 
@@ -426,6 +661,8 @@ public class Kraken {
                                                       final String receiver,
                                                       final float amount) {
         return new WithdrawInfoRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAsset(asset)
                 .useKey(receiver)
                 .useAmount(amount);
@@ -440,6 +677,8 @@ public class Kraken {
      */
     public WithdrawStatusesRequestBuilder getWithdrawStatuses(final String asset) {
         return new WithdrawStatusesRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAsset(asset);
     }
 
@@ -456,6 +695,8 @@ public class Kraken {
                                                 final String receiver,
                                                 final float amount) {
         return new WithdrawRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useAsset(asset)
                 .useKey(receiver)
                 .useAmount(amount);
@@ -471,6 +712,8 @@ public class Kraken {
      */
     public WithdrawCancellationRequestBuilder requestWithdrawCancellation(final String referenceId) {
         return new WithdrawCancellationRequestBuilder(callCounter, baseUrl, key, secret)
+                .useExecutor(executor)
+                .useCallbackExecutor(callbackExecutor)
                 .useReferenceId(referenceId);
     }
 
@@ -0,0 +1,59 @@
+package com.echsylon.kraken;
+
+/**
+ * This exception represents a Kraken request error.
+ */
+public class KrakenRequestException extends RuntimeException {
+    private static final String RATE_LIMIT_EXCEEDED = "Rate limit exceeded";
+    private static final String TEMPORARY_LOCKOUT = "Temporary lockout";
+
+    private final String[] errors;
+
+    public KrakenRequestException(String[] errors) {
+        super(join(errors));
+        this.errors = errors != null ? errors.clone() : new String[0];
+    }
+
+    /**
+     * Returns the raw error messages as provided by the Kraken server.
+     *
+     * @return The error messages. Never null.
+     */
+    public String[] getErrors() {
+        return errors.clone();
+    }
+
+    /**
+     * Returns whether the server rejected the request because the call rate
+     * limit was exceeded, or because the account is temporarily locked out
+     * for exceeding it repeatedly.
+     *
+     * @return Boolean true if any error describes a call rate limit violation.
+     */
+    public boolean isRateLimitError() {
+        for (String error : errors)
+            if (error != null && (error.contains(RATE_LIMIT_EXCEEDED) ||
+                    error.contains(TEMPORARY_LOCKOUT)))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Joins the given error messages into one, line separated, message.
+     */
+    private static String join(String[] errors) {
+        if (errors == null)
+            return null;
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < errors.length; i++) {
+            if (i > 0)
+                builder.append('\n');
+            builder.append(errors[i]);
+        }
+
+        return builder.toString();
+    }
+
+}
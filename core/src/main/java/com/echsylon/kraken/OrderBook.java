@@ -0,0 +1,351 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.dto.Depth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class maintains a local order book of one asset pair from full depth
+ * snapshots, as delivered by the order book request. The price levels are
+ * kept in sorted primitive arrays, asks in ascending and bids in descending
+ * price order, which makes the best bid and ask available in constant time
+ * and the volume at any given price in logarithmic time.
+ * <p>
+ * Each applied snapshot is diffed against the current state of the book and
+ * any added, changed or removed price levels are reported to the listeners,
+ * on the thread applying the snapshot, once the book reflects the snapshot.
+ * Snapshots are expected to be applied by one thread at a time, while the
+ * book may be queried from any thread.
+ * <p>
+ * All prices and volumes are parsed once, when the snapshot is applied.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OrderBook {
+
+    /**
+     * Describes the side of the book.
+     */
+    public enum Side {
+        BID, ASK
+    }
+
+    /**
+     * Describes how a price level changed.
+     */
+    public enum Change {
+        ADD, CHANGE, REMOVE
+    }
+
+    /**
+     * This interface describes a receiver of price level changes.
+     */
+    public interface Listener {
+
+        /**
+         * Called once for each changed price level of an applied snapshot,
+         * bids first, each side in book order.
+         *
+         * @param book   The order book.
+         * @param side   The side of the price level.
+         * @param change How the price level changed.
+         * @param price  The price of the level.
+         * @param volume The new volume of the level. Zero if removed.
+         */
+        void onLevelChanged(OrderBook book, Side side, Change change, double price, double volume);
+    }
+
+    private static final double[] EMPTY = new double[0];
+
+    private final String pair;
+    private final List<Listener> listeners;
+
+    private double[] bidPrices;
+    private double[] bidVolumes;
+    private double[] askPrices;
+    private double[] askVolumes;
+
+
+    /**
+     * Creates a new, empty, order book.
+     *
+     * @param pair The asset pair of the order book.
+     */
+    public OrderBook(final String pair) {
+        this.pair = pair;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.bidPrices = EMPTY;
+        this.bidVolumes = EMPTY;
+        this.askPrices = EMPTY;
+        this.askVolumes = EMPTY;
+    }
+
+    /**
+     * Returns the asset pair of this order book.
+     *
+     * @return The asset pair.
+     */
+    public String getPair() {
+        return pair;
+    }
+
+    /**
+     * Adds a listener to be notified of changed price levels.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(final Listener listener) {
+        if (listener != null)
+            listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously added listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Replaces the state of this order book with the given snapshot and
+     * reports any changed price levels to the listeners.
+     *
+     * @param depth The full depth snapshot.
+     * @throws NumberFormatException If a price or volume isn't a number.
+     */
+    public void apply(final Depth depth) throws NumberFormatException {
+        double[][] bids = parse(depth != null ? depth.bids : null, true);
+        double[][] asks = parse(depth != null ? depth.asks : null, false);
+
+        double[] oldBidPrices;
+        double[] oldBidVolumes;
+        double[] oldAskPrices;
+        double[] oldAskVolumes;
+        synchronized (this) {
+            oldBidPrices = bidPrices;
+            oldBidVolumes = bidVolumes;
+            oldAskPrices = askPrices;
+            oldAskVolumes = askVolumes;
+
+            bidPrices = bids[0];
+            bidVolumes = bids[1];
+            askPrices = asks[0];
+            askVolumes = asks[1];
+        }
+
+        if (!listeners.isEmpty()) {
+            diff(Side.BID, true, oldBidPrices, oldBidVolumes, bids[0], bids[1]);
+            diff(Side.ASK, false, oldAskPrices, oldAskVolumes, asks[0], asks[1]);
+        }
+    }
+
+    /**
+     * Returns the highest bid price.
+     *
+     * @return The best bid price, or NaN if there are no bids.
+     */
+    public synchronized double getBestBid() {
+        return bidPrices.length > 0 ? bidPrices[0] : Double.NaN;
+    }
+
+    /**
+     * Returns the lowest ask price.
+     *
+     * @return The best ask price, or NaN if there are no asks.
+     */
+    public synchronized double getBestAsk() {
+        return askPrices.length > 0 ? askPrices[0] : Double.NaN;
+    }
+
+    /**
+     * Returns the number of price levels on the given side.
+     *
+     * @param side The side of the book.
+     * @return The number of price levels.
+     */
+    public synchronized int getLevelCount(final Side side) {
+        return side == Side.BID ? bidPrices.length : askPrices.length;
+    }
+
+    /**
+     * Returns the price of the given level, where level zero is the best.
+     *
+     * @param side  The side of the book.
+     * @param level The index of the level.
+     * @return The price of the level.
+     * @throws IndexOutOfBoundsException If there is no such level.
+     */
+    public synchronized double getPrice(final Side side, final int level) throws IndexOutOfBoundsException {
+        double[] prices = side == Side.BID ? bidPrices : askPrices;
+        if (level < 0 || level >= prices.length)
+            throw new IndexOutOfBoundsException("No such level: " + level);
+
+        return prices[level];
+    }
+
+    /**
+     * Returns the volume of the given level, where level zero is the best.
+     *
+     * @param side  The side of the book.
+     * @param level The index of the level.
+     * @return The volume of the level.
+     * @throws IndexOutOfBoundsException If there is no such level.
+     */
+    public synchronized double getVolume(final Side side, final int level) throws IndexOutOfBoundsException {
+        double[] volumes = side == Side.BID ? bidVolumes : askVolumes;
+        if (level < 0 || level >= volumes.length)
+            throw new IndexOutOfBoundsException("No such level: " + level);
+
+        return volumes[level];
+    }
+
+    /**
+     * Returns the volume at the given price.
+     *
+     * @param side  The side of the book.
+     * @param price The price of the level.
+     * @return The volume of the level, or zero if there is no such level.
+     */
+    public synchronized double getVolumeAt(final Side side, final double price) {
+        boolean descending = side == Side.BID;
+        double[] prices = descending ? bidPrices : askPrices;
+        int index = search(prices, price, descending);
+        return index >= 0 ?
+                (descending ? bidVolumes : askVolumes)[index] :
+                0D;
+    }
+
+    /**
+     * Reports the differences between the old and the new levels of one side
+     * of the book. Both are expected to be sorted in book order.
+     */
+    private void diff(final Side side,
+                      final boolean descending,
+                      final double[] oldPrices,
+                      final double[] oldVolumes,
+                      final double[] newPrices,
+                      final double[] newVolumes) {
+
+        int i = 0;
+        int j = 0;
+        while (i < oldPrices.length || j < newPrices.length) {
+            int order = i == oldPrices.length ? 1 :
+                    j == newPrices.length ? -1 :
+                            compare(oldPrices[i], newPrices[j], descending);
+
+            if (order < 0) {
+                notify(side, Change.REMOVE, oldPrices[i], 0D);
+                i++;
+            } else if (order > 0) {
+                notify(side, Change.ADD, newPrices[j], newVolumes[j]);
+                j++;
+            } else {
+                if (oldVolumes[i] != newVolumes[j])
+                    notify(side, Change.CHANGE, newPrices[j], newVolumes[j]);
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Reports one changed price level to all listeners.
+     */
+    private void notify(final Side side, final Change change, final double price, final double volume) {
+        for (Listener listener : listeners)
+            listener.onLevelChanged(this, side, change, price, volume);
+    }
+
+    /**
+     * Parses the given offers into sorted price and volume arrays. Offers at
+     * the same price are merged.
+     *
+     * @param offers     The offers to parse. May be null.
+     * @param descending Whether to sort in descending price order.
+     * @return The price array at index zero and the volume array at index one.
+     */
+    private static double[][] parse(final Depth.Offer[] offers, final boolean descending) {
+        if (offers == null || offers.length == 0)
+            return new double[][]{EMPTY, EMPTY};
+
+        int count = offers.length;
+        double[] prices = new double[count];
+        double[] volumes = new double[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            prices[i] = Double.parseDouble(offers[i].price);
+            volumes[i] = Double.parseDouble(offers[i].volume);
+            if (i > 0 && compare(prices[i - 1], prices[i], descending) >= 0)
+                sorted = false;
+        }
+
+        // Kraken delivers the offers in book order, this is only a safety net.
+        if (!sorted) {
+            Integer[] indices = new Integer[count];
+            for (int i = 0; i < count; i++)
+                indices[i] = i;
+
+            Comparator<Integer> order = (first, second) -> compare(prices[first], prices[second], descending);
+            Arrays.sort(indices, order);
+
+            List<double[]> levels = new ArrayList<>(count);
+            for (Integer index : indices) {
+                double[] last = levels.isEmpty() ? null : levels.get(levels.size() - 1);
+                if (last != null && last[0] == prices[index])
+                    last[1] += volumes[index];
+                else
+                    levels.add(new double[]{prices[index], volumes[index]});
+            }
+
+            double[] sortedPrices = new double[levels.size()];
+            double[] sortedVolumes = new double[levels.size()];
+            for (int i = 0; i < levels.size(); i++) {
+                sortedPrices[i] = levels.get(i)[0];
+                sortedVolumes[i] = levels.get(i)[1];
+            }
+
+            return new double[][]{sortedPrices, sortedVolumes};
+        }
+
+        return new double[][]{prices, volumes};
+    }
+
+    /**
+     * Compares two prices in book order.
+     *
+     * @return A negative number if the first price comes first in the book.
+     */
+    private static int compare(final double first, final double second, final boolean descending) {
+        return descending ?
+                Double.compare(second, first) :
+                Double.compare(first, second);
+    }
+
+    /**
+     * Finds the given price in the given book ordered prices.
+     *
+     * @return The index of the price, or a negative number if not found.
+     */
+    private static int search(final double[] prices, final double price, final boolean descending) {
+        int low = 0;
+        int high = prices.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(prices[middle], price, descending);
+            if (order < 0)
+                low = middle + 1;
+            else if (order > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+
+        return -1;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.echsylon.kraken;
+
+/**
+ * This enum describes the priority classes of Kraken requests. Requests are
+ * granted call rate budget, and executed, in the order of their priority
+ * class, with {@link #ORDER_ENTRY} being the most urgent. Requests of the same
+ * priority class are handled in the order they were enqueued.
+ */
+public enum Priority {
+
+    /**
+     * Adding and cancelling orders. These requests may also use the reserved
+     * call rate headroom that no other requests are allowed to touch.
+     */
+    ORDER_ENTRY,
+
+    /**
+     * Private account and funding information, like balances, open orders and
+     * positions.
+     */
+    ACCOUNT,
+
+    /**
+     * Public market data, like tickers, order books and recent trades.
+     */
+    MARKET_DATA,
+
+    /**
+     * Bulk history queries, like ledgers, trades history and closed orders.
+     */
+    BULK_HISTORY
+
+}
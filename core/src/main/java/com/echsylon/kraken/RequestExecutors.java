@@ -0,0 +1,80 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.internal.BoundedPriorityBlockingQueue;
+import com.echsylon.kraken.internal.Platform;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class offers factory methods for executors suitable for running Kraken
+ * requests. Any {@code java.util.concurrent.Executor} can be handed to a
+ * {@link Kraken} instance, though, be it a direct executor for tests or a
+ * thread-per-task executor. The executors created here additionally honor
+ * the {@link Priority} of the requests waiting for a worker thread.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class RequestExecutors {
+
+    private RequestExecutors() {
+        // Intentionally hidden.
+    }
+
+    /**
+     * Returns an executor that runs any task directly on the calling thread.
+     * Used as callback executor it delivers results on the worker thread that
+     * produced them, without any thread hop.
+     *
+     * @return The direct executor.
+     */
+    public static Executor directExecutor() {
+        return Platform.getDirectExecutor();
+    }
+
+    /**
+     * Creates a new executor with a fixed number of worker threads and a
+     * bounded, priority ordered, queue for requests waiting for a worker.
+     * Requests offered to a full queue are rejected and the rejection is
+     * delivered to the error listeners of the request.
+     *
+     * @param threads       The number of worker threads.
+     * @param queueCapacity The max number of requests waiting for a worker.
+     * @return A new executor.
+     * @throws IllegalArgumentException If any argument is less than one.
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity)
+            throws IllegalArgumentException {
+
+        return newBoundedExecutor(threads, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Creates a new executor with a fixed number of worker threads and a
+     * bounded, priority ordered, queue for requests waiting for a worker. The
+     * given policy decides what happens to requests offered to a full queue.
+     * <p>
+     * NOTE! A policy that silently discards requests will leave them without
+     * a result, and no callbacks will ever be called for them.
+     *
+     * @param threads       The number of worker threads.
+     * @param queueCapacity The max number of requests waiting for a worker.
+     * @param policy        The rejection policy for requests offered to a full queue.
+     * @return A new executor.
+     * @throws IllegalArgumentException If any argument is less than one.
+     * @throws NullPointerException     If the policy is null.
+     */
+    public static ExecutorService newBoundedExecutor(int threads,
+                                                     int queueCapacity,
+                                                     RejectedExecutionHandler policy)
+            throws IllegalArgumentException, NullPointerException {
+
+        return new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new BoundedPriorityBlockingQueue<>(queueCapacity),
+                policy);
+    }
+
+}
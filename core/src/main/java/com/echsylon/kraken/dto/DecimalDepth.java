@@ -0,0 +1,30 @@
+package com.echsylon.kraken.dto;
+
+import com.echsylon.kraken.Decimal;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * This class represents the market depth of an asset pair, just like
+ * {@link Depth}, but with the prices and volumes parsed into fixed-point
+ * decimals, optionally rounded to the precision of the asset pair.
+ * <p>
+ * For technical details on the API see the online documentation:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public final class DecimalDepth {
+
+    public static final class Offer {
+        public Decimal price;
+        public Decimal volume;
+        public long timestamp;
+    }
+
+
+    @SerializedName("asks")
+    public Offer[] asks;
+
+    @SerializedName("bids")
+    public Offer[] bids;
+
+}
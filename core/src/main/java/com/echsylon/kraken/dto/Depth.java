@@ -12,7 +12,7 @@ public final class Depth {
     public static final class Offer {
         public String price;
         public String volume;
-        public Long timestamp;
+        public long timestamp;
     }
 
 
@@ -13,7 +13,7 @@ public final class Ledger {
     public String referenceId;
 
     @SerializedName("time")
-    public Double time;
+    public double time;
 
     @SerializedName("type")
     public String type;
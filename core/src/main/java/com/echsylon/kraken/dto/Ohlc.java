@@ -7,14 +7,14 @@ package com.echsylon.kraken.dto;
 @SuppressWarnings("WeakerAccess")
 public final class Ohlc {
 
-    public Long time;
+    public long time;
     public String open;
     public String high;
     public String low;
     public String close;
     public String volumeWeightedAveragePrice;
     public String volume;
-    public Integer count;
+    public int count;
 
 }
 
@@ -0,0 +1,25 @@
+package com.echsylon.kraken.dto;
+
+/**
+ * This class holds a series of Open/High/Low/Close candles in columnar form,
+ * one primitive array per field, where index {@code i} of each array describes
+ * the same candle. The candles are in time order, oldest first. All arrays
+ * have exactly {@link #size} elements.
+ * <p>
+ * For technical details on the API see the online documentation:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OhlcSeries {
+
+    public int size;
+    public long[] time;
+    public double[] open;
+    public double[] high;
+    public double[] low;
+    public double[] close;
+    public double[] volumeWeightedAveragePrice;
+    public double[] volume;
+    public int[] count;
+
+}
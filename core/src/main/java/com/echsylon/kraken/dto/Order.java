@@ -3,6 +3,9 @@ package com.echsylon.kraken.dto;
 import com.google.gson.annotations.SerializedName;
 
 /**
+ * The times are epoch seconds, or 0 if they don't apply to the order, like the
+ * close time of an open order.
+ * <p>
  * For technical details on the API see the online documentation:
  * https://www.kraken.com/help/api
  */
@@ -51,16 +54,16 @@ public final class Order {
     public String reason;
 
     @SerializedName("opentm")
-    public Double openTime;
+    public double openTime;
 
     @SerializedName("closetm")
-    public Double closeTime;
+    public double closeTime;
 
     @SerializedName("starttm")
-    public Double startTime;
+    public double startTime;
 
     @SerializedName("expiretm")
-    public Double expireTime;
+    public double expireTime;
 
     @SerializedName("descr")
     public Description description;
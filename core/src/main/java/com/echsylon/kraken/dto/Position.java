@@ -16,7 +16,7 @@ public final class Position {
     public String pair;
 
     @SerializedName("time")
-    public Double time;
+    public double time;
 
     @SerializedName("type")
     public String type;
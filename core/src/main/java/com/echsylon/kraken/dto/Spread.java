@@ -7,7 +7,7 @@ package com.echsylon.kraken.dto;
 @SuppressWarnings("WeakerAccess")
 public final class Spread {
 
-    public Long timestamp;
+    public long timestamp;
     public String bid;
     public String ask;
 
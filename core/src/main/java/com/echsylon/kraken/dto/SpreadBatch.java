@@ -0,0 +1,23 @@
+package com.echsylon.kraken.dto;
+
+/**
+ * This class holds a batch of spread rows in columnar form, one primitive
+ * array per field, where index {@code i} of each array describes the same row.
+ * All arrays have exactly {@link #size} elements.
+ * <p>
+ * Bid and ask prices are exact scaled integers: the decimal value of a price
+ * is {@code bid[i] / 10^priceScale}. Times are microseconds since epoch.
+ * <p>
+ * For technical details on the API see the online documentation:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SpreadBatch {
+
+    public int size;
+    public int priceScale;
+    public long[] timeMicros;
+    public long[] bid;
+    public long[] ask;
+
+}
@@ -9,7 +9,7 @@ public final class Trade {
 
     public String price;
     public String volume;
-    public Double time;
+    public double time;
     public String buyOrSell;
     public String marketOrLimit;
     public String misc;
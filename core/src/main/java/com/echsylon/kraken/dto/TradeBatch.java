@@ -0,0 +1,35 @@
+package com.echsylon.kraken.dto;
+
+/**
+ * This class holds a batch of trades in columnar form, one primitive array per
+ * field, where index {@code i} of each array describes the same trade. All
+ * arrays have exactly {@link #size} elements.
+ * <p>
+ * Prices and volumes are exact scaled integers: the decimal value of a price
+ * is {@code price[i] / 10^priceScale}, and likewise for volumes. Times are
+ * microseconds since epoch. The side and type of each trade are held as the
+ * single character flags Kraken uses, see the constants below. The
+ * miscellaneous info is null for trades that have none.
+ * <p>
+ * For technical details on the API see the online documentation:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public final class TradeBatch {
+
+    public static final byte BUY = 'b';
+    public static final byte SELL = 's';
+    public static final byte MARKET = 'm';
+    public static final byte LIMIT = 'l';
+
+    public int size;
+    public int priceScale;
+    public int volumeScale;
+    public long[] price;
+    public long[] volume;
+    public long[] timeMicros;
+    public byte[] buyOrSell;
+    public byte[] marketOrLimit;
+    public String[] misc;
+
+}
@@ -19,7 +19,7 @@ public final class TradeHistory {
     public String pair;
 
     @SerializedName("time")
-    public Double time;
+    public double time;
 
     @SerializedName("type")
     public String type;
@@ -0,0 +1,118 @@
+package com.echsylon.kraken.internal;
+
+/**
+ * THIS IS NOT THE API YOU'RE LOOKING FOR!
+ *
+ * This class knows how to encode and decode the standard Base 64 alphabet, as
+ * described in RFC 4648, without depending on any platform specific codec.
+ * Encoded strings are always padded and never wrapped. Decoding accepts both
+ * padded and unpadded input and ignores any whitespace.
+ */
+public final class Base64Codec {
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private static final int[] VALUES = new int[128];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++)
+            VALUES[i] = -1;
+        for (int i = 0; i < ALPHABET.length; i++)
+            VALUES[ALPHABET[i]] = i;
+    }
+
+
+    private Base64Codec() {
+        // Intentionally hidden.
+    }
+
+    /**
+     * Encodes the given bytes to a padded Base 64 string.
+     *
+     * @param bytes The bytes to encode.
+     * @return The encoded string.
+     */
+    public static String encode(final byte[] bytes) {
+        int length = bytes.length;
+        char[] result = new char[(length + 2) / 3 * 4];
+        int index = 0;
+        int i = 0;
+
+        for (; i + 2 < length; i += 3) {
+            int chunk = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            result[index++] = ALPHABET[chunk >>> 18 & 0x3F];
+            result[index++] = ALPHABET[chunk >>> 12 & 0x3F];
+            result[index++] = ALPHABET[chunk >>> 6 & 0x3F];
+            result[index++] = ALPHABET[chunk & 0x3F];
+        }
+
+        int remaining = length - i;
+        if (remaining > 0) {
+            int chunk = (bytes[i] & 0xFF) << 16 | (remaining > 1 ? (bytes[i + 1] & 0xFF) << 8 : 0);
+            result[index++] = ALPHABET[chunk >>> 18 & 0x3F];
+            result[index++] = ALPHABET[chunk >>> 12 & 0x3F];
+            result[index++] = remaining > 1 ? ALPHABET[chunk >>> 6 & 0x3F] : '=';
+            result[index] = '=';
+        }
+
+        return new String(result);
+    }
+
+    /**
+     * Decodes the given Base 64 string.
+     *
+     * @param string The string to decode.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the string isn't valid Base 64.
+     */
+    public static byte[] decode(final String string) throws IllegalArgumentException {
+        byte[] buffer = new byte[string.length() * 3 / 4 + 3];
+        int index = 0;
+        int chunk = 0;
+        int count = 0;
+        boolean padding = false;
+
+        for (int i = 0, length = string.length(); i < length; i++) {
+            char character = string.charAt(i);
+            if (Character.isWhitespace(character))
+                continue;
+
+            if (character == '=') {
+                padding = true;
+                continue;
+            }
+
+            int value = character < VALUES.length ? VALUES[character] : -1;
+            if (value < 0 || padding)
+                throw new IllegalArgumentException("Bad Base 64 character at position " + i);
+
+            chunk = chunk << 6 | value;
+            if (++count == 4) {
+                buffer[index++] = (byte) (chunk >>> 16);
+                buffer[index++] = (byte) (chunk >>> 8);
+                buffer[index++] = (byte) chunk;
+                chunk = 0;
+                count = 0;
+            }
+        }
+
+        switch (count) {
+            case 0:
+                break;
+            case 2:
+                buffer[index++] = (byte) (chunk >>> 4);
+                break;
+            case 3:
+                buffer[index++] = (byte) (chunk >>> 10);
+                buffer[index++] = (byte) (chunk >>> 2);
+                break;
+            default:
+                throw new IllegalArgumentException("Bad Base 64 length");
+        }
+
+        byte[] result = new byte[index];
+        System.arraycopy(buffer, 0, result, 0, index);
+        return result;
+    }
+
+}
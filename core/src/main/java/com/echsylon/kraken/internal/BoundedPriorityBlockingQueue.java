@@ -0,0 +1,187 @@
+package com.echsylon.kraken.internal;
+
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class is a priority ordered blocking queue that won't grow beyond a
+ * given capacity. Offering an element to a full queue fails, which in turn
+ * triggers the rejection policy of any thread pool executor using the queue.
+ * Adding an element to a full queue throws, while putting an element waits
+ * for space to become available, as for any other bounded blocking queue.
+ * <p>
+ * Note that {@code PriorityBlockingQueue} declares neither {@code put(E)} nor
+ * the timed {@code offer(E, long, TimeUnit)} to throw {@code
+ * InterruptedException}. An interrupted {@code put(E)} therefore throws an
+ * {@code IllegalStateException}, and an interrupted timed offer fails, both
+ * with the interrupt status of the thread restored. Furthermore, elements
+ * removed through an iterator don't wake up any waiting producers.
+ *
+ * @param <E> The type of elements held in the queue.
+ */
+public final class BoundedPriorityBlockingQueue<E> extends PriorityBlockingQueue<E> {
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+    private final ReentrantLock capacityLock;
+    private final Condition notFull;
+
+    /**
+     * Creates a new, empty, queue that holds at most the given number of
+     * elements.
+     *
+     * @param capacity The max number of elements in the queue.
+     * @throws IllegalArgumentException If the capacity is less than one.
+     */
+    public BoundedPriorityBlockingQueue(int capacity) throws IllegalArgumentException {
+        super();
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity must be at least one");
+
+        this.capacity = capacity;
+        this.capacityLock = new ReentrantLock();
+        this.notFull = capacityLock.newCondition();
+    }
+
+    @Override
+    public boolean offer(E element) {
+        capacityLock.lock();
+        try {
+            return size() < capacity && super.offer(element);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the given element to the queue, waiting at most the given time for
+     * space to become available.
+     *
+     * @param element The element to add.
+     * @param timeout The max time to wait.
+     * @param unit    The unit of the timeout.
+     * @return Boolean true if the element was added, false if the queue still
+     * was full after the timeout, or the calling thread was interrupted.
+     */
+    @Override
+    public boolean offer(E element, long timeout, TimeUnit unit) {
+        long nanos = unit.toNanos(timeout);
+        capacityLock.lock();
+        try {
+            while (size() >= capacity) {
+                if (nanos <= 0L)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+
+            return super.offer(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the given element to the queue.
+     *
+     * @param element The element to add.
+     * @return Always boolean true.
+     * @throws IllegalStateException If the queue is full.
+     */
+    @Override
+    public boolean add(E element) {
+        if (!offer(element))
+            throw new IllegalStateException("The queue is full");
+
+        return true;
+    }
+
+    /**
+     * Adds the given element to the queue, waiting for space to become
+     * available if necessary.
+     *
+     * @param element The element to add.
+     * @throws IllegalStateException If the calling thread was interrupted while waiting.
+     */
+    @Override
+    public void put(E element) {
+        capacityLock.lock();
+        try {
+            while (size() >= capacity)
+                notFull.await();
+
+            super.offer(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for space", e);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        return signalNotFull(super.poll());
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return signalNotFull(super.poll(timeout, unit));
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return signalNotFull(super.take());
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return signalNotFull(super.remove(element));
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection) {
+        return signalNotFull(super.drainTo(collection));
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        return signalNotFull(super.drainTo(collection, maxElements));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        signalNotFull(null);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    /**
+     * Wakes up any producers waiting for space, and passes the given result
+     * through.
+     *
+     * @param result The result of the removing operation.
+     * @param <T>    The type of the result.
+     * @return The given result.
+     */
+    private <T> T signalNotFull(final T result) {
+        capacityLock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+
+        return result;
+    }
+
+}
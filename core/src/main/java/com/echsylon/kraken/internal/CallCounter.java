@@ -0,0 +1,512 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.Priority;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class know how to calculate the call rate limit state for API requests
+ * and will postpone any requests that would exceed the limit. No thread is
+ * blocked while waiting; the call counter rather calculates when a request
+ * becomes eligible and dispatches it from a timer at that point in time.
+ * <p>
+ * The call counter is decreased continuously, with millisecond precision,
+ * according to the decrease interval of the configured tier.
+ * <p>
+ * Pending requests are granted budget in order of their priority class. A
+ * request is never granted budget while a request of a higher priority class
+ * is waiting. Furthermore, a reserved headroom of the call rate budget can
+ * only be used by {@link Priority#ORDER_ENTRY} requests, so that placing and
+ * cancelling orders is never delayed by, for example, a long running history
+ * export.
+ * <p>
+ * The max count is adapted to what the server actually accepts, following an
+ * additive increase, multiplicative decrease scheme. Each time the server
+ * reports an exceeded rate limit, or a temporary lockout, for a request sent
+ * after any previous back off period, the max count is halved and any
+ * requests with a cost are held back for an exponentially growing back off
+ * period. Each successful request, sent after the back off period, then
+ * probes the max count upwards again, by roughly one unit per max count worth
+ * of successful requests, until the configured ceiling is reached.
+ * <p>
+ * Requests without a cost are never held back; not by the back off period nor
+ * by the call rate limit. Order entry requests do have a cost, and are thereby
+ * only protected by the reserved headroom and their priority.
+ */
+public final class CallCounter {
+    private static final int DEFAULT_RESERVED_HEADROOM = 0;
+    private static final double DECREASE_FACTOR = 0.5D;
+    private static final double MIN_MAX_COUNT = 1.0D;
+    private static final long MAX_BACKOFF_MILLIS = 15L * 60L * 1000L;
+
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kraken-call-counter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * This class describes a snapshot of the learned call rate limit
+     * parameters.
+     */
+    public static final class Status {
+        public final double callCount;
+        public final double effectiveMaxCount;
+        public final int maxCountCeiling;
+        public final long decreaseIntervalMillis;
+        public final long remainingBackoffMillis;
+
+        private Status(final double callCount,
+                       final double effectiveMaxCount,
+                       final int maxCountCeiling,
+                       final long decreaseIntervalMillis,
+                       final long remainingBackoffMillis) {
+
+            this.callCount = callCount;
+            this.effectiveMaxCount = effectiveMaxCount;
+            this.maxCountCeiling = maxCountCeiling;
+            this.decreaseIntervalMillis = decreaseIntervalMillis;
+            this.remainingBackoffMillis = remainingBackoffMillis;
+        }
+    }
+
+    /**
+     * This class describes the call rate budget reservation of a scheduled
+     * request. Running it releases the budget, should the request be
+     * cancelled before it executes.
+     */
+    public final class Reservation implements Runnable {
+        private final Ticket ticket;
+        private Priority priority;
+
+        private Reservation(final Ticket ticket, final Priority priority) {
+            this.ticket = ticket;
+            this.priority = priority;
+        }
+
+        /**
+         * Releases the call rate budget of the request. A still pending
+         * request is removed from the queue, without ever being charged,
+         * while the cost of an already dispatched request is refunded.
+         */
+        @Override
+        public void run() {
+            release(this);
+        }
+
+        /**
+         * Moves a still pending request to the given, higher, priority class.
+         * Nothing happens if the request has already been dispatched or if
+         * the priority class isn't higher than the current one.
+         *
+         * @param higher The new priority class.
+         */
+        public void raise(final Priority higher) {
+            synchronized (CallCounter.this) {
+                if (higher.compareTo(priority) >= 0 || !pending.get(priority).remove(ticket))
+                    return;
+
+                priority = higher;
+                pending.get(higher).add(ticket);
+            }
+
+            drain();
+        }
+    }
+
+    /**
+     * This class describes a request waiting for enough call rate budget to
+     * become available.
+     */
+    private static final class Ticket {
+        private final int cost;
+        private final Runnable task;
+
+        private Ticket(final int cost, final Runnable task) {
+            this.cost = cost;
+            this.task = task;
+        }
+    }
+
+
+    private final long decreaseIntervalMillis;
+    private final int maxCountCeiling;
+    private final int reservedHeadroom;
+    private final EnumMap<Priority, ArrayDeque<Ticket>> pending;
+
+    private double effectiveMaxCount;
+    private double callCounter;
+    private long lastUpdateTime;
+    private long backoffMillis;
+    private long backoffUntil;
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpTime;
+
+
+    /**
+     * Creates a new call rate state machine and initializes it with rules
+     * according to the supplied tier.
+     *
+     * @param tier The tier that decides which call rate limit rules to apply.
+     */
+    public CallCounter(int tier) {
+        this(tier, DEFAULT_RESERVED_HEADROOM);
+    }
+
+    /**
+     * Creates a new call rate state machine and initializes it with rules
+     * according to the supplied tier, reserving the given amount of the call
+     * rate budget for order entry requests only.
+     *
+     * @param tier             The tier that decides which call rate limit rules to apply.
+     * @param reservedHeadroom The amount of call rate budget only available to order entry
+     *                         requests.
+     */
+    public CallCounter(int tier, int reservedHeadroom) {
+        this(tier, reservedHeadroom, 0);
+    }
+
+    /**
+     * Creates a new call rate state machine and initializes it with rules
+     * according to the supplied tier, reserving the given amount of the call
+     * rate budget for order entry requests only. The max count is allowed to
+     * probe upwards to the given ceiling, rather than stopping at the
+     * documented max count of the tier.
+     *
+     * @param tier             The tier that decides which call rate limit rules to apply.
+     * @param reservedHeadroom The amount of call rate budget only available to order entry
+     *                         requests.
+     * @param maxCountCeiling  The max count to probe upwards to. Zero or less means the
+     *                         documented max count of the tier.
+     */
+    public CallCounter(int tier, int reservedHeadroom, int maxCountCeiling) {
+        pending = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values())
+            pending.put(priority, new ArrayDeque<>());
+
+        lastUpdateTime = 0L;
+        callCounter = 0.0D;
+        backoffMillis = 0L;
+        backoffUntil = 0L;
+
+        int maxCount;
+        switch (tier) {
+            case 4:
+                maxCount = 20;
+                decreaseIntervalMillis = 1000L;
+                break;
+            case 3:
+                maxCount = 20;
+                decreaseIntervalMillis = 2000L;
+                break;
+            case 2: // Intentional fallthrough
+            case 1:
+            case 0:
+            default:
+                maxCount = 15;
+                decreaseIntervalMillis = 3000L;
+                break;
+        }
+
+        this.effectiveMaxCount = maxCount;
+        this.maxCountCeiling = Math.max(1, maxCountCeiling > 0 ? maxCountCeiling : maxCount);
+        this.reservedHeadroom = Math.max(0, Math.min(reservedHeadroom, maxCount - 1));
+    }
+
+
+    /**
+     * Schedules the given task to run as soon as the call rate limit allows a
+     * request of the given cost and priority. The task runs on the calling
+     * thread if the budget is available right away, otherwise it's run from a
+     * timer thread once the call counter has chilled down enough. Tasks are
+     * dispatched in order of priority and, within the same priority, in the
+     * order they were scheduled.
+     * <p>
+     * The task is expected to be short lived, typically handing the actual
+     * request over to an executor.
+     * <p>
+     * The returned reservation is meant for requests that are cancelled
+     * before they execute, or whose priority is raised while they wait.
+     * Running it removes a still pending request from the queue, without ever
+     * charging its cost, or refunds the cost if the request was already
+     * dispatched.
+     *
+     * @param cost     The cost of the request.
+     * @param priority The priority class of the request.
+     * @param task     The task to run when the request becomes eligible.
+     * @return The call rate budget reservation of the request.
+     */
+    public Reservation schedule(int cost, Priority priority, Runnable task) {
+        Ticket ticket = new Ticket(Math.max(0, cost), task);
+        Reservation reservation = new Reservation(ticket, priority);
+        synchronized (this) {
+            pending.get(priority).add(ticket);
+        }
+
+        drain();
+        return reservation;
+    }
+
+    /**
+     * Lets the call counter know that the server accepted a request. This
+     * resets the back off period and probes the max count additively upwards,
+     * towards the ceiling. Requests sent before the end of the current back
+     * off period, like requests that were already in flight when the server
+     * rejected another one, don't tell anything about the adapted max count
+     * and are ignored.
+     * <p>
+     * Only responses that actually reached the server on the private call
+     * rate budget are expected to be reported.
+     *
+     * @param sentAt The time the request was sent, in milliseconds.
+     */
+    public void onRequestSucceeded(long sentAt) {
+        synchronized (this) {
+            if (sentAt < backoffUntil)
+                return;
+
+            backoffMillis = 0L;
+            if (effectiveMaxCount < maxCountCeiling)
+                effectiveMaxCount = Math.min(maxCountCeiling,
+                        effectiveMaxCount + 1.0D / effectiveMaxCount);
+        }
+
+        drain();
+    }
+
+    /**
+     * Lets the call counter know that the server rejected a request due to an
+     * exceeded rate limit, or a temporary lockout. The max count is decreased
+     * multiplicatively, the current budget is considered spent and any
+     * requests with a cost are held back for a back off period that doubles
+     * for each consecutive rejection.
+     * <p>
+     * Requests sent before the end of the current back off period, like
+     * requests that were in flight together with an already reported one,
+     * were rejected for the same reason and are ignored. A burst of
+     * rejections thereby only decreases the max count once.
+     *
+     * @param sentAt The time the request was sent, in milliseconds.
+     */
+    public synchronized void onRateLimitExceeded(long sentAt) {
+        if (sentAt < backoffUntil)
+            return;
+
+        long now = System.currentTimeMillis();
+        decrease(now);
+
+        effectiveMaxCount = Math.max(MIN_MAX_COUNT, effectiveMaxCount * DECREASE_FACTOR);
+        callCounter = Math.max(callCounter, effectiveMaxCount);
+        backoffMillis = backoffMillis > 0L ?
+                Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2L) :
+                decreaseIntervalMillis;
+        backoffUntil = now + backoffMillis;
+    }
+
+    /**
+     * Returns a snapshot of the current, learned, call rate limit parameters.
+     *
+     * @return The call rate limit status.
+     */
+    public synchronized Status getStatus() {
+        long now = System.currentTimeMillis();
+        decrease(now);
+
+        return new Status(callCounter,
+                effectiveMaxCount,
+                maxCountCeiling,
+                decreaseIntervalMillis,
+                Math.max(0L, backoffUntil - now));
+    }
+
+    /**
+     * Calculates the number of milliseconds until the given cost can be
+     * afforded by a request of the lowest priority class, taking all already
+     * pending requests into account.
+     *
+     * @param cost The cost to calculate the waiting time for.
+     * @return The number of milliseconds to wait. Zero if the cost can be
+     * afforded right away.
+     */
+    public long getMillisUntilAvailable(int cost) {
+        return getMillisUntilAvailable(cost, Priority.BULK_HISTORY);
+    }
+
+    /**
+     * Calculates the number of milliseconds until the given cost can be
+     * afforded by a request of the given priority class, taking any already
+     * pending requests of the same or higher priority into account.
+     *
+     * @param cost     The cost to calculate the waiting time for.
+     * @param priority The priority class of the request.
+     * @return The number of milliseconds to wait. Zero if the cost can be
+     * afforded right away.
+     */
+    public synchronized long getMillisUntilAvailable(int cost, Priority priority) {
+        // Free requests are never held back.
+        if (cost <= 0)
+            return 0L;
+
+        long now = System.currentTimeMillis();
+        decrease(now);
+
+        double required = callCounter + cost;
+        for (Map.Entry<Priority, ArrayDeque<Ticket>> lane : pending.entrySet())
+            if (lane.getKey().compareTo(priority) <= 0)
+                for (Ticket ticket : lane.getValue())
+                    required += ticket.cost;
+
+        long millis = millisUntilAffordable(required, limitOf(priority));
+        return Math.max(millis, backoffUntil - now);
+    }
+
+
+    /**
+     * Removes the given ticket from the pending queue, or refunds its cost if
+     * it has already been dispatched, and lets any other pending requests
+     * use the budget.
+     *
+     * @param reservation The reservation of the ticket to release.
+     */
+    private void release(Reservation reservation) {
+        synchronized (this) {
+            Ticket ticket = reservation.ticket;
+            if (!pending.get(reservation.priority).remove(ticket)) {
+                decrease(System.currentTimeMillis());
+                callCounter = Math.max(0.0D, callCounter - ticket.cost);
+            }
+        }
+
+        drain();
+    }
+
+    /**
+     * Dispatches as many pending requests as the current call rate budget
+     * allows, and schedules a timer wake up for the next one, if any.
+     */
+    private void drain() {
+        List<Runnable> eligible = new ArrayList<>();
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            decrease(now);
+
+            // Free requests are dispatched right away, regardless of any back
+            // off period, call rate limit or pending requests of a higher
+            // priority.
+            for (ArrayDeque<Ticket> tickets : pending.values())
+                for (Iterator<Ticket> iterator = tickets.iterator(); iterator.hasNext(); ) {
+                    Ticket ticket = iterator.next();
+                    if (ticket.cost == 0) {
+                        iterator.remove();
+                        eligible.add(ticket.task);
+                    }
+                }
+
+            lanes:
+            for (Map.Entry<Priority, ArrayDeque<Ticket>> lane : pending.entrySet()) {
+                ArrayDeque<Ticket> tickets = lane.getValue();
+                double limit = limitOf(lane.getKey());
+
+                while (!tickets.isEmpty()) {
+                    Ticket ticket = tickets.peek();
+                    double required = callCounter + ticket.cost;
+
+                    // Nothing gets through while backing off.
+                    if (now < backoffUntil) {
+                        scheduleWakeUp(now, backoffUntil - now);
+                        break lanes;
+                    }
+
+                    // An expensive request is allowed on an idle call counter,
+                    // even if it exceeds the limit on its own. Lower priority
+                    // requests will have to wait for this one.
+                    if (required > limit && callCounter > 0.0D) {
+                        scheduleWakeUp(now, millisUntilAffordable(required, limit));
+                        break lanes;
+                    }
+
+                    callCounter = required;
+                    eligible.add(tickets.poll().task);
+                }
+            }
+        }
+
+        // Don't hold the monitor while dispatching.
+        for (Runnable task : eligible)
+            task.run();
+    }
+
+    /**
+     * Decreases the call counter according to the time passed since the last
+     * update.
+     *
+     * @param now The current time in milliseconds.
+     */
+    private void decrease(long now) {
+        if (lastUpdateTime > 0L && now > lastUpdateTime)
+            callCounter = Math.max(0.0D, callCounter -
+                    (double) (now - lastUpdateTime) / decreaseIntervalMillis);
+
+        lastUpdateTime = now;
+    }
+
+    /**
+     * Returns the max count a request of the given priority class is allowed
+     * to raise the call counter to.
+     *
+     * @param priority The priority class.
+     * @return The max count for the priority class.
+     */
+    private double limitOf(Priority priority) {
+        return priority == Priority.ORDER_ENTRY ?
+                effectiveMaxCount :
+                Math.max(MIN_MAX_COUNT, effectiveMaxCount - reservedHeadroom);
+    }
+
+    /**
+     * Calculates the number of milliseconds until the call counter has
+     * decreased enough to allow the given total count.
+     *
+     * @param required The total count to make room for.
+     * @param limit    The max count allowed.
+     * @return The number of milliseconds to wait.
+     */
+    private long millisUntilAffordable(double required, double limit) {
+        double excess = required - limit;
+        return excess > 0.0D ?
+                (long) Math.ceil(excess * decreaseIntervalMillis) :
+                0L;
+    }
+
+    /**
+     * Ensures the timer will wake up and drain the pending queue after the
+     * given delay, unless it's already set to wake up earlier.
+     *
+     * @param now   The current time in milliseconds.
+     * @param delay The delay in milliseconds.
+     */
+    private void scheduleWakeUp(long now, long delay) {
+        // A wake up in the past is either running right now or done already.
+        long time = now + delay;
+        if (wakeUp != null && wakeUpTime > now && wakeUpTime <= time)
+            return;
+
+        if (wakeUp != null)
+            wakeUp.cancel(false);
+
+        wakeUpTime = time;
+        wakeUp = TIMER.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+    }
+
+}
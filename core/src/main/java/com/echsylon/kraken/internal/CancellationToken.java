@@ -0,0 +1,65 @@
+package com.echsylon.kraken.internal;
+
+/**
+ * THIS IS NOT THE API YOU'RE LOOKING FOR!
+ *
+ * This class links the cancellation of a request to whatever stage the
+ * request currently is in. The active stage registers a cancel action, for
+ * example cancelling an in-flight HTTP call, and clears it again once the
+ * stage is over. Cancelling the token runs the current action, if any, and
+ * any action registered after the token was cancelled runs immediately.
+ */
+public final class CancellationToken {
+    private boolean cancelled;
+    private Runnable action;
+
+
+    /**
+     * Cancels the token and runs the currently registered cancel action. Any
+     * subsequent calls are ignored.
+     */
+    public void cancel() {
+        Runnable pending;
+        synchronized (this) {
+            if (cancelled)
+                return;
+
+            cancelled = true;
+            pending = action;
+            action = null;
+        }
+
+        // Don't hold the monitor while cancelling.
+        if (pending != null)
+            pending.run();
+    }
+
+    /**
+     * Returns whether the token is cancelled.
+     *
+     * @return Boolean true if cancelled, false otherwise.
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers the action to run when the token is cancelled, replacing any
+     * previously registered action. The action runs immediately, on the
+     * calling thread, if the token is already cancelled.
+     *
+     * @param action The cancel action. Null clears the current action.
+     */
+    public void setCancelAction(Runnable action) {
+        synchronized (this) {
+            if (!cancelled) {
+                this.action = action;
+                return;
+            }
+        }
+
+        if (action != null)
+            action.run();
+    }
+
+}
@@ -0,0 +1,1419 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.dto.Asset;
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.dto.DecimalDepth;
+import com.echsylon.kraken.dto.DepositAddress;
+import com.echsylon.kraken.dto.DepositMethod;
+import com.echsylon.kraken.dto.DepositStatus;
+import com.echsylon.kraken.dto.Depth;
+import com.echsylon.kraken.dto.Ledger;
+import com.echsylon.kraken.dto.Order;
+import com.echsylon.kraken.dto.OrderAddReceipt;
+import com.echsylon.kraken.dto.OrderCancelReceipt;
+import com.echsylon.kraken.dto.Position;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Time;
+import com.echsylon.kraken.dto.TradeBalance;
+import com.echsylon.kraken.dto.TradeHistory;
+import com.echsylon.kraken.dto.TradeVolume;
+import com.echsylon.kraken.dto.WithdrawInfo;
+import com.echsylon.kraken.dto.WithdrawReceipt;
+import com.echsylon.kraken.dto.WithdrawStatus;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds the streaming JSON type adapters of the Kraken domain
+ * objects. The adapters read the JSON straight into the public fields of the
+ * objects, without any reflection, and skip any unknown attributes. Any
+ * attributes outside a given projection are skipped as well.
+ * <p>
+ * GENERATED CODE. Don't edit, run {@code ./gradlew :core:generateTypeAdapters}
+ * instead.
+ */
+final class GeneratedTypeAdapters {
+
+    private GeneratedTypeAdapters() {
+    }
+
+    /**
+     * Registers the type adapter creators of all generated type adapters.
+     *
+     * @param creators The type adapter creators, by class.
+     */
+    static void register(final Map<Class<?>, KrakenTypeAdapterFactory.Creator> creators) {
+        creators.put(Asset.class, (gson, type, factory) -> new AssetAdapter(gson, factory.projection));
+        creators.put(AssetPair.class, (gson, type, factory) -> new AssetPairAdapter(gson, factory.projection));
+        creators.put(DepositAddress.class, (gson, type, factory) -> new DepositAddressAdapter(gson, factory.projection));
+        creators.put(DepositMethod.class, (gson, type, factory) -> new DepositMethodAdapter(gson, factory.projection));
+        creators.put(DepositStatus.class, (gson, type, factory) -> new DepositStatusAdapter(gson, factory.projection));
+        creators.put(DecimalDepth.class, (gson, type, factory) -> new DecimalDepthAdapter(gson, factory.projection));
+        creators.put(Depth.class, (gson, type, factory) -> new DepthAdapter(gson, factory.projection));
+        creators.put(Ledger.class, (gson, type, factory) -> new LedgerAdapter(gson, factory.projection));
+        creators.put(Order.class, (gson, type, factory) -> new OrderAdapter(gson, factory.projection));
+        creators.put(Order.Description.class, (gson, type, factory) -> new OrderDescriptionAdapter(gson, factory.projection));
+        creators.put(OrderAddReceipt.class, (gson, type, factory) -> new OrderAddReceiptAdapter(gson, factory.projection));
+        creators.put(OrderAddReceipt.Description.class, (gson, type, factory) -> new OrderAddReceiptDescriptionAdapter(gson, factory.projection));
+        creators.put(OrderCancelReceipt.class, (gson, type, factory) -> new OrderCancelReceiptAdapter(gson, factory.projection));
+        creators.put(Position.class, (gson, type, factory) -> new PositionAdapter(gson, factory.projection));
+        creators.put(Ticker.class, (gson, type, factory) -> new TickerAdapter(gson, factory.projection));
+        creators.put(Time.class, (gson, type, factory) -> new TimeAdapter(gson, factory.projection));
+        creators.put(TradeBalance.class, (gson, type, factory) -> new TradeBalanceAdapter(gson, factory.projection));
+        creators.put(TradeHistory.class, (gson, type, factory) -> new TradeHistoryAdapter(gson, factory.projection));
+        creators.put(TradeVolume.class, (gson, type, factory) -> new TradeVolumeAdapter(gson, factory.projection));
+        creators.put(TradeVolume.FeeInfo.class, (gson, type, factory) -> new TradeVolumeFeeInfoAdapter(gson, factory.projection));
+        creators.put(WithdrawInfo.class, (gson, type, factory) -> new WithdrawInfoAdapter(gson, factory.projection));
+        creators.put(WithdrawReceipt.class, (gson, type, factory) -> new WithdrawReceiptAdapter(gson, factory.projection));
+        creators.put(WithdrawStatus.class, (gson, type, factory) -> new WithdrawStatusAdapter(gson, factory.projection));
+    }
+
+
+    private static final class AssetAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Asset> {
+        private final Set<String> projection;
+
+        private AssetAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public Asset read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Asset result = new Asset();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "aclass":
+                        result.assetClass = JsonValues.readString(in);
+                        break;
+                    case "altname":
+                        result.alternativeName = JsonValues.readString(in);
+                        break;
+                    case "decimals":
+                        result.decimals = JsonValues.readIntOrNull(in);
+                        break;
+                    case "display_decimals":
+                        result.displayDecimals = JsonValues.readIntOrNull(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class AssetPairAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<AssetPair> {
+        private final Set<String> projection;
+        private final TypeAdapter<Integer[]> leverageBuyAdapter;
+        private final TypeAdapter<Integer[]> leverageSellAdapter;
+        private final TypeAdapter<AssetPair.FeeSchedule[]> feesAdapter;
+        private final TypeAdapter<AssetPair.FeeSchedule[]> makerFeesAdapter;
+
+        private AssetPairAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            leverageBuyAdapter = gson.getAdapter(Integer[].class);
+            leverageSellAdapter = gson.getAdapter(Integer[].class);
+            feesAdapter = gson.getAdapter(AssetPair.FeeSchedule[].class);
+            makerFeesAdapter = gson.getAdapter(AssetPair.FeeSchedule[].class);
+        }
+
+        @Override
+        public AssetPair read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            AssetPair result = new AssetPair();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "altname":
+                        result.alternativeName = JsonValues.readString(in);
+                        break;
+                    case "aclass_base":
+                        result.baseAssetClass = JsonValues.readString(in);
+                        break;
+                    case "base":
+                        result.base = JsonValues.readString(in);
+                        break;
+                    case "aclass_quote":
+                        result.quoteAssetClass = JsonValues.readString(in);
+                        break;
+                    case "quote":
+                        result.quote = JsonValues.readString(in);
+                        break;
+                    case "lot":
+                        result.lot = JsonValues.readString(in);
+                        break;
+                    case "pair_decimals":
+                        result.pairDecimals = JsonValues.readIntOrNull(in);
+                        break;
+                    case "lot_decimals":
+                        result.lotDecimals = JsonValues.readIntOrNull(in);
+                        break;
+                    case "lot_multiplier":
+                        result.lotMultiplier = JsonValues.readIntOrNull(in);
+                        break;
+                    case "leverage_buy":
+                        result.leverageBuy = leverageBuyAdapter.read(in);
+                        break;
+                    case "leverage_sell":
+                        result.leverageSell = leverageSellAdapter.read(in);
+                        break;
+                    case "fees":
+                        result.fees = feesAdapter.read(in);
+                        break;
+                    case "fees_maker":
+                        result.makerFees = makerFeesAdapter.read(in);
+                        break;
+                    case "fee_volume_currency":
+                        result.volumeCurrencyFee = JsonValues.readString(in);
+                        break;
+                    case "margin_call":
+                        result.callMargin = JsonValues.readIntOrNull(in);
+                        break;
+                    case "margin_stop":
+                        result.stopMargin = JsonValues.readIntOrNull(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DepositAddressAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<DepositAddress> {
+        private final Set<String> projection;
+
+        private DepositAddressAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public DepositAddress read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            DepositAddress result = new DepositAddress();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "address":
+                        result.address = JsonValues.readString(in);
+                        break;
+                    case "expiretm":
+                        result.expiryTime = JsonValues.readString(in);
+                        break;
+                    case "new":
+                        result.isNew = JsonValues.readBooleanOrNull(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DepositMethodAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<DepositMethod> {
+        private final Set<String> projection;
+
+        private DepositMethodAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public DepositMethod read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            DepositMethod result = new DepositMethod();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "method":
+                        result.method = JsonValues.readString(in);
+                        break;
+                    case "limit":
+                        result.limit = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "gen-address":
+                        result.hasGeneratedAddress = JsonValues.readBooleanOrNull(in);
+                        break;
+                    case "address-setup-fee":
+                        result.addressSetupFee = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DepositStatusAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<DepositStatus> {
+        private final Set<String> projection;
+
+        private DepositStatusAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public DepositStatus read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            DepositStatus result = new DepositStatus();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "method":
+                        result.method = JsonValues.readString(in);
+                        break;
+                    case "aclass":
+                        result.assetClass = JsonValues.readString(in);
+                        break;
+                    case "asset":
+                        result.asset = JsonValues.readString(in);
+                        break;
+                    case "refid":
+                        result.referenceId = JsonValues.readString(in);
+                        break;
+                    case "txid":
+                        result.transactionId = JsonValues.readString(in);
+                        break;
+                    case "info":
+                        result.transactionInfo = JsonValues.readString(in);
+                        break;
+                    case "amount":
+                        result.depositedAmount = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "time":
+                        result.timestamp = JsonValues.readLongOrNull(in);
+                        break;
+                    case "status":
+                        result.status = JsonValues.readString(in);
+                        break;
+                    case "status-prop":
+                        result.properties = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DecimalDepthAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<DecimalDepth> {
+        private final Set<String> projection;
+        private final TypeAdapter<DecimalDepth.Offer[]> asksAdapter;
+        private final TypeAdapter<DecimalDepth.Offer[]> bidsAdapter;
+
+        private DecimalDepthAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            asksAdapter = gson.getAdapter(DecimalDepth.Offer[].class);
+            bidsAdapter = gson.getAdapter(DecimalDepth.Offer[].class);
+        }
+
+        @Override
+        public DecimalDepth read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            DecimalDepth result = new DecimalDepth();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "asks":
+                        result.asks = asksAdapter.read(in);
+                        break;
+                    case "bids":
+                        result.bids = bidsAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DepthAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Depth> {
+        private final Set<String> projection;
+        private final TypeAdapter<Depth.Offer[]> asksAdapter;
+        private final TypeAdapter<Depth.Offer[]> bidsAdapter;
+
+        private DepthAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            asksAdapter = gson.getAdapter(Depth.Offer[].class);
+            bidsAdapter = gson.getAdapter(Depth.Offer[].class);
+        }
+
+        @Override
+        public Depth read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Depth result = new Depth();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "asks":
+                        result.asks = asksAdapter.read(in);
+                        break;
+                    case "bids":
+                        result.bids = bidsAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class LedgerAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Ledger> {
+        private final Set<String> projection;
+
+        private LedgerAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public Ledger read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Ledger result = new Ledger();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "refid":
+                        result.referenceId = JsonValues.readString(in);
+                        break;
+                    case "time":
+                        result.time = JsonValues.readDouble(in, result.time);
+                        break;
+                    case "type":
+                        result.type = JsonValues.readString(in);
+                        break;
+                    case "aclass":
+                        result.assetClass = JsonValues.readString(in);
+                        break;
+                    case "asset":
+                        result.asset = JsonValues.readString(in);
+                        break;
+                    case "amount":
+                        result.amount = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "balance":
+                        result.balance = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class OrderAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Order> {
+        private final Set<String> projection;
+        private final TypeAdapter<Order.Description> descriptionAdapter;
+        private final TypeAdapter<String[]> tradesAdapter;
+
+        private OrderAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            descriptionAdapter = gson.getAdapter(Order.Description.class);
+            tradesAdapter = gson.getAdapter(String[].class);
+        }
+
+        @Override
+        public Order read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Order result = new Order();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "refid":
+                        result.referenceId = JsonValues.readString(in);
+                        break;
+                    case "userref":
+                        result.userReference = JsonValues.readString(in);
+                        break;
+                    case "status":
+                        result.status = JsonValues.readString(in);
+                        break;
+                    case "reason":
+                        result.reason = JsonValues.readString(in);
+                        break;
+                    case "opentm":
+                        result.openTime = JsonValues.readDouble(in, result.openTime);
+                        break;
+                    case "closetm":
+                        result.closeTime = JsonValues.readDouble(in, result.closeTime);
+                        break;
+                    case "starttm":
+                        result.startTime = JsonValues.readDouble(in, result.startTime);
+                        break;
+                    case "expiretm":
+                        result.expireTime = JsonValues.readDouble(in, result.expireTime);
+                        break;
+                    case "descr":
+                        result.description = descriptionAdapter.read(in);
+                        break;
+                    case "vol":
+                        result.volume = JsonValues.readString(in);
+                        break;
+                    case "vol_exec":
+                        result.executedVolume = JsonValues.readString(in);
+                        break;
+                    case "cost":
+                        result.cost = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "price":
+                        result.price = JsonValues.readString(in);
+                        break;
+                    case "stopprice":
+                        result.stopPrice = JsonValues.readString(in);
+                        break;
+                    case "limitprice":
+                        result.limitPrice = JsonValues.readString(in);
+                        break;
+                    case "misc":
+                        result.misc = JsonValues.readString(in);
+                        break;
+                    case "oflags":
+                        result.orderFlags = JsonValues.readString(in);
+                        break;
+                    case "trades":
+                        result.trades = tradesAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class OrderDescriptionAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Order.Description> {
+        private final Set<String> projection;
+
+        private OrderDescriptionAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public Order.Description read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Order.Description result = new Order.Description();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "pair":
+                        result.pair = JsonValues.readString(in);
+                        break;
+                    case "type":
+                        result.type = JsonValues.readString(in);
+                        break;
+                    case "ordertype":
+                        result.orderType = JsonValues.readString(in);
+                        break;
+                    case "price":
+                        result.price = JsonValues.readString(in);
+                        break;
+                    case "price2":
+                        result.secondaryPrice = JsonValues.readString(in);
+                        break;
+                    case "leverage":
+                        result.leverage = JsonValues.readString(in);
+                        break;
+                    case "order":
+                        result.order = JsonValues.readString(in);
+                        break;
+                    case "close":
+                        result.close = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class OrderAddReceiptAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<OrderAddReceipt> {
+        private final Set<String> projection;
+        private final TypeAdapter<OrderAddReceipt.Description> descriptionAdapter;
+        private final TypeAdapter<String[]> transactionIdAdapter;
+
+        private OrderAddReceiptAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            descriptionAdapter = gson.getAdapter(OrderAddReceipt.Description.class);
+            transactionIdAdapter = gson.getAdapter(String[].class);
+        }
+
+        @Override
+        public OrderAddReceipt read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            OrderAddReceipt result = new OrderAddReceipt();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "descr":
+                        result.description = descriptionAdapter.read(in);
+                        break;
+                    case "txid":
+                        result.transactionId = transactionIdAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class OrderAddReceiptDescriptionAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<OrderAddReceipt.Description> {
+        private final Set<String> projection;
+
+        private OrderAddReceiptDescriptionAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public OrderAddReceipt.Description read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            OrderAddReceipt.Description result = new OrderAddReceipt.Description();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "order":
+                        result.order = JsonValues.readString(in);
+                        break;
+                    case "close":
+                        result.close = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class OrderCancelReceiptAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<OrderCancelReceipt> {
+        private final Set<String> projection;
+
+        private OrderCancelReceiptAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public OrderCancelReceipt read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            OrderCancelReceipt result = new OrderCancelReceipt();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "count":
+                        result.count = JsonValues.readIntOrNull(in);
+                        break;
+                    case "pending":
+                        result.pending = JsonValues.readBooleanOrNull(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class PositionAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Position> {
+        private final Set<String> projection;
+
+        private PositionAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public Position read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Position result = new Position();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "ordertxid":
+                        result.orderTransactionId = JsonValues.readString(in);
+                        break;
+                    case "pair":
+                        result.pair = JsonValues.readString(in);
+                        break;
+                    case "time":
+                        result.time = JsonValues.readDouble(in, result.time);
+                        break;
+                    case "type":
+                        result.type = JsonValues.readString(in);
+                        break;
+                    case "ordertype":
+                        result.orderType = JsonValues.readString(in);
+                        break;
+                    case "cost":
+                        result.cost = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "vol":
+                        result.volume = JsonValues.readString(in);
+                        break;
+                    case "vol_closed":
+                        result.closedVolume = JsonValues.readString(in);
+                        break;
+                    case "margin":
+                        result.margin = JsonValues.readString(in);
+                        break;
+                    case "value":
+                        result.value = JsonValues.readString(in);
+                        break;
+                    case "net":
+                        result.net = JsonValues.readString(in);
+                        break;
+                    case "misc":
+                        result.misc = JsonValues.readString(in);
+                        break;
+                    case "oflags":
+                        result.orderFlags = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TickerAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Ticker> {
+        private final Set<String> projection;
+        private final TypeAdapter<Ticker.Price> askAdapter;
+        private final TypeAdapter<Ticker.Price> bidAdapter;
+        private final TypeAdapter<Ticker.Trade> lastClosedTradeAdapter;
+        private final TypeAdapter<Ticker.Span> volumeAdapter;
+        private final TypeAdapter<Ticker.Span> volumeWeightedAveragePriceAdapter;
+        private final TypeAdapter<Ticker.Span> numberOfTradesAdapter;
+        private final TypeAdapter<Ticker.Span> lowAdapter;
+        private final TypeAdapter<Ticker.Span> highAdapter;
+
+        private TickerAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            askAdapter = gson.getAdapter(Ticker.Price.class);
+            bidAdapter = gson.getAdapter(Ticker.Price.class);
+            lastClosedTradeAdapter = gson.getAdapter(Ticker.Trade.class);
+            volumeAdapter = gson.getAdapter(Ticker.Span.class);
+            volumeWeightedAveragePriceAdapter = gson.getAdapter(Ticker.Span.class);
+            numberOfTradesAdapter = gson.getAdapter(Ticker.Span.class);
+            lowAdapter = gson.getAdapter(Ticker.Span.class);
+            highAdapter = gson.getAdapter(Ticker.Span.class);
+        }
+
+        @Override
+        public Ticker read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Ticker result = new Ticker();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "a":
+                        result.ask = askAdapter.read(in);
+                        break;
+                    case "b":
+                        result.bid = bidAdapter.read(in);
+                        break;
+                    case "c":
+                        result.lastClosedTrade = lastClosedTradeAdapter.read(in);
+                        break;
+                    case "v":
+                        result.volume = volumeAdapter.read(in);
+                        break;
+                    case "p":
+                        result.volumeWeightedAveragePrice = volumeWeightedAveragePriceAdapter.read(in);
+                        break;
+                    case "t":
+                        result.numberOfTrades = numberOfTradesAdapter.read(in);
+                        break;
+                    case "l":
+                        result.low = lowAdapter.read(in);
+                        break;
+                    case "h":
+                        result.high = highAdapter.read(in);
+                        break;
+                    case "o":
+                        result.openingPriceToday = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TimeAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<Time> {
+        private final Set<String> projection;
+
+        private TimeAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public Time read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Time result = new Time();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "unixtime":
+                        result.unixtime = JsonValues.readLongOrNull(in);
+                        break;
+                    case "rfc1123":
+                        result.rfc1123 = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TradeBalanceAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<TradeBalance> {
+        private final Set<String> projection;
+
+        private TradeBalanceAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public TradeBalance read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            TradeBalance result = new TradeBalance();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "eb":
+                        result.equivalentBalance = JsonValues.readString(in);
+                        break;
+                    case "tb":
+                        result.tradeBalance = JsonValues.readString(in);
+                        break;
+                    case "m":
+                        result.margin = JsonValues.readString(in);
+                        break;
+                    case "n":
+                        result.net = JsonValues.readString(in);
+                        break;
+                    case "c":
+                        result.cost = JsonValues.readString(in);
+                        break;
+                    case "v":
+                        result.floatingValuation = JsonValues.readString(in);
+                        break;
+                    case "e":
+                        result.equity = JsonValues.readString(in);
+                        break;
+                    case "mf":
+                        result.freeMargin = JsonValues.readString(in);
+                        break;
+                    case "ml":
+                        result.marginLevel = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TradeHistoryAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<TradeHistory> {
+        private final Set<String> projection;
+        private final TypeAdapter<String[]> tradesAdapter;
+
+        private TradeHistoryAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            tradesAdapter = gson.getAdapter(String[].class);
+        }
+
+        @Override
+        public TradeHistory read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            TradeHistory result = new TradeHistory();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "ordertxid":
+                        result.orderTransactionId = JsonValues.readString(in);
+                        break;
+                    case "posstatus":
+                        result.positionStatus = JsonValues.readString(in);
+                        break;
+                    case "pair":
+                        result.pair = JsonValues.readString(in);
+                        break;
+                    case "time":
+                        result.time = JsonValues.readDouble(in, result.time);
+                        break;
+                    case "type":
+                        result.type = JsonValues.readString(in);
+                        break;
+                    case "ordertype":
+                        result.orderType = JsonValues.readString(in);
+                        break;
+                    case "price":
+                        result.price = JsonValues.readString(in);
+                        break;
+                    case "cprice":
+                        result.closedPartPrice = JsonValues.readString(in);
+                        break;
+                    case "cost":
+                        result.cost = JsonValues.readString(in);
+                        break;
+                    case "ccost":
+                        result.closedPartCost = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "cfee":
+                        result.closedPartFee = JsonValues.readString(in);
+                        break;
+                    case "vol":
+                        result.volume = JsonValues.readString(in);
+                        break;
+                    case "cvol":
+                        result.closedPartVolume = JsonValues.readString(in);
+                        break;
+                    case "margin":
+                        result.margin = JsonValues.readString(in);
+                        break;
+                    case "cmargin":
+                        result.closedPartMargin = JsonValues.readString(in);
+                        break;
+                    case "misc":
+                        result.misc = JsonValues.readString(in);
+                        break;
+                    case "net":
+                        result.net = JsonValues.readString(in);
+                        break;
+                    case "trades":
+                        result.trades = tradesAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TradeVolumeAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<TradeVolume> {
+        private final Set<String> projection;
+        private final TypeAdapter<Map<String, TradeVolume.FeeInfo>> feesAdapter;
+        private final TypeAdapter<Map<String, TradeVolume.FeeInfo>> makerFeesAdapter;
+
+        @SuppressWarnings("unchecked")
+        private TradeVolumeAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+            feesAdapter = (TypeAdapter<Map<String, TradeVolume.FeeInfo>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, TradeVolume.FeeInfo.class));
+            makerFeesAdapter = (TypeAdapter<Map<String, TradeVolume.FeeInfo>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, TradeVolume.FeeInfo.class));
+        }
+
+        @Override
+        public TradeVolume read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            TradeVolume result = new TradeVolume();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "currency":
+                        result.currency = JsonValues.readString(in);
+                        break;
+                    case "volume":
+                        result.volume = JsonValues.readString(in);
+                        break;
+                    case "fees":
+                        result.fees = feesAdapter.read(in);
+                        break;
+                    case "fees_maker":
+                        result.makerFees = makerFeesAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class TradeVolumeFeeInfoAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<TradeVolume.FeeInfo> {
+        private final Set<String> projection;
+
+        private TradeVolumeFeeInfoAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public TradeVolume.FeeInfo read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            TradeVolume.FeeInfo result = new TradeVolume.FeeInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "minfee":
+                        result.minFee = JsonValues.readString(in);
+                        break;
+                    case "maxfee":
+                        result.maxFee = JsonValues.readString(in);
+                        break;
+                    case "nextfee":
+                        result.nextFee = JsonValues.readString(in);
+                        break;
+                    case "nextvolume":
+                        result.nextVolume = JsonValues.readString(in);
+                        break;
+                    case "tiervolume":
+                        result.tierVolume = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class WithdrawInfoAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<WithdrawInfo> {
+        private final Set<String> projection;
+
+        private WithdrawInfoAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public WithdrawInfo read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            WithdrawInfo result = new WithdrawInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "method":
+                        result.method = JsonValues.readString(in);
+                        break;
+                    case "limit":
+                        result.limit = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "amount":
+                        result.netTotal = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class WithdrawReceiptAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<WithdrawReceipt> {
+        private final Set<String> projection;
+
+        private WithdrawReceiptAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public WithdrawReceipt read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            WithdrawReceipt result = new WithdrawReceipt();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "refid":
+                        result.referenceId = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class WithdrawStatusAdapter extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<WithdrawStatus> {
+        private final Set<String> projection;
+
+        private WithdrawStatusAdapter(final Gson gson, final Set<String> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public WithdrawStatus read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            WithdrawStatus result = new WithdrawStatus();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (projection != null && !projection.contains(name)) {
+                    in.skipValue();
+                    continue;
+                }
+
+                switch (name) {
+                    case "method":
+                        result.method = JsonValues.readString(in);
+                        break;
+                    case "aclass":
+                        result.assetClass = JsonValues.readString(in);
+                        break;
+                    case "asset":
+                        result.asset = JsonValues.readString(in);
+                        break;
+                    case "refid":
+                        result.referenceId = JsonValues.readString(in);
+                        break;
+                    case "txid":
+                        result.transactionId = JsonValues.readString(in);
+                        break;
+                    case "info":
+                        result.transactionInfo = JsonValues.readString(in);
+                        break;
+                    case "amount":
+                        result.depositedAmount = JsonValues.readString(in);
+                        break;
+                    case "fee":
+                        result.fee = JsonValues.readString(in);
+                        break;
+                    case "time":
+                        result.timestamp = JsonValues.readLongOrNull(in);
+                        break;
+                    case "status":
+                        result.status = JsonValues.readString(in);
+                        break;
+                    case "status-prop":
+                        result.properties = JsonValues.readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.KrakenRequestException;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * This class represents the process wide JSON parsing context. The Gson
+ * instance, with all custom Kraken type adapters registered, is built once and
+ * the resolved result type adapters are cached per result type. The context is
+ * safe to use from any thread.
+ * <p>
+ * A result may also be parsed with a custom configured type adapter factory,
+ * for example with a projection; a set of JSON attribute names to read from
+ * the domain objects. All other attributes are then skipped without being
+ * materialized. A Gson instance is built, and cached, per factory
+ * configuration.
+ * <p>
+ * Kraken responses are decoded in a streaming fashion, straight from the
+ * response body source, without buffering the full JSON in memory first. Note
+ * that Kraken doesn't necessarily respond with HTTP error status codes if
+ * something goes wrong. Instead the response holds an "error" array which is
+ * verified as soon as it's read from the stream.
+ */
+public final class JsonParser {
+
+    /**
+     * This class decodes UTF-8 characters straight from a buffered source,
+     * without the intermediate byte buffers a {@code InputStreamReader} would
+     * allocate. It will only block for more data if no characters at all have
+     * been decoded yet.
+     */
+    private static final class SourceReader extends Reader {
+        private final BufferedSource source;
+        private int pendingLowSurrogate = -1;
+
+        private SourceReader(final BufferedSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = 0;
+
+            if (length > 0 && pendingLowSurrogate != -1) {
+                buffer[offset + count++] = (char) pendingLowSurrogate;
+                pendingLowSurrogate = -1;
+            }
+
+            while (count < length) {
+                Buffer available = source.buffer();
+                if (available.size() == 0L && (count > 0 || source.exhausted()))
+                    break;
+
+                byte first = available.getByte(0L);
+                if ((first & 0x80) == 0) {
+                    // Fast path for the (by far most common) ASCII characters.
+                    available.readByte();
+                    buffer[offset + count++] = (char) first;
+                    continue;
+                }
+
+                int codePoint = source.readUtf8CodePoint();
+                if (codePoint <= 0xFFFF) {
+                    buffer[offset + count++] = (char) codePoint;
+                } else {
+                    char[] surrogates = Character.toChars(codePoint);
+                    buffer[offset + count++] = surrogates[0];
+                    if (count < length)
+                        buffer[offset + count++] = surrogates[1];
+                    else
+                        pendingLowSurrogate = surrogates[1];
+                }
+            }
+
+            return count == 0 && length > 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new KrakenTypeAdapterFactory())
+            .create();
+
+    private static final ConcurrentHashMap<Type, TypeAdapter<?>> RESULT_ADAPTERS =
+            new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<KrakenTypeAdapterFactory, Gson> CONFIGURED_GSONS =
+            new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<List<Object>, TypeAdapter<?>> CONFIGURED_RESULT_ADAPTERS =
+            new ConcurrentHashMap<>();
+
+
+    /**
+     * Returns the type adapter that knows how to parse a Kraken result of the
+     * given type. The adapter is resolved once per result type and then reused
+     * for all subsequent calls.
+     *
+     * @param typeOfResult The type of the expected result object.
+     * @param <T>          The type of the expected result object.
+     * @return The shared result type adapter.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> getResultAdapter(final Type typeOfResult) {
+        TypeAdapter<?> adapter = RESULT_ADAPTERS.get(typeOfResult);
+
+        if (adapter == null) {
+            adapter = GSON.getAdapter(TypeToken.get(typeOfResult));
+            TypeAdapter<?> previous = RESULT_ADAPTERS.putIfAbsent(typeOfResult, adapter);
+            if (previous != null)
+                adapter = previous;
+        }
+
+        return (TypeAdapter<T>) adapter;
+    }
+
+    /**
+     * Returns the type adapter that knows how to parse a Kraken result of the
+     * given type with the given type adapter factory, for example reading
+     * only some attributes of the domain objects. The adapter is resolved once
+     * per result type and factory configuration and then reused for all
+     * subsequent calls.
+     *
+     * @param typeOfResult The type of the expected result object.
+     * @param factory      The configured type adapter factory. Null means the default.
+     * @param <T>          The type of the expected result object.
+     * @return The shared result type adapter.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> getResultAdapter(final Type typeOfResult,
+                                                      final KrakenTypeAdapterFactory factory) {
+        if (factory == null)
+            return getResultAdapter(typeOfResult);
+
+        List<Object> key = Arrays.asList(typeOfResult, factory);
+        TypeAdapter<?> adapter = CONFIGURED_RESULT_ADAPTERS.get(key);
+
+        if (adapter == null) {
+            Gson gson = CONFIGURED_GSONS.get(factory);
+            if (gson == null) {
+                gson = new GsonBuilder()
+                        .registerTypeAdapterFactory(factory)
+                        .create();
+                Gson previous = CONFIGURED_GSONS.putIfAbsent(factory, gson);
+                if (previous != null)
+                    gson = previous;
+            }
+
+            adapter = gson.getAdapter(TypeToken.get(typeOfResult));
+            TypeAdapter<?> previous = CONFIGURED_RESULT_ADAPTERS.putIfAbsent(key, adapter);
+            if (previous != null)
+                adapter = previous;
+        }
+
+        return (TypeAdapter<T>) adapter;
+    }
+
+    /**
+     * Parses the given JSON into a Kraken result object using the shared
+     * parsing context.
+     *
+     * @param json         The JSON to parse.
+     * @param typeOfResult The type of the expected result object.
+     * @param <T>          The type of the expected result object.
+     * @return The parsed result or null if the JSON is empty.
+     * @throws KrakenRequestException If the response describes a Kraken error.
+     * @throws JsonSyntaxException    If the JSON can't be parsed.
+     */
+    public static <T> T parse(final String json, final Type typeOfResult) {
+        if (json == null)
+            return null;
+
+        try {
+            return parse(new Buffer().writeUtf8(json), typeOfResult);
+        } catch (IOException e) {
+            // An in-memory buffer is not expected to fail reading.
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Parses the JSON provided by the given source into a Kraken result object
+     * using the shared parsing context. The JSON is read leniently, just as
+     * {@code Gson#fromJson(String, Type)} would, and the "error" array is
+     * verified as soon as it has been read.
+     *
+     * @param source       The source to stream the JSON from.
+     * @param typeOfResult The type of the expected result object.
+     * @param <T>          The type of the expected result object.
+     * @return The parsed result or null if the source is empty.
+     * @throws KrakenRequestException If the response describes a Kraken error.
+     * @throws JsonSyntaxException    If the JSON can't be parsed.
+     * @throws IOException            If the source can't be read.
+     */
+    public static <T> T parse(final BufferedSource source, final Type typeOfResult) throws IOException {
+        return parse(source, typeOfResult, null);
+    }
+
+    /**
+     * Parses the JSON provided by the given source into a Kraken result object
+     * using the shared parsing context of the given type adapter factory, for
+     * example reading only some attributes of the domain objects.
+     *
+     * @param source       The source to stream the JSON from.
+     * @param typeOfResult The type of the expected result object.
+     * @param factory      The configured type adapter factory. Null means the default.
+     * @param <T>          The type of the expected result object.
+     * @return The parsed result or null if the source is empty.
+     * @throws KrakenRequestException If the response describes a Kraken error.
+     * @throws JsonSyntaxException    If the JSON can't be parsed.
+     * @throws IOException            If the source can't be read.
+     */
+    public static <T> T parse(final BufferedSource source,
+                              final Type typeOfResult,
+                              final KrakenTypeAdapterFactory factory) throws IOException {
+        JsonReader reader = new JsonReader(new SourceReader(source));
+        reader.setLenient(true);
+
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            // An empty document is not an error, there's just nothing to parse.
+            return null;
+        } catch (MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        }
+
+        try {
+            return readResponse(reader, JsonParser.<T>getResultAdapter(typeOfResult, factory));
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+
+    /**
+     * Reads the Kraken response envelope from the given reader, throwing as
+     * soon as a non-empty error array has been read.
+     */
+    private static <T> T readResponse(final JsonReader reader,
+                                      final TypeAdapter<T> resultAdapter) throws IOException {
+        T result = null;
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "error":
+                    String[] errors = readErrors(reader);
+                    if (errors.length > 0)
+                        throw new KrakenRequestException(errors);
+                    break;
+
+                case "result":
+                    result = resultAdapter.read(reader);
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        reader.endObject();
+        return result;
+    }
+
+    /**
+     * Reads the Kraken error array from the given reader.
+     */
+    private static String[] readErrors(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return new String[0];
+        }
+
+        List<String> errors = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext())
+            errors.add(reader.nextString());
+        reader.endArray();
+
+        return errors.toArray(new String[errors.size()]);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.echsylon.kraken.internal;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * This class offers the means of reading single JSON values the way Gson's
+ * built-in type adapters would, for the generated type adapters to use. Nulls
+ * are read as null for object types and leave primitive fields at their
+ * current value.
+ */
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    static String readString(final JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return token == JsonToken.BOOLEAN ?
+                Boolean.toString(in.nextBoolean()) :
+                in.nextString();
+    }
+
+    static long readLong(final JsonReader in, final long current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+
+        return in.nextLong();
+    }
+
+    static double readDouble(final JsonReader in, final double current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+
+        return in.nextDouble();
+    }
+
+    static int readInt(final JsonReader in, final int current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+
+        return in.nextInt();
+    }
+
+    static boolean readBoolean(final JsonReader in, final boolean current) throws IOException {
+        Boolean value = readBooleanOrNull(in);
+        return value != null ? value : current;
+    }
+
+    static Long readLongOrNull(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextLong();
+    }
+
+    static Double readDoubleOrNull(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextDouble();
+    }
+
+    static Integer readIntOrNull(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextInt();
+    }
+
+    static Boolean readBooleanOrNull(final JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return token == JsonToken.STRING ?
+                Boolean.parseBoolean(in.nextString()) :
+                in.nextBoolean();
+    }
+
+}
@@ -0,0 +1,646 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.Decimal;
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.dto.DecimalDepth;
+import com.echsylon.kraken.dto.Depth;
+import com.echsylon.kraken.dto.Ohlc;
+import com.echsylon.kraken.dto.OhlcSeries;
+import com.echsylon.kraken.dto.Spread;
+import com.echsylon.kraken.dto.SpreadBatch;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Trade;
+import com.echsylon.kraken.dto.TradeBatch;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class knows how to create custom JSON type adapters. The hand written
+ * type adapters are used for those cases where the Kraken API returns an array
+ * of data as a tuple that's more suitable to represent as a POJO. All other
+ * domain objects are read by generated streaming type adapters, without any
+ * reflection. The type adapters are looked up by class.
+ * <p>
+ * A factory may be given a projection; a set of JSON attribute names. The
+ * generated type adapters then only read the attributes in the projection and
+ * skip all others. The hand written type adapters always read everything.
+ * <p>
+ * A factory may also be given the scales of prices and volumes, typically the
+ * {@code pairDecimals} and {@code lotDecimals} of an asset pair. Any prices
+ * and volumes of the {@code DecimalDepth} domain object are then rounded to
+ * those scales as they're parsed.
+ * <p>
+ * Factories with the same configuration are equal.
+ */
+public final class KrakenTypeAdapterFactory implements TypeAdapterFactory {
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+            1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+            100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+            1000000000000000000L};
+
+    private static final Map<Class<?>, Creator> CREATORS = new HashMap<>();
+
+    static {
+        // The dictionary is always expected to be parametrized
+        CREATORS.put(Dictionary.class, (gson, type, factory) -> new DictionaryAdapter<>(gson.getAdapter(
+                TypeToken.get(((ParameterizedType) type).getActualTypeArguments()[0]))));
+
+        CREATORS.put(Decimal.class, (gson, type, factory) -> new DecimalAdapter());
+        CREATORS.put(AssetPair.FeeSchedule.class, (gson, type, factory) -> new FeeScheduleAdapter());
+        CREATORS.put(Depth.Offer.class, (gson, type, factory) -> new OfferAdapter());
+        CREATORS.put(DecimalDepth.Offer.class, (gson, type, factory) ->
+                new DecimalOfferAdapter(factory.priceScale, factory.volumeScale));
+        CREATORS.put(Ohlc.class, (gson, type, factory) -> new OhlcAdapter());
+        CREATORS.put(OhlcSeries.class, (gson, type, factory) -> new OhlcSeriesAdapter());
+        CREATORS.put(Ticker.Price.class, (gson, type, factory) -> new TickerPriceAdapter());
+        CREATORS.put(Ticker.Span.class, (gson, type, factory) -> new TickerSpanAdapter());
+        CREATORS.put(Ticker.Trade.class, (gson, type, factory) -> new TickerTradeAdapter());
+        CREATORS.put(Trade.class, (gson, type, factory) -> new TradeAdapter());
+        CREATORS.put(TradeBatch.class, (gson, type, factory) -> new TradeBatchAdapter());
+        CREATORS.put(Spread.class, (gson, type, factory) -> new SpreadAdapter());
+        CREATORS.put(SpreadBatch.class, (gson, type, factory) -> new SpreadBatchAdapter());
+
+        // All other domain objects.
+        GeneratedTypeAdapters.register(CREATORS);
+    }
+
+    /**
+     * This interface describes the means of creating the type adapter of a
+     * particular class.
+     */
+    interface Creator {
+
+        /**
+         * Creates a new type adapter.
+         *
+         * @param gson       The Gson instance to resolve any nested type adapters with.
+         * @param type       The full, possibly parametrized, type to adapt.
+         * @param factory    The factory, holding any projection and scales.
+         * @return The type adapter.
+         */
+        TypeAdapter<?> create(Gson gson, Type type, KrakenTypeAdapterFactory factory);
+    }
+
+
+    final Set<String> projection;
+    final int priceScale;
+    final int volumeScale;
+
+    /**
+     * Creates a type adapter factory that reads all attributes.
+     */
+    public KrakenTypeAdapterFactory() {
+        this(null);
+    }
+
+    /**
+     * Creates a type adapter factory that only reads the given attributes of
+     * the domain objects.
+     *
+     * @param projection The JSON attribute names to read. Null means all.
+     */
+    public KrakenTypeAdapterFactory(final Set<String> projection) {
+        this(projection, -1, -1);
+    }
+
+    /**
+     * Creates a type adapter factory that only reads the given attributes of
+     * the domain objects and rounds any decimal prices and volumes to the
+     * given scales.
+     *
+     * @param projection  The JSON attribute names to read. Null means all.
+     * @param priceScale  The number of decimals of prices, or -1 to keep all.
+     * @param volumeScale The number of decimals of volumes, or -1 to keep all.
+     * @throws IllegalArgumentException If a scale is out of range.
+     */
+    public KrakenTypeAdapterFactory(final Set<String> projection,
+                                    final int priceScale,
+                                    final int volumeScale) throws IllegalArgumentException {
+
+        if (priceScale < -1 || priceScale > Decimal.MAX_SCALE || volumeScale < -1 || volumeScale > Decimal.MAX_SCALE)
+            throw new IllegalArgumentException("The scales must be -1 to " + Decimal.MAX_SCALE);
+
+        this.projection = projection;
+        this.priceScale = priceScale;
+        this.volumeScale = volumeScale;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+
+        if (!(other instanceof KrakenTypeAdapterFactory))
+            return false;
+
+        KrakenTypeAdapterFactory factory = (KrakenTypeAdapterFactory) other;
+        return priceScale == factory.priceScale &&
+                volumeScale == factory.volumeScale &&
+                (projection != null ? projection.equals(factory.projection) : factory.projection == null);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (projection != null ? projection.hashCode() : 0) + priceScale) + volumeScale;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Creator creator = CREATORS.get(typeToken.getRawType());
+        return creator != null ?
+                (TypeAdapter<T>) creator.create(gson, typeToken.getType(), this) :
+                null;
+    }
+
+
+    // START: Custom Type Adapters
+
+    abstract static class ReadOnlyTypeAdapter<T> extends TypeAdapter<T> {
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            // Instances of this class are not expected to write JSON.
+        }
+    }
+
+
+    private static final class DictionaryAdapter<V> extends ReadOnlyTypeAdapter<Dictionary<V>> {
+        private final TypeAdapter<V> valueAdapter;
+
+        private DictionaryAdapter(final TypeAdapter<V> valueAdapter) {
+            this.valueAdapter = valueAdapter;
+        }
+
+        @Override
+        public Dictionary<V> read(JsonReader in) throws IOException {
+            Dictionary<V> result = new Dictionary<>();
+            String attributeName;
+            in.beginObject();
+
+            while (in.hasNext()) {
+                attributeName = in.nextName();
+
+                switch (attributeName) {
+                    case "last":
+                        result.last = in.nextString();
+                        break;
+
+                    case "count":
+                        result.count = in.nextInt();
+                        break;
+
+                    case "open":    // Orders
+                    case "closed":
+                    case "trades":  // TradesHistory
+                    case "ledger":  // Ledger
+                        if (valueAdapter == null) {
+                            in.skipValue();
+                        } else {
+                            in.beginObject();
+                            while (in.hasNext())
+                                result.put(in.nextName(), valueAdapter.read(in));
+                            in.endObject();
+                        }
+                        break;
+
+                    default:
+                        if (valueAdapter == null)
+                            in.skipValue();
+                        else
+                            result.put(attributeName, valueAdapter.read(in));
+                        break;
+                }
+            }
+
+            in.endObject();
+            return result;
+        }
+    }
+
+
+    private static final class DecimalAdapter extends ReadOnlyTypeAdapter<Decimal> {
+        @Override
+        public Decimal read(JsonReader in) throws IOException {
+            return readDecimal(in, -1);
+        }
+    }
+
+
+    private static final class DecimalOfferAdapter extends ReadOnlyTypeAdapter<DecimalDepth.Offer> {
+        private final int priceScale;
+        private final int volumeScale;
+
+        private DecimalOfferAdapter(final int priceScale, final int volumeScale) {
+            this.priceScale = priceScale;
+            this.volumeScale = volumeScale;
+        }
+
+        @Override
+        public DecimalDepth.Offer read(JsonReader in) throws IOException {
+            in.beginArray();
+            DecimalDepth.Offer result = new DecimalDepth.Offer();
+            result.price = readDecimal(in, priceScale);
+            result.volume = readDecimal(in, volumeScale);
+            result.timestamp = in.nextLong();
+            while (in.hasNext())
+                in.skipValue();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class FeeScheduleAdapter extends ReadOnlyTypeAdapter<AssetPair.FeeSchedule> {
+        @Override
+        public AssetPair.FeeSchedule read(JsonReader in) throws IOException {
+            in.beginArray();
+            AssetPair.FeeSchedule result = new AssetPair.FeeSchedule();
+            result.volume = in.nextInt();
+            result.feePercent = in.nextDouble();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class OfferAdapter extends ReadOnlyTypeAdapter<Depth.Offer> {
+        @Override
+        public Depth.Offer read(JsonReader in) throws IOException {
+            in.beginArray();
+            Depth.Offer result = new Depth.Offer();
+            result.price = in.nextString();
+            result.volume = in.nextString();
+            result.timestamp = in.nextLong();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class OhlcAdapter extends ReadOnlyTypeAdapter<Ohlc> {
+        @Override
+        public Ohlc read(JsonReader in) throws IOException {
+            Ohlc result = new Ohlc();
+            in.beginArray();
+            result.time = in.nextLong();
+            result.open = in.nextString();
+            result.high = in.nextString();
+            result.low = in.nextString();
+            result.close = in.nextString();
+            result.volumeWeightedAveragePrice = in.nextString();
+            result.volume = in.nextString();
+            result.count = in.nextInt();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class OhlcSeriesAdapter extends ReadOnlyTypeAdapter<OhlcSeries> {
+        @Override
+        public OhlcSeries read(JsonReader in) throws IOException {
+            int capacity = 64;
+            long[] time = new long[capacity];
+            double[] open = new double[capacity];
+            double[] high = new double[capacity];
+            double[] low = new double[capacity];
+            double[] close = new double[capacity];
+            double[] vwap = new double[capacity];
+            double[] volume = new double[capacity];
+            int[] count = new int[capacity];
+            int size = 0;
+
+            in.beginArray();
+            while (in.hasNext()) {
+                if (size == capacity) {
+                    capacity *= 2;
+                    time = Arrays.copyOf(time, capacity);
+                    open = Arrays.copyOf(open, capacity);
+                    high = Arrays.copyOf(high, capacity);
+                    low = Arrays.copyOf(low, capacity);
+                    close = Arrays.copyOf(close, capacity);
+                    vwap = Arrays.copyOf(vwap, capacity);
+                    volume = Arrays.copyOf(volume, capacity);
+                    count = Arrays.copyOf(count, capacity);
+                }
+
+                in.beginArray();
+                time[size] = in.nextLong();
+                open[size] = in.nextDouble();
+                high[size] = in.nextDouble();
+                low[size] = in.nextDouble();
+                close[size] = in.nextDouble();
+                vwap[size] = in.nextDouble();
+                volume[size] = in.nextDouble();
+                count[size] = in.nextInt();
+                in.endArray();
+                size++;
+            }
+            in.endArray();
+
+            OhlcSeries result = new OhlcSeries();
+            result.size = size;
+            result.time = Arrays.copyOf(time, size);
+            result.open = Arrays.copyOf(open, size);
+            result.high = Arrays.copyOf(high, size);
+            result.low = Arrays.copyOf(low, size);
+            result.close = Arrays.copyOf(close, size);
+            result.volumeWeightedAveragePrice = Arrays.copyOf(vwap, size);
+            result.volume = Arrays.copyOf(volume, size);
+            result.count = Arrays.copyOf(count, size);
+            return result;
+        }
+    }
+
+
+    private static final class TickerPriceAdapter extends ReadOnlyTypeAdapter<Ticker.Price> {
+        @Override
+        public Ticker.Price read(JsonReader in) throws IOException {
+            in.beginArray();
+            Ticker.Price result = new Ticker.Price();
+            result.price = in.nextString();
+            result.wholeLotVolume = in.nextString();
+            result.lotVolume = in.nextString();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class TickerSpanAdapter extends ReadOnlyTypeAdapter<Ticker.Span> {
+        @Override
+        public Ticker.Span read(JsonReader in) throws IOException {
+            in.beginArray();
+            Ticker.Span result = new Ticker.Span();
+            result.today = in.nextString();
+            result.last24Hours = in.nextString();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class TickerTradeAdapter extends ReadOnlyTypeAdapter<Ticker.Trade> {
+        @Override
+        public Ticker.Trade read(JsonReader in) throws IOException {
+            in.beginArray();
+            Ticker.Trade result = new Ticker.Trade();
+            result.price = in.nextString();
+            result.lotVolume = in.nextString();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class TradeAdapter extends ReadOnlyTypeAdapter<Trade> {
+        @Override
+        public Trade read(JsonReader in) throws IOException {
+            in.beginArray();
+            Trade result = new Trade();
+            result.price = in.nextString();
+            result.volume = in.nextString();
+            result.time = in.nextDouble();
+            result.buyOrSell = in.nextString();
+            result.marketOrLimit = in.nextString();
+            result.misc = in.nextString();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class TradeBatchAdapter extends ReadOnlyTypeAdapter<TradeBatch> {
+        @Override
+        public TradeBatch read(JsonReader in) throws IOException {
+            DecimalColumn price = new DecimalColumn();
+            DecimalColumn volume = new DecimalColumn();
+            DecimalColumn time = new DecimalColumn();
+            byte[] buyOrSell = new byte[64];
+            byte[] marketOrLimit = new byte[64];
+            String[] misc = new String[64];
+            int size = 0;
+
+            in.beginArray();
+            while (in.hasNext()) {
+                if (size == buyOrSell.length) {
+                    buyOrSell = Arrays.copyOf(buyOrSell, size * 2);
+                    marketOrLimit = Arrays.copyOf(marketOrLimit, size * 2);
+                    misc = Arrays.copyOf(misc, size * 2);
+                }
+
+                in.beginArray();
+                price.add(in.nextString());
+                volume.add(in.nextString());
+                time.add(in.nextString());
+                buyOrSell[size] = asFlag(in.nextString());
+                marketOrLimit[size] = asFlag(in.nextString());
+                String info = in.nextString();
+                misc[size] = info.isEmpty() ? null : info;
+                while (in.hasNext())
+                    in.skipValue();
+                in.endArray();
+                size++;
+            }
+            in.endArray();
+
+            TradeBatch result = new TradeBatch();
+            result.size = size;
+            result.priceScale = price.getMaxDecimals();
+            result.volumeScale = volume.getMaxDecimals();
+            result.price = price.toArray(result.priceScale);
+            result.volume = volume.toArray(result.volumeScale);
+            result.timeMicros = time.toArray(6);
+            result.buyOrSell = Arrays.copyOf(buyOrSell, size);
+            result.marketOrLimit = Arrays.copyOf(marketOrLimit, size);
+            result.misc = Arrays.copyOf(misc, size);
+            return result;
+        }
+
+        private byte asFlag(final String value) {
+            return value.isEmpty() ? 0 : (byte) value.charAt(0);
+        }
+    }
+
+
+    private static final class SpreadAdapter extends ReadOnlyTypeAdapter<Spread> {
+        @Override
+        public Spread read(JsonReader in) throws IOException {
+            in.beginArray();
+            Spread result = new Spread();
+            result.timestamp = in.nextLong();
+            result.bid = in.nextString();
+            result.ask = in.nextString();
+            in.endArray();
+            return result;
+        }
+    }
+
+
+    private static final class SpreadBatchAdapter extends ReadOnlyTypeAdapter<SpreadBatch> {
+        @Override
+        public SpreadBatch read(JsonReader in) throws IOException {
+            DecimalColumn time = new DecimalColumn();
+            DecimalColumn bid = new DecimalColumn();
+            DecimalColumn ask = new DecimalColumn();
+
+            in.beginArray();
+            while (in.hasNext()) {
+                in.beginArray();
+                time.add(in.nextString());
+                bid.add(in.nextString());
+                ask.add(in.nextString());
+                while (in.hasNext())
+                    in.skipValue();
+                in.endArray();
+            }
+            in.endArray();
+
+            SpreadBatch result = new SpreadBatch();
+            result.size = time.size;
+            result.priceScale = Math.max(bid.getMaxDecimals(), ask.getMaxDecimals());
+            result.timeMicros = time.toArray(6);
+            result.bid = bid.toArray(result.priceScale);
+            result.ask = ask.toArray(result.priceScale);
+            return result;
+        }
+    }
+
+
+    // START: Helpers
+
+    /**
+     * Reads a decimal string, or number, as a decimal, rounded half-up to the
+     * given scale.
+     *
+     * @param in    The JSON reader.
+     * @param scale The number of decimals, or -1 to keep all.
+     * @return The decimal or null if the JSON value is null.
+     * @throws IOException If the value can't be read.
+     */
+    private static Decimal readDecimal(final JsonReader in, final int scale) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return scale >= 0 ?
+                Decimal.parse(in.nextString(), scale) :
+                Decimal.parse(in.nextString());
+    }
+
+    /**
+     * This class collects decimal numbers, as delivered by Kraken, as exact
+     * unscaled integers along with their number of decimals, and rescales
+     * them all to a common number of decimals once complete.
+     */
+    private static final class DecimalColumn {
+        private long[] values = new long[64];
+        private byte[] decimals = new byte[64];
+        private int size;
+        private int maxDecimals;
+
+        /**
+         * Parses and appends the given decimal number.
+         *
+         * @param text The decimal number, like "-123.4500".
+         * @throws NumberFormatException If the text isn't a decimal number
+         *                               or doesn't fit in a long.
+         */
+        private void add(final String text) throws NumberFormatException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                decimals = Arrays.copyOf(decimals, size * 2);
+            }
+
+            long value = 0L;
+            int scale = -1;
+            int length = text.length();
+            boolean negative = length > 0 && text.charAt(0) == '-';
+            boolean plain = length > (negative ? 1 : 0) && length < 19;
+            for (int i = negative ? 1 : 0; plain && i < length; i++) {
+                char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    value = value * 10L + (c - '0');
+                    if (scale >= 0)
+                        scale++;
+                } else if (c == '.' && scale < 0) {
+                    scale = 0;
+                } else {
+                    plain = false;
+                }
+            }
+
+            if (!plain) {
+                // Exponents, or more digits than the fast path can handle.
+                BigDecimal number = new BigDecimal(text);
+                scale = Math.max(0, number.scale());
+                try {
+                    value = number.setScale(scale).unscaledValue().longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new NumberFormatException("Out of range: " + text);
+                }
+                negative = false;
+            }
+
+            scale = Math.max(0, scale);
+            if (scale > 18)
+                throw new NumberFormatException("Too many decimals: " + text);
+
+            values[size] = negative ? -value : value;
+            decimals[size] = (byte) scale;
+            maxDecimals = Math.max(maxDecimals, scale);
+            size++;
+        }
+
+        /**
+         * Returns the largest number of decimals of any appended number.
+         *
+         * @return The number of decimals.
+         */
+        private int getMaxDecimals() {
+            return maxDecimals;
+        }
+
+        /**
+         * Returns all appended numbers scaled to the given number of
+         * decimals. Any excess decimals are truncated.
+         *
+         * @param scale The number of decimals.
+         * @return The scaled numbers.
+         * @throws NumberFormatException If a scaled number doesn't fit in a long.
+         */
+        private long[] toArray(final int scale) throws NumberFormatException {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                int shift = scale - decimals[i];
+                try {
+                    result[i] = shift >= 0 ?
+                            Math.multiplyExact(values[i], POWERS_OF_TEN[shift]) :
+                            values[i] / POWERS_OF_TEN[-shift];
+                } catch (ArithmeticException e) {
+                    throw new NumberFormatException("Out of range: " + values[i] + "e-" + decimals[i]);
+                }
+            }
+
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,450 @@
+package com.echsylon.kraken.internal;
+
+import com.annimon.stream.Stream;
+import com.echsylon.kraken.internal.exception.NoConnectionException;
+import com.echsylon.kraken.internal.exception.ResponseStatusException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.BufferedSource;
+
+import static com.echsylon.kraken.internal.Utils.closeSilently;
+
+/**
+ * This class is responsible for executing any HTTP requests and delivering
+ * domain objects parsed from the returned JSON content.
+ */
+@SuppressWarnings("WeakerAccess")
+public class NetworkClient {
+
+    /**
+     * This class allows the caller to configure the com.echsylon.blocks.network
+     * client behavior. Some settings, cache settings (directory and size), or
+     * redirect settings are only read once during the life time of the parent
+     * com.echsylon.blocks.network client. Other settings may change during
+     * runtime.
+     */
+    public static class Settings {
+        private final File cacheDirectory;
+        private final int cacheSizeBytes;
+        private final boolean followSslRedirects;
+        private final boolean followRedirects;
+
+        /**
+         * Creates a default settings object with no cache and allowing all
+         * kinds of redirects.
+         */
+        public Settings() {
+            this(null, 0, true, true);
+        }
+
+        /**
+         * Creates a new settings object with custom configuration.
+         *
+         * @param cacheDirectory     The directory to store response caches in.
+         * @param cacheSizeBytes     The maximum size of the cache.
+         * @param followRedirects    Whether to follow redirects or not.
+         * @param followSslRedirects Whether to follow SSL redirects that redirect to non-SSL
+         *                           endpoints or not.
+         */
+        public Settings(final File cacheDirectory,
+                        final int cacheSizeBytes,
+                        final boolean followRedirects,
+                        final boolean followSslRedirects) {
+
+            this.cacheDirectory = cacheDirectory;
+            this.cacheSizeBytes = cacheSizeBytes;
+            this.followRedirects = followRedirects;
+            this.followSslRedirects = followSslRedirects;
+        }
+
+        /**
+         * @return The directory to cache data in. Null means no cache. Defaults to null.
+         */
+        public File cacheDirectory() {
+            return cacheDirectory;
+        }
+
+        /**
+         * @return The maximum amount of bytes to use for caching. Ignored if no cache directory is
+         * provided.
+         */
+        public long maxCacheSizeBytes() {
+            return cacheSizeBytes;
+        }
+
+        /**
+         * @return Boolean true if redirects should be followed. Defaults to true.
+         */
+        public boolean followRedirects() {
+            return followRedirects;
+        }
+
+        /**
+         * @return Boolean true if HTTPS to HTTP redirects should be followed. Defaults to true.
+         */
+        public boolean followSslRedirects() {
+            return followSslRedirects;
+        }
+
+    }
+
+    /**
+     * This data structure describes a header key/value entry.
+     */
+    public static final class Header {
+        public final String key;
+        public final String value;
+
+        public Header(final String key, final String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+
+    /**
+     * This interface describes a consumer of a successful response body. The
+     * implementation is expected to read the body straight from the provided
+     * source rather than buffering it in memory first.
+     *
+     * @param <T> The type of object produced from the response body.
+     */
+    public interface BodyParser<T> {
+
+        /**
+         * Produces a result from the response body source. The source is
+         * closed by the network client once this method returns.
+         *
+         * @param source The response body source.
+         * @return The result object.
+         * @throws IOException If the source can't be read.
+         */
+        T parse(BufferedSource source) throws IOException;
+    }
+
+
+    /**
+     * This data structure describes the client side cache policy of a single
+     * request. The policy travels with the request as its tag, allowing the
+     * shared network interceptor to apply the correct cache metrics for each
+     * individual request.
+     */
+    public static final class CachePolicy {
+
+        /**
+         * The cache policy that doesn't apply any client side cache metrics.
+         */
+        public static final CachePolicy NONE = new CachePolicy(0, 0, 0);
+
+        public final int maxStaleDuration;
+        public final int forcedCacheDuration;
+        public final int maybeForcedCacheDuration;
+
+        /**
+         * Creates a new cache policy.
+         *
+         * @param maxStaleDuration         The max age, in seconds, of expired cache
+         *                                 entries during which they will still be
+         *                                 accepted.
+         * @param forcedCacheDuration      The max age, in seconds, that will override
+         *                                 any server provided cache metrics.
+         * @param maybeForcedCacheDuration The max age, in seconds, that will only be
+         *                                 honored if the server doesn't provide any
+         *                                 cache metrics.
+         */
+        public CachePolicy(final int maxStaleDuration,
+                           final int forcedCacheDuration,
+                           final int maybeForcedCacheDuration) {
+
+            this.maxStaleDuration = maxStaleDuration;
+            this.forcedCacheDuration = forcedCacheDuration;
+            this.maybeForcedCacheDuration = maybeForcedCacheDuration;
+        }
+    }
+
+
+    /**
+     * Enables means of injecting default settings that will apply to all
+     * subsequent requests. The connection pool and dispatcher of any already
+     * running client are kept.
+     *
+     * @param newSettings The new configuration to apply.
+     */
+    public static void settings(final Settings newSettings) {
+        synchronized (LOCK) {
+            settings = newSettings;
+
+            if (okHttpClient != null)
+                okHttpClient = applySettings(okHttpClient.newBuilder()).build();
+        }
+    }
+
+    /**
+     * Returns the shared network client. All requests are executed through
+     * the same connection pool and dispatcher, regardless of their individual
+     * cache policies.
+     *
+     * @return The shared network client instance.
+     */
+    public static NetworkClient getInstance() {
+        return INSTANCE;
+    }
+
+
+    private static final NetworkClient INSTANCE = new NetworkClient();
+    private static final Object LOCK = new Object();
+
+    private static volatile OkHttpClient okHttpClient = null;
+    private static Settings settings = null;
+
+
+    private NetworkClient() {
+    }
+
+    /**
+     * Performs a synchronous HTTP request and streams the response content
+     * body through the given parser. If anything would go wrong or if any
+     * preconditions aren't honored, then an exception will be thrown.
+     *
+     * @param url     The URL to terminate in.
+     * @param method  The request method.
+     * @param headers Any optional key/value header pairs.
+     * @param payload Any optional data to send through the request.
+     * @param policy  The client side cache policy to apply to the request.
+     * @param parser  The parser to feed the response body source to.
+     * @param token   The token cancelling the HTTP call. May be null.
+     * @return The parsed response body, or null if there was no body.
+     * @throws ResponseStatusException If the response returned an unsuccessful status code.
+     * @throws NoConnectionException   If a connection to the given URL couldn't be established
+     * @throws RuntimeException        If any other unexpected runtime error has occurred.
+     */
+    public <T> T execute(final String url,
+                         final String method,
+                         final List<Header> headers,
+                         final byte[] payload,
+                         final String contentType,
+                         final CachePolicy policy,
+                         final BodyParser<T> parser,
+                         final CancellationToken token) {
+
+        return executeWithFallback(url, method, headers, payload, contentType,
+                policy != null ? policy : CachePolicy.NONE, parser, token, true);
+    }
+
+    /**
+     * Opens a WebSocket to the given URL through the shared connection pool
+     * and dispatcher. The socket pings the server every 30 seconds to detect
+     * broken connections.
+     *
+     * @param url      The URL to connect to.
+     * @param listener The listener of the socket events.
+     * @return The WebSocket.
+     */
+    public WebSocket newWebSocket(final String url, final WebSocketListener listener) {
+        return getOkHttpClient()
+                .newBuilder()
+                .pingInterval(30, TimeUnit.SECONDS)
+                .build()
+                .newWebSocket(new Request.Builder().url(url).build(), listener);
+    }
+
+    /**
+     * Forces the NetworkClient to aggressively release its internal
+     * resources and reset it's state.
+     * <p>
+     * Any enqueued requests that isn't actively executing yet are removed
+     * from the queue. A best-effort attempt is made to also terminate any
+     * executing requests, but no guarantees can be given that they will
+     * terminate immediately. Any subsequent request will start over with a
+     * new connection pool and dispatcher.
+     */
+    public void shutdownNow() {
+        OkHttpClient okHttpClient;
+        synchronized (LOCK) {
+            okHttpClient = NetworkClient.okHttpClient;
+            NetworkClient.okHttpClient = null;
+        }
+
+        if (okHttpClient != null) {
+            Dispatcher dispatcher = okHttpClient.dispatcher();
+            if (dispatcher != null) {
+                ExecutorService executorService = dispatcher.executorService();
+                if (executorService != null)
+                    executorService.shutdownNow();
+            }
+
+            ConnectionPool connectionPool = okHttpClient.connectionPool();
+            if (connectionPool != null)
+                connectionPool.evictAll();
+
+            Cache cache = okHttpClient.cache();
+            if (cache != null)
+                closeSilently(cache);
+        }
+    }
+
+    /**
+     * Internal implementation of the {@link #execute(String, String, List,
+     * byte[], String, CachePolicy, BodyParser, CancellationToken)} method.
+     */
+    private <T> T executeWithFallback(final String url,
+                                      final String method,
+                                      final List<Header> headers,
+                                      final byte[] payload,
+                                      final String contentType,
+                                      final CachePolicy policy,
+                                      final BodyParser<T> parser,
+                                      final CancellationToken token,
+                                      final boolean allowFallback) {
+
+        OkHttpClient okHttpClient = getOkHttpClient();
+
+        MediaType mime = contentType != null ? MediaType.parse(contentType) : null;
+        RequestBody requestBody = payload != null ? RequestBody.create(mime, payload) : null;
+
+        Request.Builder requestBuilder = new Request.Builder();
+        requestBuilder.url(url);
+        requestBuilder.method(method, requestBody);
+        requestBuilder.tag(policy);
+
+        if (policy.maxStaleDuration > 0)
+            requestBuilder.cacheControl(new CacheControl.Builder()
+                    .maxStale(policy.maxStaleDuration, TimeUnit.SECONDS)
+                    .build());
+
+        if (headers != null)
+            Stream.of(headers)
+                    .forEach(header ->
+                            requestBuilder.addHeader(
+                                    header.key,
+                                    header.value));
+
+        // Cancelling the token aborts the HTTP call, whether it's still
+        // connecting or already streaming the response body.
+        Call call = okHttpClient.newCall(requestBuilder.build());
+        if (token != null)
+            token.setCancelAction(call::cancel);
+
+        Response response = null;
+        try {
+            response = call.execute();
+
+            if (response.isSuccessful()) {
+                ResponseBody body = response.body();
+                return body != null ?
+                        parser.parse(body.source()) :
+                        null;
+            }
+
+            throw new ResponseStatusException(response.code(), response.message());
+        } catch (IOException e) {
+            if (allowFallback && policy.maxStaleDuration > 0 && !call.isCanceled())
+                return executeWithFallback(url, method, headers, payload, contentType, policy, parser, token, false);
+
+            // No fallback, throw exception.
+            throw new NoConnectionException(e);
+        } catch (IllegalStateException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (token != null)
+                token.setCancelAction(null);
+            closeSilently(response);
+        }
+    }
+
+    /**
+     * Returns the shared OkHttp client, creating it if needed. The cache
+     * control interceptor is installed exactly once, when the client is
+     * created, and reads the cache policy from each individual request.
+     *
+     * @return The shared OkHttp client.
+     */
+    private static OkHttpClient getOkHttpClient() {
+        OkHttpClient client = okHttpClient;
+        if (client != null)
+            return client;
+
+        synchronized (LOCK) {
+            if (okHttpClient == null)
+                okHttpClient = applySettings(new OkHttpClient.Builder()
+                        .addNetworkInterceptor(NetworkClient::maybeOverrideCacheControl))
+                        .build();
+
+            return okHttpClient;
+        }
+    }
+
+    /**
+     * Applies the current settings, if any, to the given OkHttp client
+     * builder.
+     *
+     * @param builder The builder to configure.
+     * @return The same builder, allowing method chaining.
+     */
+    private static OkHttpClient.Builder applySettings(final OkHttpClient.Builder builder) {
+        if (settings != null) {
+            builder.followSslRedirects(settings.followSslRedirects());
+            builder.followRedirects(settings.followRedirects());
+            builder.cache(settings.cacheDirectory() != null ?
+                    new Cache(settings.cacheDirectory(), settings.maxCacheSizeBytes()) :
+                    null);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Applies any forced client side cache control settings, as described by
+     * the cache policy tag of the intercepted request.
+     *
+     * @param chain The OkHttp request chain.
+     * @return The (maybe) prepared request.
+     * @throws IOException Would something go wrong in the request chain.
+     */
+    private static Response maybeOverrideCacheControl(final Interceptor.Chain chain) throws IOException {
+        // Let the original response come through.
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        Object tag = request.tag();
+        if (!(tag instanceof CachePolicy))
+            return response;
+
+        // Force any hard client side cache settings
+        CachePolicy policy = (CachePolicy) tag;
+        if (policy.forcedCacheDuration > 0)
+            response = response
+                    .newBuilder()
+                    .header("Cache-Control", "public, max-age=" + policy.forcedCacheDuration)
+                    .build();
+
+        // Maybe force any client side cache settings
+        if (policy.maybeForcedCacheDuration > 0 && response.header("Cache-Control") == null)
+            response = response
+                    .newBuilder()
+                    .header("Cache-Control", "public, max-age=" + policy.maybeForcedCacheDuration)
+                    .build();
+
+        return response;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.echsylon.kraken.internal;
+
+import java.util.concurrent.Executor;
+
+/**
+ * THIS IS NOT THE API YOU'RE LOOKING FOR!
+ *
+ * This class knows about the platform the client is running on. The core
+ * client is plain Java, but when the Android adapter module is available on
+ * the class path, then its main thread executor is picked up and used as the
+ * default callback executor. Otherwise callbacks are delivered directly on
+ * the thread that produced the result.
+ */
+public final class Platform {
+    private static final String ANDROID_CALLBACK_EXECUTOR =
+            "com.echsylon.kraken.android.MainThreadExecutor";
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private static volatile Executor defaultCallbackExecutor;
+
+
+    private Platform() {
+        // Intentionally hidden.
+    }
+
+    /**
+     * Returns the default executor to deliver request callbacks on.
+     *
+     * @return The main thread executor on Android, otherwise a direct
+     * executor.
+     */
+    public static Executor getDefaultCallbackExecutor() {
+        Executor executor = defaultCallbackExecutor;
+
+        if (executor == null)
+            synchronized (Platform.class) {
+                executor = defaultCallbackExecutor;
+                if (executor == null) {
+                    executor = findCallbackExecutor();
+                    defaultCallbackExecutor = executor;
+                }
+            }
+
+        return executor;
+    }
+
+    /**
+     * Returns an executor that runs any tasks directly on the calling thread.
+     *
+     * @return The direct executor.
+     */
+    public static Executor getDirectExecutor() {
+        return DIRECT_EXECUTOR;
+    }
+
+
+    /**
+     * Tries to instantiate the Android main thread executor, falling back to
+     * the direct executor if not available.
+     */
+    private static Executor findCallbackExecutor() {
+        try {
+            return (Executor) Class.forName(ANDROID_CALLBACK_EXECUTOR)
+                    .getConstructor()
+                    .newInstance();
+        } catch (Exception | LinkageError e) {
+            return DIRECT_EXECUTOR;
+        }
+    }
+
+}
@@ -1,13 +1,11 @@
 package com.echsylon.kraken.internal;
 
-import android.net.Uri;
-import android.util.Base64;
-
 import com.annimon.stream.Stream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -26,6 +24,8 @@ import javax.crypto.spec.SecretKeySpec;
  * frequently without any further notice. Although the methods are public you should not use them.
  */
 public final class Utils {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
 
     /**
      * Tries to close a Closeable, consuming any errors without notifying the caller.
@@ -66,15 +66,15 @@ public final class Utils {
     }
 
     /**
-     * Returns a byte array as a string, encoding it with the platform default
-     * encoding (UTF-8). Handles null gracefully.
+     * Returns a byte array as a string, decoding it as UTF-8. Handles null
+     * gracefully.
      *
      * @param value The byte array to express as a string.
      * @return The value as a string or null if the input is null.
      */
     public static String asString(byte[] value) {
         return value != null ?
-                new String(value) :
+                new String(value, UTF_8) :
                 null;
     }
 
@@ -115,8 +115,7 @@ public final class Utils {
     }
 
     /**
-     * Returns a string as a byte array. The string is expected to be encoded
-     * with the platform default encoding (UTF-8).
+     * Returns a string as a UTF-8 encoded byte array.
      *
      * @param string The string to convert to a byte array.
      * @return The string byte array or null if the input is null.
@@ -125,7 +124,7 @@ public final class Utils {
         if (string == null)
             return null;
 
-        return string.getBytes();
+        return string.getBytes(UTF_8);
     }
 
     /**
@@ -193,7 +192,7 @@ public final class Utils {
      */
     public static byte[] base64Decode(String string) {
         return string != null ?
-                Base64.decode(string, Base64.DEFAULT) :
+                Base64Codec.decode(string) :
                 null;
     }
 
@@ -205,7 +204,7 @@ public final class Utils {
      */
     public static String base64Encode(byte[] bytes) {
         return bytes != null ?
-                Base64.encodeToString(bytes, Base64.NO_WRAP) :
+                Base64Codec.encode(bytes) :
                 null;
     }
 
@@ -241,25 +240,28 @@ public final class Utils {
      *              as keys and odd positions as values. Any null pointer key or value will render
      *              the key/value pair invalid and hence ignored. Any trailing single keys will also
      *              be ignored.
-     * @return The prepared and encoded Kraken message.
+     * @return The prepared and encoded Kraken message, or null if there is
+     * nothing to encode.
      */
     public static String composeMessage(final String nonce,
                                         final HashMap<String, String> data) {
 
-        Uri.Builder builder = new Uri.Builder();
+        StringBuilder builder = new StringBuilder();
 
         if (nonce != null)
-            builder.appendQueryParameter("nonce", nonce);
+            appendQueryParameter(builder, "nonce", nonce);
 
         if (data != null && !data.isEmpty())
             for (Map.Entry<String, String> entry : data.entrySet()) {
                 String key = entry.getKey();
                 String value = entry.getValue();
                 if (key != null && value != null)
-                    builder.appendQueryParameter(key, value);
+                    appendQueryParameter(builder, key, value);
             }
 
-        return builder.build().getEncodedQuery();
+        return builder.length() > 0 ?
+                builder.toString() :
+                null;
     }
 
     /**
@@ -304,4 +306,74 @@ public final class Utils {
         return headers;
     }
 
+
+    /**
+     * Appends an encoded key/value pair to the given query builder, prefixing
+     * it with an ampersand if the builder isn't empty.
+     *
+     * @param builder The query being built.
+     * @param key     The raw key.
+     * @param value   The raw value.
+     */
+    private static void appendQueryParameter(final StringBuilder builder,
+                                             final String key,
+                                             final String value) {
+        if (builder.length() > 0)
+            builder.append('&');
+
+        appendEncoded(builder, key);
+        builder.append('=');
+        appendEncoded(builder, value);
+    }
+
+    /**
+     * Percent encodes the given string straight into the given builder. All
+     * characters but letters, digits and "_-!.~'()*" are encoded as UTF-8
+     * bytes, just like the Android {@code Uri} would encode them. Only non
+     * ASCII characters cause any intermediate allocations.
+     *
+     * @param builder The builder to append the encoded string to.
+     * @param string  The raw string.
+     */
+    private static void appendEncoded(final StringBuilder builder, final String string) {
+        for (int i = 0, length = string.length(); i < length; i++) {
+            char character = string.charAt(i);
+
+            if (isUnreserved(character)) {
+                builder.append(character);
+            } else if (character < 0x80) {
+                appendPercentEncoded(builder, character);
+            } else {
+                int end = i + 1;
+                if (Character.isHighSurrogate(character) && end < length &&
+                        Character.isLowSurrogate(string.charAt(end)))
+                    end++;
+
+                for (byte b : string.substring(i, end).getBytes(UTF_8))
+                    appendPercentEncoded(builder, b & 0xFF);
+
+                i = end - 1;
+            }
+        }
+    }
+
+    /**
+     * Appends a single percent encoded byte to the given builder.
+     */
+    private static void appendPercentEncoded(final StringBuilder builder, final int b) {
+        builder.append('%')
+                .append(HEX[b >>> 4 & 0x0F])
+                .append(HEX[b & 0x0F]);
+    }
+
+    /**
+     * Checks whether the given character may be left unencoded in a query.
+     */
+    private static boolean isUnreserved(final char character) {
+        return (character >= 'a' && character <= 'z') ||
+                (character >= 'A' && character <= 'Z') ||
+                (character >= '0' && character <= '9') ||
+                "_-!.~'()*".indexOf(character) != -1;
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
 
@@ -27,7 +28,7 @@ public class AccountBalanceRequestBuilder extends RequestBuilder<Dictionary<Stri
                                         final String key,
                                         final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/Balance",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.OrderAddReceipt;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -28,7 +29,7 @@ public class AddOrderRequestBuilder extends RequestBuilder<OrderAddReceipt, AddO
                                   final String key,
                                   final byte[] secret) {
 
-        super(0, callCounter, key, secret, baseUrl,
+        super(1, Priority.ORDER_ENTRY, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/AddOrder",
                 OrderAddReceipt.class);
     }
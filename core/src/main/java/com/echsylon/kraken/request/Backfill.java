@@ -0,0 +1,391 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.internal.Platform;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class fetches the full history of a time ranged and offset paged
+ * endpoint, like "Ledgers" and "TradesHistory". The time range is split into
+ * windows which are fetched in parallel, each window page by page, and thereby
+ * executed as soon as the call rate limit allows.
+ * <p>
+ * The entries are delivered to the receiver in time order, oldest first, on
+ * the thread running the backfill. Entries at the boundary between two
+ * windows are only delivered once. Only the windows being fetched, and the one
+ * being delivered, are held in memory. Windows are created as the backfill
+ * progresses and released as soon as they have been delivered.
+ * <p>
+ * An optional checkpoint file keeps track of the delivered windows. Should
+ * the backfill be interrupted, then running it again with the same checkpoint
+ * file and time range resumes it after the last delivered window.
+ *
+ * @param <V> The type of the entries.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Backfill<V> {
+
+    /**
+     * This interface describes the receiver of the backfilled entries.
+     *
+     * @param <V> The type of the entries.
+     */
+    public interface Receiver<V> {
+
+        /**
+         * Receives the next entry in time order.
+         *
+         * @param id    The id of the entry.
+         * @param value The entry.
+         * @throws IOException If the receiver couldn't process the entry. Stops the backfill.
+         */
+        void onEntry(String id, V value) throws IOException;
+    }
+
+    /**
+     * This interface describes the means of requesting a page of a window.
+     *
+     * @param <V> The type of the entries.
+     */
+    interface Launcher<V> {
+
+        /**
+         * Enqueues the request for a page. Its callbacks are expected to be
+         * delivered directly on the worker thread.
+         *
+         * @param offset The offset of the page within the window.
+         * @param start  The exclusive start time of the window, in seconds.
+         * @param end    The inclusive end time of the window, in seconds.
+         * @return The enqueued request.
+         */
+        Request<Dictionary<V>> launch(int offset, long start, long end);
+    }
+
+    /**
+     * This interface describes the means of reading the time of an entry.
+     *
+     * @param <V> The type of the entries.
+     */
+    interface TimeOf<V> {
+
+        /**
+         * Returns the time of the given entry.
+         *
+         * @param value The entry.
+         * @return The time in seconds. May be null.
+         */
+        Double timeOf(V value);
+    }
+
+    private static final String CHECKPOINT_START = "start";
+    private static final String CHECKPOINT_END = "end";
+
+    private final long start;
+    private final long end;
+    private final Launcher<V> launcher;
+    private final TimeOf<V> timeOf;
+
+    private long windowSize;
+    private int parallelism;
+    private File checkpoint;
+
+
+    /**
+     * Creates a new backfill.
+     *
+     * @param start    The exclusive start time of the range, in seconds.
+     * @param end      The inclusive end time of the range, in seconds.
+     * @param launcher The means of requesting a page.
+     * @param timeOf   The means of reading the time of an entry.
+     */
+    Backfill(final long start, final long end, final Launcher<V> launcher, final TimeOf<V> timeOf) {
+        this.start = start;
+        this.end = end;
+        this.launcher = launcher;
+        this.timeOf = timeOf;
+        this.windowSize = 86400L;
+        this.parallelism = 4;
+    }
+
+    /**
+     * Sets the length of each time window. Defaults to one day.
+     *
+     * @param seconds The window size in seconds.
+     * @return This backfill object, allowing method chaining.
+     */
+    public Backfill<V> useWindowSize(final long seconds) {
+        if (seconds > 0L)
+            windowSize = seconds;
+        return this;
+    }
+
+    /**
+     * Sets the max number of windows to fetch at the same time. Defaults to
+     * four. The call rate limit still applies to each request.
+     *
+     * @param windows The max number of windows in flight.
+     * @return This backfill object, allowing method chaining.
+     */
+    public Backfill<V> useParallelism(final int windows) {
+        if (windows > 0)
+            parallelism = windows;
+        return this;
+    }
+
+    /**
+     * Sets the file to keep track of the delivered windows in.
+     *
+     * @param file The checkpoint file. May be null.
+     * @return This backfill object, allowing method chaining.
+     */
+    public Backfill<V> useCheckpoint(final File file) {
+        checkpoint = file;
+        return this;
+    }
+
+    /**
+     * Runs the backfill, blocking the calling thread until all entries have
+     * been delivered to the receiver. Should a request fail, then any
+     * pending requests are cancelled and the error is thrown.
+     *
+     * @param receiver The receiver of the entries.
+     * @throws IOException          If the checkpoint couldn't be read or written or if the
+     *                              receiver failed.
+     * @throws InterruptedException If the calling thread was interrupted.
+     * @throws RuntimeException     If a request failed.
+     */
+    public void run(final Receiver<V> receiver) throws IOException, InterruptedException, RuntimeException {
+        long next = readCheckpoint();
+        ArrayDeque<Window> windows = new ArrayDeque<>();
+
+        Set<String> boundary = Collections.emptySet();
+        try {
+            while (true) {
+                // Keep the next windows in flight while this one is delivered.
+                while (windows.size() < parallelism && next < end) {
+                    Window window = new Window(next, Math.min(next + windowSize, end));
+                    windows.add(window);
+                    window.fetch();
+                    next += windowSize;
+                }
+
+                Window window = windows.peek();
+                if (window == null)
+                    break;
+
+                List<Map.Entry<String, V>> entries = window.await();
+                Set<String> delivered = new HashSet<>();
+                for (Map.Entry<String, V> entry : entries)
+                    if (!boundary.contains(entry.getKey()) && delivered.add(entry.getKey()))
+                        receiver.onEntry(entry.getKey(), entry.getValue());
+
+                boundary = delivered;
+                writeCheckpoint(window.end);
+
+                // Release the delivered window and its entries.
+                windows.remove();
+            }
+        } finally {
+            for (Window window : windows)
+                window.cancel();
+        }
+    }
+
+    /**
+     * Returns where to start the backfill, considering any checkpoint of a
+     * previous run with the same time range.
+     *
+     * @return The exclusive start time in seconds.
+     * @throws IOException If the checkpoint couldn't be read.
+     */
+    private long readCheckpoint() throws IOException {
+        if (checkpoint == null || !checkpoint.isFile())
+            return start;
+
+        Properties properties = new Properties();
+        try (InputStream input = new FileInputStream(checkpoint)) {
+            properties.load(input);
+        }
+
+        try {
+            long checkpointStart = Long.parseLong(properties.getProperty(CHECKPOINT_START));
+            long checkpointEnd = Long.parseLong(properties.getProperty(CHECKPOINT_END));
+            return checkpointEnd == end && checkpointStart > start && checkpointStart <= end ?
+                    checkpointStart :
+                    start;
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checkpoint file: " + checkpoint, e);
+        }
+    }
+
+    /**
+     * Records that all entries up to, and including, the given time have been
+     * delivered. The checkpoint is replaced atomically where the file system
+     * allows it.
+     *
+     * @param delivered The inclusive end time of the delivered windows.
+     * @throws IOException If the checkpoint couldn't be written.
+     */
+    private void writeCheckpoint(final long delivered) throws IOException {
+        if (checkpoint == null)
+            return;
+
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_START, Long.toString(delivered));
+        properties.setProperty(CHECKPOINT_END, Long.toString(end));
+
+        File temporary = new File(checkpoint.getPath() + ".tmp");
+        try (OutputStream output = new FileOutputStream(temporary)) {
+            properties.store(output, null);
+        }
+
+        if (!temporary.renameTo(checkpoint) && !(checkpoint.delete() && temporary.renameTo(checkpoint)))
+            throw new IOException("Couldn't write checkpoint file: " + checkpoint);
+    }
+
+
+    /**
+     * This class fetches all pages of one time window, one page after the
+     * other, without blocking any threads while waiting.
+     */
+    private final class Window {
+        private final long start;
+        private final long end;
+        private final LinkedHashMap<String, V> entries;
+        private final Request<List<Map.Entry<String, V>>> result;
+
+        private Request<Dictionary<V>> page;
+        private boolean started;
+
+
+        private Window(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+            this.entries = new LinkedHashMap<>();
+            this.result = new Request<>(Priority.BULK_HISTORY, Platform.getDirectExecutor(), null, () -> {
+                throw new IllegalStateException("A window is never executed on its own");
+            });
+        }
+
+        /**
+         * Starts fetching this window, unless already started.
+         */
+        private synchronized void fetch() {
+            if (!started) {
+                started = true;
+                fetch(0);
+            }
+        }
+
+        /**
+         * Requests the page at the given offset.
+         *
+         * @param offset The offset within this window.
+         */
+        private synchronized void fetch(final int offset) {
+            if (result.isDone())
+                return;
+
+            page = launcher.launch(offset, start, end)
+                    .withSuccessListener(dictionary -> accept(offset, dictionary))
+                    .withErrorListener(result::fail);
+        }
+
+        /**
+         * Collects the entries of a page and requests the next page, if
+         * there is one, or completes this window.
+         *
+         * @param offset     The offset of the page.
+         * @param dictionary The page.
+         */
+        private void accept(final int offset, final Dictionary<V> dictionary) {
+            int size = dictionary != null ? dictionary.size() : 0;
+            if (size > 0)
+                entries.putAll(dictionary);
+
+            int next = offset + size;
+            if (size > 0 && dictionary.count != null && next < dictionary.count) {
+                fetch(next);
+                return;
+            }
+
+            List<Map.Entry<String, V>> sorted = new ArrayList<>(entries.size());
+            for (Map.Entry<String, V> entry : entries.entrySet()) {
+                Double time = timeOf.timeOf(entry.getValue());
+                if (time == null || time > start && time <= end)
+                    sorted.add(entry);
+            }
+
+            // Kraken delivers the newest entries first, the sort is stable.
+            Collections.reverse(sorted);
+            Collections.sort(sorted, (first, second) -> Double.compare(
+                    timeOrStart(first.getValue()),
+                    timeOrStart(second.getValue())));
+
+            entries.clear();
+            result.deliver(sorted);
+        }
+
+        /**
+         * Returns the time of the given entry, or the start of this window if
+         * the entry has no time.
+         *
+         * @param value The entry.
+         * @return The time in seconds.
+         */
+        private double timeOrStart(final V value) {
+            Double time = timeOf.timeOf(value);
+            return time != null ? time : start;
+        }
+
+        /**
+         * Waits for all entries of this window.
+         *
+         * @return The entries in time order.
+         * @throws InterruptedException If the calling thread was interrupted.
+         * @throws RuntimeException     If a request failed.
+         */
+        private List<Map.Entry<String, V>> await() throws InterruptedException, RuntimeException {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ?
+                        (RuntimeException) cause :
+                        new IllegalStateException("Couldn't backfill window", cause);
+            }
+        }
+
+        /**
+         * Stops fetching this window.
+         */
+        private void cancel() {
+            Request<Dictionary<V>> pending;
+            synchronized (this) {
+                result.cancel(false);
+                pending = page;
+            }
+
+            if (pending != null && !pending.isDone())
+                pending.cancel(false);
+        }
+    }
+
+}
@@ -1,11 +1,10 @@
 package com.echsylon.kraken.request;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import com.annimon.stream.Stream;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * This class is responsible for temporarily holding references to callback implementations for a
@@ -20,6 +19,13 @@ import java.util.ArrayList;
  * listener after an error result has been produced, then nothing can happen - the listener will
  * neither be cached nor called.
  *
+ * All listeners are called through the callback executor given at creation,
+ * which may, for example, hop to the Android main thread, or call them right
+ * away on the delivering thread. The finish state and the listener references
+ * are guarded by one lock, so a listener added concurrently with the delivery
+ * of a result is either called with the delivered result or by the delivery
+ * itself.
+ *
  * @param <V> The type of result any added success listeners can handle.
  */
 class CallbackManager<V> {
@@ -27,16 +33,29 @@ class CallbackManager<V> {
         SUCCESS, ERROR, TERMINATED, NONE
     }
 
-    private final Object finishLock = new Object();
-    private final Object successLock = new Object();
-    private final Object errorLock = new Object();
+    private final Object lock = new Object();
+    private final Executor executor;
 
     private ArrayList<FinishListener> finishListeners = new ArrayList<>();
     private ArrayList<SuccessListener<V>> successListeners = new ArrayList<>();
     private ArrayList<ErrorListener> errorListeners = new ArrayList<>();
 
-    private FinishState finishState = FinishState.NONE;
-    private Object result = null;
+    private volatile FinishState finishState = FinishState.NONE;
+    private volatile Object result = null;
+
+    /**
+     * Creates a new callback manager that calls any listeners through the
+     * given executor.
+     *
+     * @param executor The callback executor.
+     * @throws NullPointerException If the executor is null.
+     */
+    CallbackManager(Executor executor) throws NullPointerException {
+        if (executor == null)
+            throw new NullPointerException("The callback executor must not be null");
+
+        this.executor = executor;
+    }
 
     /**
      * Stores a reference to the given success callback internally until the
@@ -56,22 +75,23 @@ class CallbackManager<V> {
         if (listener == null)
             return;
 
-        switch (finishState) {
-            case TERMINATED:
-                throw new IllegalStateException("This callback manager is terminated" +
-                        " and won't accept any callbacks anymore.");
-            case NONE:
-                synchronized (successLock) {
+        synchronized (lock) {
+            switch (finishState) {
+                case TERMINATED:
+                    throw new IllegalStateException("This callback manager is terminated" +
+                            " and won't accept any callbacks anymore.");
+                case NONE:
                     if (!successListeners.contains(listener))
                         successListeners.add(listener);
-                }
-                break;
-            case SUCCESS:
-                deliverSuccessOnMainThread(listener);
-                break;
-            default:
-                break;
+                    return;
+                case SUCCESS:
+                    break;
+                default:
+                    return;
+            }
         }
+
+        deliverSuccess(listener);
     }
 
     /**
@@ -92,22 +112,23 @@ class CallbackManager<V> {
         if (listener == null)
             return;
 
-        switch (finishState) {
-            case TERMINATED:
-                throw new IllegalStateException("This callback manager is terminated" +
-                        " and won't accept any callbacks anymore.");
-            case NONE:
-                synchronized (errorLock) {
+        synchronized (lock) {
+            switch (finishState) {
+                case TERMINATED:
+                    throw new IllegalStateException("This callback manager is terminated" +
+                            " and won't accept any callbacks anymore.");
+                case NONE:
                     if (!errorListeners.contains(listener))
                         errorListeners.add(listener);
-                }
-                break;
-            case ERROR:
-                deliverErrorOnMainThread(listener);
-                break;
-            default:
-                break;
+                    return;
+                case ERROR:
+                    break;
+                default:
+                    return;
+            }
         }
+
+        deliverError(listener);
     }
 
     /**
@@ -128,24 +149,25 @@ class CallbackManager<V> {
         if (listener == null)
             return;
 
-        switch (finishState) {
-            case TERMINATED:
-                throw new IllegalStateException("This callback manager is terminated" +
-                        " and won't accept any callbacks anymore.");
-            case NONE:
-                synchronized (finishLock) {
+        synchronized (lock) {
+            switch (finishState) {
+                case TERMINATED:
+                    throw new IllegalStateException("This callback manager is terminated" +
+                            " and won't accept any callbacks anymore.");
+                case NONE:
                     if (!finishListeners.contains(listener))
                         finishListeners.add(listener);
-                }
-                break;
-            case SUCCESS: // Intentional fallthrough
-            case ERROR:
-                notifyFinishOnMainThread(listener);
-                break;
-            default:
-                // Ignore undefined result states
-                break;
+                    return;
+                case SUCCESS: // Intentional fallthrough
+                case ERROR:
+                    break;
+                default:
+                    // Ignore undefined result states
+                    return;
+            }
         }
+
+        notifyFinish(listener);
     }
 
     /**
@@ -156,34 +178,34 @@ class CallbackManager<V> {
      *
      * @param result The success result object.
      */
-    void deliverSuccessOnMainThread(V result) {
-        if (finishState != FinishState.NONE)
-            return;
+    void deliverSuccess(V result) {
+        List<FinishListener> finishing;
+        List<SuccessListener<V>> succeeding;
 
-        this.finishState = FinishState.SUCCESS;
-        this.result = result;
-
-        new Handler(Looper.getMainLooper()).post(() -> {
-            synchronized (finishLock) {
-                Stream.of(finishListeners)
-                        .filter(listener -> listener != null)
-                        .forEach(FinishListener::onFinish);
-                finishListeners.clear();
-            }
+        synchronized (lock) {
+            if (finishState != FinishState.NONE)
+                return;
 
-            synchronized (successLock) {
-                Stream.of(successListeners)
-                        .filter(listener -> listener != null)
-                        .forEach(listener -> listener.onSuccess(result));
-                successListeners.clear();
-            }
-        });
+            this.result = result;
+            this.finishState = FinishState.SUCCESS;
+            finishing = new ArrayList<>(finishListeners);
+            succeeding = new ArrayList<>(successListeners);
 
-        // Since a result can't be both success and failure at the same time, it's safe to release
-        // the error listeners too here.
-        synchronized (errorLock) {
+            // Since a result can't be both success and failure at the same
+            // time, it's safe to release the error listeners too here.
+            finishListeners.clear();
+            successListeners.clear();
             errorListeners.clear();
         }
+
+        executor.execute(() -> {
+            Stream.of(finishing)
+                    .filter(listener -> listener != null)
+                    .forEach(FinishListener::onFinish);
+            Stream.of(succeeding)
+                    .filter(listener -> listener != null)
+                    .forEach(listener -> listener.onSuccess(result));
+        });
     }
 
     /**
@@ -193,34 +215,34 @@ class CallbackManager<V> {
      *
      * @param cause The error.
      */
-    void deliverErrorOnMainThread(Throwable cause) {
-        if (finishState != FinishState.NONE)
-            return;
+    void deliverError(Throwable cause) {
+        List<FinishListener> finishing;
+        List<ErrorListener> failing;
 
-        this.finishState = FinishState.ERROR;
-        this.result = cause;
+        synchronized (lock) {
+            if (finishState != FinishState.NONE)
+                return;
 
-        new Handler(Looper.getMainLooper()).post(() -> {
-            synchronized (finishLock) {
-                Stream.of(finishListeners)
-                        .filter(listener -> listener != null)
-                        .forEach(FinishListener::onFinish);
-                finishListeners.clear();
-            }
+            this.result = cause;
+            this.finishState = FinishState.ERROR;
+            finishing = new ArrayList<>(finishListeners);
+            failing = new ArrayList<>(errorListeners);
 
-            synchronized (errorLock) {
-                Stream.of(errorListeners)
-                        .filter(listener -> listener != null)
-                        .forEach(listener -> listener.onError((Throwable) result));
-                errorListeners.clear();
-            }
-        });
-
-        // Since a result can't be both success and failure at the same time, it's safe to release
-        // the success listeners too here.
-        synchronized (successLock) {
+            // Since a result can't be both success and failure at the same
+            // time, it's safe to release the success listeners too here.
+            finishListeners.clear();
             successListeners.clear();
+            errorListeners.clear();
         }
+
+        executor.execute(() -> {
+            Stream.of(finishing)
+                    .filter(listener -> listener != null)
+                    .forEach(FinishListener::onFinish);
+            Stream.of(failing)
+                    .filter(listener -> listener != null)
+                    .forEach(listener -> listener.onError(cause));
+        });
     }
 
     /**
@@ -229,14 +251,10 @@ class CallbackManager<V> {
      * state where no more callbacks will be accepted.
      */
     void terminate() {
-        finishState = FinishState.TERMINATED;
-        synchronized (finishLock) {
+        synchronized (lock) {
+            finishState = FinishState.TERMINATED;
             finishListeners.clear();
-        }
-        synchronized (errorLock) {
             errorListeners.clear();
-        }
-        synchronized (successLock) {
             successListeners.clear();
         }
     }
@@ -248,8 +266,8 @@ class CallbackManager<V> {
      * @param listener The success callback implementation to re-deliver to.
      */
     @SuppressWarnings("unchecked") // Prevent Lint type cast warning
-    private void deliverSuccessOnMainThread(SuccessListener<V> listener) {
-        new Handler(Looper.getMainLooper()).post(() -> {
+    private void deliverSuccess(SuccessListener<V> listener) {
+        executor.execute(() -> {
             if (listener != null)
                 listener.onSuccess((V) result);
         });
@@ -261,8 +279,8 @@ class CallbackManager<V> {
      *
      * @param listener The error callback implementation to re-deliver to.
      */
-    private void deliverErrorOnMainThread(ErrorListener listener) {
-        new Handler(Looper.getMainLooper()).post(() -> {
+    private void deliverError(ErrorListener listener) {
+        executor.execute(() -> {
             if (listener != null)
                 listener.onError((Throwable) result);
         });
@@ -274,8 +292,8 @@ class CallbackManager<V> {
      *
      * @param listener The finish callback implementation to notify again.
      */
-    private void notifyFinishOnMainThread(FinishListener listener) {
-        new Handler(Looper.getMainLooper()).post(() -> {
+    private void notifyFinish(FinishListener listener) {
+        executor.execute(() -> {
             if (listener != null)
                 listener.onFinish();
         });
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.OrderCancelReceipt;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -25,7 +26,7 @@ public class CancelOrderRequestBuilder extends RequestBuilder<OrderCancelReceipt
                                      final String key,
                                      final byte[] secret) {
 
-        super(0, callCounter, key, secret, baseUrl,
+        super(1, Priority.ORDER_ENTRY, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/CancelOrder",
                 OrderCancelReceipt.class);
     }
@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Order;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -30,7 +31,7 @@ public class ClosedOrdersRequestBuilder extends RequestBuilder<Dictionary<Order>
                                       final String key,
                                       final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.BULK_HISTORY, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/ClosedOrders",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -115,4 +116,14 @@ public class ClosedOrdersRequestBuilder extends RequestBuilder<Dictionary<Order>
         return this;
     }
 
+    /**
+     * Creates an iterator over all closed orders matching this request,
+     * starting at any configured offset.
+     *
+     * @return The iterator. Should be closed if abandoned before its end.
+     */
+    public PagedIterator<Order> iterate() {
+        return paginate();
+    }
+
 }
@@ -0,0 +1,85 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Decimal;
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.dto.DecimalDepth;
+import com.echsylon.kraken.internal.CallCounter;
+import com.google.gson.reflect.TypeToken;
+
+import static com.echsylon.kraken.internal.Utils.asString;
+
+/**
+ * This class can build a request that retrieves the market depth for tradable
+ * asset pairs, with the prices and volumes parsed straight into fixed-point
+ * decimals.
+ * <p>
+ * For further technical details see Kraken API documentation at:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public class DecimalOrderBookRequestBuilder extends RequestBuilder<Dictionary<DecimalDepth>, DecimalOrderBookRequestBuilder> {
+
+    /**
+     * Creates a new request builder.
+     *
+     * @param callCounter The request call counter. May be null.
+     * @param baseUrl     The base url of the request.
+     * @param key         The user API key.
+     * @param secret      The corresponding secret.
+     */
+    public DecimalOrderBookRequestBuilder(final CallCounter callCounter,
+                                          final String baseUrl,
+                                          final String key,
+                                          final byte[] secret) {
+
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
+                "GET", "/0/public/Depth",
+                TypeToken.getParameterized(
+                        Dictionary.class,
+                        DecimalDepth.class).getType());
+    }
+
+    /**
+     * Sets the asset pair request property.
+     *
+     * @param pair The asset pair to get the market depth for.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public DecimalOrderBookRequestBuilder useAssetPair(final String pair) {
+        data.put("pair", pair);
+        return this;
+    }
+
+    /**
+     * Sets the maximum asks/bids count request property.
+     *
+     * @param count The maximum number of asks or bids.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public DecimalOrderBookRequestBuilder useCount(final int count) {
+        data.put("count", asString(count));
+        return this;
+    }
+
+    /**
+     * Rounds the prices and volumes, half-up, to the "pairDecimals" and
+     * "lotDecimals" of the given asset pair as they're parsed. By default all
+     * decimals are kept, as delivered.
+     *
+     * @param assetPair The asset pair to take the scales from. Null keeps all decimals.
+     * @return This request builder instance allowing method call chaining.
+     * @throws IllegalArgumentException If a scale exceeds {@link Decimal#MAX_SCALE}.
+     */
+    public DecimalOrderBookRequestBuilder useScaleOf(final AssetPair assetPair) throws IllegalArgumentException {
+        int priceScale = assetPair != null && assetPair.pairDecimals != null ? assetPair.pairDecimals : -1;
+        int volumeScale = assetPair != null && assetPair.lotDecimals != null ? assetPair.lotDecimals : -1;
+        if (priceScale > Decimal.MAX_SCALE || volumeScale > Decimal.MAX_SCALE)
+            throw new IllegalArgumentException("The scales must not exceed " + Decimal.MAX_SCALE);
+
+        setDecimalScales(Math.max(-1, priceScale), Math.max(-1, volumeScale));
+        return this;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Ledger;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -30,7 +31,7 @@ public class LedgersRequestBuilder extends RequestBuilder<Dictionary<Ledger>, Le
                                  final String key,
                                  final byte[] secret) {
 
-        super(2, callCounter, key, secret, baseUrl,
+        super(2, Priority.BULK_HISTORY, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/Ledgers",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -116,4 +117,28 @@ public class LedgersRequestBuilder extends RequestBuilder<Dictionary<Ledger>, Le
         return this;
     }
 
+    /**
+     * Creates an iterator over all ledger entries matching this request,
+     * starting at any configured offset. The pages are requested as the entries
+     * are consumed, the next page always in advance.
+     *
+     * @return The iterator. Should be closed if abandoned before its end.
+     */
+    public PagedIterator<Ledger> iterate() {
+        return paginate();
+    }
+
+    /**
+     * Creates a backfill of all ledger entries within the given time range,
+     * fetched in parallel time windows. Any configured start, end or offset is
+     * ignored.
+     *
+     * @param start The exclusive start time, in unix seconds.
+     * @param end   The inclusive end time, in unix seconds.
+     * @return The backfill to configure and run.
+     */
+    public Backfill<Ledger> backfill(final long start, final long end) {
+        return createBackfill(start, end, ledger -> ledger.time != 0D ? ledger.time : null);
+    }
+
 }
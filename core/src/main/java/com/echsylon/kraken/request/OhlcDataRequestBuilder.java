@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Ohlc;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -30,7 +31,7 @@ public class OhlcDataRequestBuilder extends RequestBuilder<Dictionary<Ohlc[]>, O
                                   final String key,
                                   final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
                 "GET", "/0/public/OHLC",
                 TypeToken.getParameterized(
                         Dictionary.class,
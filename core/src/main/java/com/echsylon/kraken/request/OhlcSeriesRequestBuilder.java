@@ -0,0 +1,80 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.OhlcSeries;
+import com.echsylon.kraken.internal.CallCounter;
+import com.google.gson.reflect.TypeToken;
+
+import static com.echsylon.kraken.internal.Utils.asString;
+
+/**
+ * This class can build a request that retrieves information about the
+ * Open/High/Low/Close state for a tradable asset pair. Unlike the
+ * {@link OhlcDataRequestBuilder}, the candles are delivered in columnar form,
+ * parsed straight into one primitive array per field, which is considerably
+ * more compact when keeping many series in memory.
+ * <p>
+ * For further technical details see Kraken API documentation at:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public class OhlcSeriesRequestBuilder extends RequestBuilder<Dictionary<OhlcSeries>, OhlcSeriesRequestBuilder> {
+
+    /**
+     * Creates a new request builder.
+     *
+     * @param callCounter The request call counter. May be null.
+     * @param baseUrl     The base url of the request.
+     * @param key         The user API key.
+     * @param secret      The corresponding secret.
+     */
+    public OhlcSeriesRequestBuilder(final CallCounter callCounter,
+                                    final String baseUrl,
+                                    final String key,
+                                    final byte[] secret) {
+
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
+                "GET", "/0/public/OHLC",
+                TypeToken.getParameterized(
+                        Dictionary.class,
+                        OhlcSeries.class).getType());
+    }
+
+    /**
+     * Sets the asset pair request property.
+     *
+     * @param pair The asset pair to get OHLC data for.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public OhlcSeriesRequestBuilder useAssetPair(final String pair) {
+        data.put("pair", pair);
+        return this;
+    }
+
+    /**
+     * Sets the interval request property.
+     *
+     * @param interval The time span base (in minutes) for the OHLC data.
+     *                 Options: 1 (default), 5, 15, 30, 60, 240, 1440, 10080,
+     *                 21600
+     * @return This request builder instance allowing method call chaining.
+     */
+    public OhlcSeriesRequestBuilder useInterval(final int interval) {
+        data.put("interval", asString(interval));
+        return this;
+    }
+
+    /**
+     * Sets the since id request property.
+     *
+     * @param sinceId The exclusive epoch describing how far back in time to get
+     *                OHLC data from.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public OhlcSeriesRequestBuilder useSinceId(final String sinceId) {
+        data.put("since", sinceId);
+        return this;
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class iterates over all entries of an offset paged endpoint, like
+ * "Ledgers", "TradesHistory" and "ClosedOrders", one page at a time. Pages
+ * are requested lazily, as the caller consumes the entries, and the next page
+ * is always requested while the caller consumes the current one. Only the
+ * current page is held in memory.
+ * <p>
+ * Kraken delivers the newest entries first, so entries arriving while the
+ * iteration is ongoing would shift the offsets of the remaining pages. The
+ * iteration therefore pins the end of the result to the first entry it
+ * received, unless the caller already set an end, and skips any entry that
+ * was delivered on the previous page.
+ * <p>
+ * The iteration stops once the total number of entries, as reported by
+ * Kraken, has been consumed. Any error is thrown from {@link #hasNext()} as
+ * an unchecked exception. Closing the iterator cancels any pending request.
+ *
+ * @param <V> The type of the entries.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PagedIterator<V> implements Iterator<Map.Entry<String, V>>, Closeable {
+
+    /**
+     * This interface describes the means of requesting a page.
+     *
+     * @param <V> The type of the entries.
+     */
+    interface Launcher<V> {
+
+        /**
+         * Enqueues the request for a page.
+         *
+         * @param offset The offset of the page.
+         * @param end    The inclusive id of the newest entry to include. May be null.
+         * @return The enqueued request.
+         */
+        Request<Dictionary<V>> launch(int offset, String end);
+    }
+
+    private final Launcher<V> launcher;
+
+    private Request<Dictionary<V>> pending;
+    private Iterator<Map.Entry<String, V>> current;
+    private Set<String> previous;
+    private String end;
+    private int offset;
+    private boolean started;
+    private boolean closed;
+
+
+    /**
+     * Creates a new iterator. No page is requested until the caller asks for
+     * the first entry.
+     *
+     * @param offset   The offset of the first page.
+     * @param end      The inclusive id of the newest entry to include. May be null.
+     * @param launcher The means of requesting a page.
+     */
+    PagedIterator(final int offset, final String end, final Launcher<V> launcher) {
+        this.offset = offset;
+        this.end = end;
+        this.launcher = launcher;
+        this.previous = new HashSet<>();
+    }
+
+    /**
+     * Tells whether there are more entries, blocking until the next page has
+     * been delivered if needed.
+     *
+     * @return Boolean true if there are more entries, false otherwise.
+     * @throws RuntimeException If a page couldn't be delivered.
+     */
+    @Override
+    public boolean hasNext() throws RuntimeException {
+        if (!started) {
+            started = true;
+            pending = launcher.launch(offset, end);
+        }
+
+        while (current == null || !current.hasNext()) {
+            if (pending == null || closed)
+                return false;
+
+            Dictionary<V> page = await(pending);
+            pending = null;
+            accept(page);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the next entry, blocking until the next page has been delivered
+     * if needed.
+     *
+     * @return The next entry.
+     * @throws NoSuchElementException If there are no more entries.
+     */
+    @Override
+    public Map.Entry<String, V> next() throws NoSuchElementException {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return current.next();
+    }
+
+    /**
+     * Stops the iteration and cancels any pending page request.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        current = null;
+
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Makes the given page the current one and requests the next page if
+     * there is one.
+     *
+     * @param page The delivered page.
+     */
+    private void accept(final Dictionary<V> page) {
+        if (page == null || page.isEmpty()) {
+            current = null;
+            return;
+        }
+
+        // Offsets are counted from the pinned end from now on.
+        if (end == null) {
+            end = page.keySet().iterator().next();
+            offset = 0;
+        }
+
+        List<Map.Entry<String, V>> entries = new ArrayList<>(page.size());
+        for (Map.Entry<String, V> entry : page.entrySet())
+            if (!previous.contains(entry.getKey()))
+                entries.add(entry);
+
+        offset += page.size();
+        previous = page.keySet();
+        current = entries.iterator();
+
+        if (page.count != null && offset < page.count)
+            pending = launcher.launch(offset, end);
+    }
+
+    /**
+     * Waits for the given page request to finish.
+     *
+     * @param request The page request.
+     * @return The page.
+     * @throws RuntimeException If the page couldn't be delivered.
+     */
+    private static <V> Dictionary<V> await(final Request<Dictionary<V>> request) throws RuntimeException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            request.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ?
+                    (RuntimeException) cause :
+                    new IllegalStateException("Couldn't get the next page", cause);
+        }
+    }
+
+}
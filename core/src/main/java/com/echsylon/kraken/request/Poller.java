@@ -0,0 +1,494 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.Platform;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class polls an incremental endpoint, like "Trades" and "Spread", for
+ * new rows of one asset pair. The poller keeps track of the "since" cursor,
+ * as delivered by Kraken, and only delivers the rows that are new since the
+ * previous poll. Endpoints with an inclusive cursor, like "Spread", deliver
+ * the last rows of the previous poll again; those rows are recognized by their
+ * key and dropped. Endpoints with an exclusive cursor, like "Trades", are
+ * never deduplicated, as rows with identical values are still distinct rows.
+ * <p>
+ * The polling interval adapts to the activity: it's halved, down to the min
+ * interval, whenever a poll delivers new rows and it grows by half, up to the
+ * max interval, whenever it doesn't. The interval is also stretched when the
+ * call rate limit is more than half used. A failing poll delivers the error
+ * and waits for the max interval before polling again.
+ * <p>
+ * An optional cursor file keeps the cursors across restarts, so that the
+ * first poll after a restart only delivers the rows that are new since the
+ * last delivered poll before it. A cursor is only stored once the rows of its
+ * poll have reached the listener; rows are rather delivered twice than lost
+ * to a stop or a crash. A cursor file may be shared by several pollers.
+ *
+ * @param <V> The type of the rows.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Poller<V> {
+
+    /**
+     * This interface describes the means of polling.
+     *
+     * @param <V> The type of the rows.
+     */
+    interface Launcher<V> {
+
+        /**
+         * Enqueues the actual network request. Its callbacks are expected to
+         * be delivered directly on the worker thread.
+         *
+         * @param since The cursor of the previous poll. May be null.
+         * @return The enqueued request.
+         */
+        Request<Dictionary<V[]>> launch(String since);
+    }
+
+    /**
+     * This interface describes the means of identifying a row, for endpoints
+     * whose cursor is inclusive.
+     *
+     * @param <V> The type of the rows.
+     */
+    interface KeyOf<V> {
+
+        /**
+         * Returns a description of the given row that equal rows share.
+         *
+         * @param row The row.
+         * @return The row key.
+         */
+        String keyOf(V row);
+    }
+
+    private static final Object CURSOR_LOCK = new Object();
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kraken-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final String name;
+    private final int cost;
+    private final CallCounter callCounter;
+    private final Executor callbackExecutor;
+    private final Launcher<V> launcher;
+    private final KeyOf<V> keyOf;
+
+    private long minIntervalMillis;
+    private long maxIntervalMillis;
+    private long intervalMillis;
+    private File cursorFile;
+
+    private SuccessListener<List<V>> successListener;
+    private ErrorListener errorListener;
+    private Set<String> previous;
+    private String cursor;
+    private String delivered;
+    private boolean running;
+    private int generation;
+    private ScheduledFuture<?> timer;
+    private Request<Dictionary<V[]>> pending;
+
+
+    /**
+     * Creates a new poller.
+     *
+     * @param name             The name of the cursor in any cursor file.
+     * @param cursor           The initial cursor. May be null.
+     * @param cost             The call rate cost of a poll.
+     * @param callCounter      The request call counter. May be null.
+     * @param callbackExecutor The executor to call the listeners through. May be null.
+     * @param launcher         The means of polling.
+     * @param keyOf            The means of identifying a row. Null if the cursor is
+     *                         exclusive and no rows need to be deduplicated.
+     */
+    Poller(final String name,
+           final String cursor,
+           final int cost,
+           final CallCounter callCounter,
+           final Executor callbackExecutor,
+           final Launcher<V> launcher,
+           final KeyOf<V> keyOf) {
+
+        this.name = name;
+        this.cursor = cursor;
+        this.delivered = cursor;
+        this.cost = cost;
+        this.callCounter = callCounter;
+        this.callbackExecutor = callbackExecutor != null ?
+                callbackExecutor :
+                Platform.getDefaultCallbackExecutor();
+        this.launcher = launcher;
+        this.keyOf = keyOf;
+        this.previous = Collections.emptySet();
+        this.minIntervalMillis = 1000L;
+        this.maxIntervalMillis = 30000L;
+    }
+
+    /**
+     * Sets the bounds of the polling interval. Defaults to one and thirty
+     * seconds.
+     *
+     * @param minMillis The shortest interval, used while the pair is active.
+     * @param maxMillis The longest interval, used while the pair is idle.
+     * @return This poller object, allowing method chaining.
+     */
+    public synchronized Poller<V> useInterval(final long minMillis, final long maxMillis) {
+        if (minMillis > 0L && maxMillis >= minMillis) {
+            minIntervalMillis = minMillis;
+            maxIntervalMillis = maxMillis;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the file to keep the cursor in across restarts. A cursor found in
+     * the file takes precedence over any configured "since" id.
+     *
+     * @param file The cursor file. May be null.
+     * @return This poller object, allowing method chaining.
+     */
+    public synchronized Poller<V> useCursorFile(final File file) {
+        cursorFile = file;
+        return this;
+    }
+
+    /**
+     * Returns the cursor of the most recent poll. Note that the rows of the
+     * poll may not have been delivered yet.
+     *
+     * @return The cursor. May be null.
+     */
+    public synchronized String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Starts polling right away. New rows are delivered to the success
+     * listener, oldest first, and errors to the error listener, both through
+     * the callback executor.
+     *
+     * @param successListener The receiver of new rows.
+     * @param errorListener   The receiver of errors. May be null.
+     * @return This poller object, allowing method chaining.
+     * @throws IllegalStateException If the poller is already running.
+     */
+    public synchronized Poller<V> start(final SuccessListener<List<V>> successListener,
+                                        final ErrorListener errorListener) throws IllegalStateException {
+        if (running)
+            throw new IllegalStateException("The poller is already running");
+
+        // Rows of a previous start that never reached the listener are
+        // polled again.
+        String stored = readCursor();
+        String resumed = stored != null ? stored : delivered;
+        if (resumed == null ? cursor != null : !resumed.equals(cursor)) {
+            cursor = resumed;
+            delivered = resumed;
+            previous = Collections.emptySet();
+        }
+
+        this.successListener = successListener;
+        this.errorListener = errorListener;
+        this.intervalMillis = minIntervalMillis;
+        this.running = true;
+
+        // Any callbacks of a poll from a previous start are ignored.
+        int current = ++generation;
+        this.timer = TIMER.schedule(() -> poll(current), 0L, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Stops polling and cancels any poll in flight. No listeners are called
+     * after this.
+     */
+    public void stop() {
+        Request<Dictionary<V[]>> request;
+        synchronized (this) {
+            running = false;
+            request = pending;
+            pending = null;
+            if (timer != null)
+                timer.cancel(false);
+        }
+
+        if (request != null && !request.isDone())
+            request.cancel(false);
+    }
+
+    /**
+     * Enqueues the next poll.
+     *
+     * @param current The generation of the start the poll belongs to.
+     */
+    private void poll(final int current) {
+        String since;
+        synchronized (this) {
+            if (!isRunning(current))
+                return;
+
+            since = cursor;
+        }
+
+        Request<Dictionary<V[]>> request = launcher.launch(since);
+        boolean stale;
+        synchronized (this) {
+            stale = !isRunning(current);
+            if (!stale)
+                pending = request;
+        }
+
+        // The poller was stopped, and maybe restarted, while launching.
+        if (stale) {
+            if (!request.isDone())
+                request.cancel(false);
+            return;
+        }
+
+        request.withSuccessListener(result -> accept(current, result))
+                .withErrorListener(cause -> reject(current, cause));
+    }
+
+    /**
+     * Moves the cursor, delivers any new rows and schedules the next poll.
+     * The cursor is only stored once the rows have reached the listener.
+     *
+     * @param current The generation of the start the poll belongs to.
+     * @param result  The poll result.
+     */
+    private void accept(final int current, final Dictionary<V[]> result) {
+        V[] rows = null;
+        if (result != null)
+            for (V[] value : result.values())
+                if (value != null) {
+                    rows = value;
+                    break;
+                }
+
+        Set<String> seen;
+        synchronized (this) {
+            seen = previous;
+        }
+
+        List<V> fresh = new ArrayList<>();
+        Set<String> keys = keyOf != null ? new HashSet<>() : Collections.emptySet();
+        if (rows != null)
+            for (V row : rows) {
+                if (keyOf == null) {
+                    fresh.add(row);
+                    continue;
+                }
+
+                String key = keyOf.keyOf(row);
+                keys.add(key);
+                if (!seen.contains(key))
+                    fresh.add(row);
+            }
+
+        SuccessListener<List<V>> listener;
+        String next;
+        synchronized (this) {
+            if (!isRunning(current))
+                return;
+
+            pending = null;
+            previous = keys;
+            if (result != null && result.last != null)
+                cursor = result.last;
+
+            intervalMillis = fresh.isEmpty() ?
+                    Math.min(maxIntervalMillis, intervalMillis + intervalMillis / 2) :
+                    Math.max(minIntervalMillis, intervalMillis / 2);
+
+            listener = successListener;
+            next = cursor;
+            scheduleNext(current, intervalMillis);
+        }
+
+        if (fresh.isEmpty() || listener == null) {
+            onDelivered(next);
+            return;
+        }
+
+        callbackExecutor.execute(() -> {
+            if (isStillRunning(current)) {
+                listener.onSuccess(fresh);
+                onDelivered(next);
+            }
+        });
+    }
+
+    /**
+     * Records that all rows up to the given cursor have been delivered and
+     * stores the cursor.
+     *
+     * @param next The cursor of the delivered poll.
+     */
+    private void onDelivered(final String next) {
+        synchronized (this) {
+            delivered = next;
+        }
+
+        writeCursor();
+    }
+
+    /**
+     * Delivers the error and schedules the next poll.
+     *
+     * @param current The generation of the start the poll belongs to.
+     * @param cause   The error.
+     */
+    private void reject(final int current, final Throwable cause) {
+        ErrorListener listener;
+        synchronized (this) {
+            if (!isRunning(current))
+                return;
+
+            pending = null;
+            listener = errorListener;
+            scheduleNext(current, maxIntervalMillis);
+        }
+
+        if (listener != null)
+            callbackExecutor.execute(() -> {
+                if (isStillRunning(current))
+                    listener.onError(cause);
+            });
+    }
+
+    /**
+     * Tells whether this poller is still running the given generation.
+     *
+     * @param current The generation of the start to check.
+     * @return Boolean true if running, false otherwise.
+     */
+    private synchronized boolean isStillRunning(final int current) {
+        return isRunning(current);
+    }
+
+    /**
+     * Tells whether this poller is running the given generation. Must be
+     * called while holding the lock.
+     *
+     * @param current The generation of the start to check.
+     * @return Boolean true if running, false otherwise.
+     */
+    private boolean isRunning(final int current) {
+        return running && generation == current;
+    }
+
+    /**
+     * Schedules the next poll, stretching the given interval if the call
+     * rate limit is more than half used. Must be called while holding the
+     * lock.
+     *
+     * @param current The generation of the start the poll belongs to.
+     * @param millis  The interval in milliseconds.
+     */
+    private void scheduleNext(final int current, final long millis) {
+        long delay = millis;
+        if (callCounter != null) {
+            CallCounter.Status status = callCounter.getStatus();
+            double usage = status.effectiveMaxCount > 0D ?
+                    (status.callCount + cost) / status.effectiveMaxCount :
+                    1D;
+
+            if (usage > 0.5D)
+                delay = (long) (delay * (1D + (Math.min(usage, 1D) - 0.5D) * 4D));
+        }
+
+        timer = TIMER.schedule(() -> poll(current), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the cursor of this poller from the cursor file.
+     *
+     * @return The stored cursor, or null if there is none.
+     */
+    private String readCursor() {
+        if (cursorFile == null)
+            return null;
+
+        synchronized (CURSOR_LOCK) {
+            return load(cursorFile).getProperty(name);
+        }
+    }
+
+    /**
+     * Writes the cursor of the last delivered poll to the cursor file,
+     * keeping the cursors of any other pollers. Failing to do so only means that the
+     * next restart delivers rows already delivered.
+     */
+    private void writeCursor() {
+        File file;
+        String value;
+        synchronized (this) {
+            file = cursorFile;
+            value = delivered;
+        }
+
+        if (file == null || value == null)
+            return;
+
+        synchronized (CURSOR_LOCK) {
+            Properties properties = load(file);
+            if (value.equals(properties.getProperty(name)))
+                return;
+
+            properties.setProperty(name, value);
+            File temporary = new File(file.getPath() + ".tmp");
+            try (OutputStream output = new FileOutputStream(temporary)) {
+                properties.store(output, null);
+            } catch (IOException e) {
+                return;
+            }
+
+            if (!temporary.renameTo(file) && file.delete())
+                //noinspection ResultOfMethodCallIgnored
+                temporary.renameTo(file);
+        }
+    }
+
+    /**
+     * Loads the given cursor file.
+     *
+     * @param file The cursor file.
+     * @return The cursors. Empty if the file couldn't be read.
+     */
+    private static Properties load(final File file) {
+        Properties properties = new Properties();
+        if (file.isFile())
+            try (InputStream input = new FileInputStream(file)) {
+                properties.load(input);
+            } catch (IOException e) {
+                // Start over without cursors.
+            }
+
+        return properties;
+    }
+
+}
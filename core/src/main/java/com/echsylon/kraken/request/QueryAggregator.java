@@ -0,0 +1,274 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * This class resolves any number of ids through a query endpoint that only
+ * accepts a limited number of ids per call, like "QueryOrders", "QueryTrades"
+ * and "QueryLedgers". The ids are deduplicated and split into chunks of max
+ * size, which are enqueued in parallel and thereby executed as soon as the
+ * call rate limit allows. The chunk results are merged into one dictionary.
+ * <p>
+ * Resolved entries that will never change, like trades, ledger entries and
+ * closed orders, are cached and never requested again. Each cache holds the
+ * most recently resolved entries of one endpoint, API key and configuration.
+ * Only the most recently used caches are kept.
+ *
+ * @param <V> The type of the dictionary entries.
+ */
+final class QueryAggregator<V> {
+
+    /**
+     * This interface describes the means of enqueueing a chunk of ids.
+     *
+     * @param <V> The type of the dictionary entries.
+     */
+    interface Launcher<V> {
+
+        /**
+         * Enqueues the actual network request. Its callbacks are expected to
+         * be delivered directly on the worker thread.
+         *
+         * @param ids The comma separated ids of the chunk.
+         * @return The enqueued request.
+         */
+        Request<Dictionary<V>> launch(String ids);
+    }
+
+    /**
+     * This interface describes which resolved entries may be cached.
+     *
+     * @param <V> The type of the dictionary entries.
+     */
+    interface Filter<V> {
+
+        /**
+         * Tells whether the given entry will never change.
+         *
+         * @param value The resolved entry.
+         * @return Boolean true if the entry may be cached, false otherwise.
+         */
+        boolean isFinal(V value);
+    }
+
+    static final int MAX_IDS = 20;
+    private static final int MAX_CACHE_SIZE = 1000;
+    private static final int MAX_CACHE_COUNT = 16;
+    private static final LinkedHashMap<String, Map<String, Object>> CACHES =
+            new LinkedHashMap<String, Map<String, Object>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                    return size() > MAX_CACHE_COUNT;
+                }
+            };
+
+
+    /**
+     * Enqueues the requests resolving the given ids.
+     *
+     * @param cacheKey         The description of the endpoint and API key, excluding the ids.
+     * @param ids              The ids to resolve. May contain duplicates.
+     * @param filter           Tells which entries to cache.
+     * @param priority         The priority class of the aggregated request.
+     * @param callbackExecutor The executor to call the listeners through. May be null.
+     * @param launcher         The means of enqueueing a chunk.
+     * @param <V>              The type of the dictionary entries.
+     * @return The aggregated request.
+     */
+    static <V> Request<Dictionary<V>> enqueue(final String cacheKey,
+                                              final Collection<String> ids,
+                                              final Filter<V> filter,
+                                              final Priority priority,
+                                              final Executor callbackExecutor,
+                                              final Launcher<V> launcher) {
+
+        Request<Dictionary<V>> request = new Request<>(priority, callbackExecutor, null, () -> {
+            throw new IllegalStateException("An aggregated request is never executed on its own");
+        });
+
+        QueryAggregator<V> aggregator = new QueryAggregator<>(request, getCache(cacheKey), filter);
+        List<String> missing = aggregator.resolveCached(ids);
+        if (missing.isEmpty()) {
+            request.deliver(aggregator.result);
+            return request;
+        }
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0, size = missing.size(); i < size; i++) {
+            builder.append(builder.length() > 0 ? "," : "").append(missing.get(i));
+            if ((i + 1) % MAX_IDS == 0 || i + 1 == size) {
+                chunks.add(builder.toString());
+                builder.setLength(0);
+            }
+        }
+
+        aggregator.remaining = chunks.size();
+        request.setReleaseTask(aggregator::cancelChunks);
+        for (String chunk : chunks)
+            aggregator.add(launcher.launch(chunk));
+
+        return request;
+    }
+
+    /**
+     * Returns the cache of the given endpoint and API key, creating it if
+     * needed. The least recently used cache is dropped should there be too
+     * many of them.
+     *
+     * @param cacheKey The description of the endpoint and API key.
+     * @return The cache. Must be accessed while holding its lock.
+     */
+    private static Map<String, Object> getCache(final String cacheKey) {
+        synchronized (CACHES) {
+            Map<String, Object> cache = CACHES.get(cacheKey);
+            if (cache == null) {
+                cache = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                        return size() > MAX_CACHE_SIZE;
+                    }
+                };
+                CACHES.put(cacheKey, cache);
+            }
+
+            return cache;
+        }
+    }
+
+
+    private final Request<Dictionary<V>> request;
+    private final Map<String, Object> cache;
+    private final Filter<V> filter;
+    private final Dictionary<V> result;
+    private final List<Request<Dictionary<V>>> chunks;
+
+    private int remaining;
+    private boolean done;
+
+
+    private QueryAggregator(final Request<Dictionary<V>> request,
+                            final Map<String, Object> cache,
+                            final Filter<V> filter) {
+
+        this.request = request;
+        this.cache = cache;
+        this.filter = filter;
+        this.result = new Dictionary<>();
+        this.chunks = new ArrayList<>();
+    }
+
+    /**
+     * Adds any cached entries to the result.
+     *
+     * @param ids The ids to resolve.
+     * @return The distinct ids that aren't cached.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> resolveCached(final Collection<String> ids) {
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String id : new LinkedHashSet<>(ids)) {
+                V value = (V) cache.get(id);
+                if (value != null)
+                    result.put(id, value);
+                else
+                    missing.add(id);
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * Attaches to a chunk request.
+     *
+     * @param chunk The enqueued chunk request.
+     */
+    private void add(final Request<Dictionary<V>> chunk) {
+        boolean abandoned;
+        synchronized (this) {
+            chunks.add(chunk);
+            abandoned = done;
+        }
+
+        if (abandoned)
+            chunk.cancel(false);
+        else
+            chunk.withSuccessListener(this::succeed)
+                    .withErrorListener(this::fail);
+    }
+
+    /**
+     * Merges a chunk result and delivers the aggregated result once all
+     * chunks have succeeded.
+     *
+     * @param chunk The chunk result.
+     */
+    private void succeed(final Dictionary<V> chunk) {
+        if (chunk != null) {
+            synchronized (cache) {
+                for (Map.Entry<String, V> entry : chunk.entrySet())
+                    if (entry.getValue() != null && filter.isFinal(entry.getValue()))
+                        cache.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        synchronized (this) {
+            if (done)
+                return;
+
+            if (chunk != null)
+                result.putAll(chunk);
+
+            if (--remaining > 0)
+                return;
+
+            done = true;
+        }
+
+        request.deliver(result);
+    }
+
+    /**
+     * Fails the aggregated request and cancels any chunks still pending.
+     *
+     * @param cause The error.
+     */
+    private void fail(final Throwable cause) {
+        synchronized (this) {
+            if (done)
+                return;
+
+            done = true;
+        }
+
+        request.fail(cause);
+        cancelChunks();
+    }
+
+    /**
+     * Cancels all chunk requests. Finished chunks aren't affected.
+     */
+    private void cancelChunks() {
+        List<Request<Dictionary<V>>> pending;
+        synchronized (this) {
+            done = true;
+            pending = new ArrayList<>(chunks);
+        }
+
+        for (Request<Dictionary<V>> chunk : pending)
+            if (!chunk.isDone())
+                chunk.cancel(false);
+    }
+
+}
@@ -1,10 +1,16 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Ledger;
 import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.NetworkClient;
+import com.echsylon.kraken.internal.Platform;
 import com.google.gson.reflect.TypeToken;
 
+import java.util.Arrays;
+import java.util.HashMap;
+
 import static com.echsylon.kraken.internal.Utils.join;
 
 /**
@@ -30,7 +36,7 @@ public class QueryLedgersRequestBuilder extends RequestBuilder<Dictionary<Ledger
                                       final String key,
                                       final byte[] secret) {
 
-        super(2, callCounter, key, secret, baseUrl,
+        super(2, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/QueryLedgers",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -52,7 +58,8 @@ public class QueryLedgersRequestBuilder extends RequestBuilder<Dictionary<Ledger
     /**
      * Sets the ledger ids request property.
      *
-     * @param ledgerIds Id of ledgers to get. 20 max, at least one is required.
+     * @param ledgerIds Id of ledgers to get. At least one is required, any number is
+     *                  accepted.
      * @return This request builder instance allowing method call chaining.
      */
     public QueryLedgersRequestBuilder useLedgers(final String... ledgerIds) {
@@ -60,4 +67,34 @@ public class QueryLedgersRequestBuilder extends RequestBuilder<Dictionary<Ledger
         return this;
     }
 
+    /**
+     * Creates and enqueues the actual request. Any number of ids may be
+     * given; duplicates are removed, ledger entries that have already been resolved are resolved from
+     * memory and the rest are requested in parallel chunks of 20, each
+     * counting towards the call rate limit. The chunk results are merged
+     * into one dictionary. Should any chunk fail, then the request fails.
+     *
+     * @return A request object to attach any callback implementations to.
+     */
+    @Override
+    public Request<Dictionary<Ledger>> enqueue() {
+        String ids = data.get("id");
+        if (ids == null || ids.isEmpty())
+            return super.enqueue();
+
+        HashMap<String, String> parameters = new HashMap<>(data);
+        parameters.remove("id");
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        return QueryAggregator.enqueue(getAggregationKey(parameters),
+                Arrays.asList(ids.split(",")),
+                ledger -> true,
+                getPriority(), getCallbackExecutor(),
+                chunk -> {
+                    HashMap<String, String> chunked = new HashMap<>(parameters);
+                    chunked.put("id", chunk);
+                    return launch(chunked, cachePolicy, Platform.getDirectExecutor());
+                });
+    }
+
 }
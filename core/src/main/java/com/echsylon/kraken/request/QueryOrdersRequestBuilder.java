@@ -1,10 +1,16 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Order;
 import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.NetworkClient;
+import com.echsylon.kraken.internal.Platform;
 import com.google.gson.reflect.TypeToken;
 
+import java.util.Arrays;
+import java.util.HashMap;
+
 import static com.echsylon.kraken.internal.Utils.asString;
 import static com.echsylon.kraken.internal.Utils.join;
 
@@ -31,7 +37,7 @@ public class QueryOrdersRequestBuilder extends RequestBuilder<Dictionary<Order>,
                                      final String key,
                                      final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/QueryOrders",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -75,8 +81,8 @@ public class QueryOrdersRequestBuilder extends RequestBuilder<Dictionary<Order>,
     /**
      * Sets the transaction ids request property.
      *
-     * @param transactionIds Transaction ids of the orders to get. 20 max, at least one is
-     *                       required.
+     * @param transactionIds Transaction ids of the orders to get. At least one is
+     *                       required, any number is accepted.
      * @return This request builder instance allowing method call chaining.
      */
     public QueryOrdersRequestBuilder useTransactions(final String... transactionIds) {
@@ -84,4 +90,37 @@ public class QueryOrdersRequestBuilder extends RequestBuilder<Dictionary<Order>,
         return this;
     }
 
+    /**
+     * Creates and enqueues the actual request. Any number of ids may be
+     * given; duplicates are removed, closed orders that have already been
+     * resolved are resolved from memory and the rest are requested in
+     * parallel chunks of 20, each counting towards the call rate limit. The
+     * chunk results are merged into one dictionary. Should any chunk fail,
+     * then the request fails.
+     *
+     * @return A request object to attach any callback implementations to.
+     */
+    @Override
+    public Request<Dictionary<Order>> enqueue() {
+        String ids = data.get("txid");
+        if (ids == null || ids.isEmpty())
+            return super.enqueue();
+
+        HashMap<String, String> parameters = new HashMap<>(data);
+        parameters.remove("txid");
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        return QueryAggregator.enqueue(getAggregationKey(parameters),
+                Arrays.asList(ids.split(",")),
+                order -> "closed".equals(order.status) ||
+                        "canceled".equals(order.status) ||
+                        "expired".equals(order.status),
+                getPriority(), getCallbackExecutor(),
+                chunk -> {
+                    HashMap<String, String> chunked = new HashMap<>(parameters);
+                    chunked.put("txid", chunk);
+                    return launch(chunked, cachePolicy, Platform.getDirectExecutor());
+                });
+    }
+
 }
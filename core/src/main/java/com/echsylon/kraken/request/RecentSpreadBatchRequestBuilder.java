@@ -0,0 +1,63 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.SpreadBatch;
+import com.echsylon.kraken.internal.CallCounter;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * This class can build a request that retrieves information on recent spread
+ * data for a tradable asset pair. Unlike the {@link RecentSpreadRequestBuilder},
+ * the spread rows are delivered in columnar form, parsed straight into
+ * primitive arrays with exact scaled prices.
+ * <p>
+ * For further technical details see Kraken API documentation at:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public class RecentSpreadBatchRequestBuilder extends RequestBuilder<Dictionary<SpreadBatch>, RecentSpreadBatchRequestBuilder> {
+
+    /**
+     * Creates a new request builder.
+     *
+     * @param callCounter The request call counter. May be null.
+     * @param baseUrl     The base url of the request.
+     * @param key         The user API key.
+     * @param secret      The corresponding secret.
+     */
+    public RecentSpreadBatchRequestBuilder(final CallCounter callCounter,
+                                           final String baseUrl,
+                                           final String key,
+                                           final byte[] secret) {
+
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
+                "GET", "/0/public/Spread",
+                TypeToken.getParameterized(
+                        Dictionary.class,
+                        SpreadBatch.class).getType());
+    }
+
+    /**
+     * Sets the asset pair request property.
+     *
+     * @param pair The asset pair to get recent spread data for.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public RecentSpreadBatchRequestBuilder useAssetPair(final String pair) {
+        data.put("pair", pair);
+        return this;
+    }
+
+    /**
+     * Sets the since id request property.
+     *
+     * @param sinceId The spread id of the previous poll. Inclusive.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public RecentSpreadBatchRequestBuilder useSinceId(final String sinceId) {
+        data.put("since", sinceId);
+        return this;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Spread;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -28,7 +29,7 @@ public class RecentSpreadRequestBuilder extends RequestBuilder<Dictionary<Spread
                                       final String key,
                                       final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
                 "GET", "/0/public/Spread",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -57,4 +58,15 @@ public class RecentSpreadRequestBuilder extends RequestBuilder<Dictionary<Spread
         return this;
     }
 
+    /**
+     * Creates a poller delivering the new spread rows of the asset pair. The
+     * spread cursor is inclusive; rows repeated from the previous poll are
+     * dropped.
+     *
+     * @return The poller to configure and start.
+     */
+    public Poller<Spread> poll() {
+        return createPoller(spread -> spread.timestamp + " " + spread.bid + " " + spread.ask);
+    }
+
 }
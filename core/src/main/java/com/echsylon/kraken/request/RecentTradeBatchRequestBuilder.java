@@ -0,0 +1,64 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.TradeBatch;
+import com.echsylon.kraken.internal.CallCounter;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * This class can build a request that retrieves information on recent trades on
+ * the market. Unlike the {@link RecentTradesRequestBuilder}, the trades are
+ * delivered in columnar form, parsed straight into primitive arrays with exact
+ * scaled prices and volumes, which is considerably more compact when ingesting
+ * trades for many asset pairs.
+ * <p>
+ * For further technical details see Kraken API documentation at:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public class RecentTradeBatchRequestBuilder extends RequestBuilder<Dictionary<TradeBatch>, RecentTradeBatchRequestBuilder> {
+
+    /**
+     * Creates a new request builder.
+     *
+     * @param callCounter The request call counter. May be null.
+     * @param baseUrl     The base url of the request.
+     * @param key         The user API key.
+     * @param secret      The corresponding secret.
+     */
+    public RecentTradeBatchRequestBuilder(final CallCounter callCounter,
+                                          final String baseUrl,
+                                          final String key,
+                                          final byte[] secret) {
+
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
+                "GET", "/0/public/Trades",
+                TypeToken.getParameterized(
+                        Dictionary.class,
+                        TradeBatch.class).getType());
+    }
+
+    /**
+     * Sets the asset pair request property.
+     *
+     * @param pair The asset pair to get recent trades for.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public RecentTradeBatchRequestBuilder useAssetPair(final String pair) {
+        data.put("pair", pair);
+        return this;
+    }
+
+    /**
+     * Sets the since id request property.
+     *
+     * @param sinceId The trade id of the previous poll. Exclusive.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public RecentTradeBatchRequestBuilder useSinceId(final String sinceId) {
+        data.put("since", sinceId);
+        return this;
+    }
+
+}
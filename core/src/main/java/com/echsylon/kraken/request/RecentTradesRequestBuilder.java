@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Trade;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -28,7 +29,7 @@ public class RecentTradesRequestBuilder extends RequestBuilder<Dictionary<Trade[
                                       final String key,
                                       final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
                 "GET", "/0/public/Trades",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -57,4 +58,15 @@ public class RecentTradesRequestBuilder extends RequestBuilder<Dictionary<Trade[
         return this;
     }
 
+    /**
+     * Creates a poller delivering the new trades of the asset pair. The trade
+     * cursor is exclusive, so trades with the same values as a previous one are
+     * still delivered.
+     *
+     * @return The poller to configure and start.
+     */
+    public Poller<Trade> poll() {
+        return createPoller(null);
+    }
+
 }
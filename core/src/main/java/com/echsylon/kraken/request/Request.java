@@ -0,0 +1,361 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.CancellationToken;
+import com.echsylon.kraken.internal.Platform;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class is responsible for representing a request which is executed in the background. The
+ * caller can attach three types of listeners to this request which will be called once a result
+ * is produced:
+ *
+ * A {@link SuccessListener} will receive any successfully produced data. The caller is responsible
+ * for providing a correctly typed listener.
+ *
+ * A {@link ErrorListener} will receive any errors the request mechanism can't recover from. The
+ * error is delivered (not thrown) as {@code Throwable} callback argument.
+ *
+ * A {@link FinishListener} will act as an event channel which simply signals that the request has
+ * finished. No information is provided through this callback, not even the state of the response.
+ * This channel can be used to perform any state reset operations, like hiding progress bars, etc,
+ * which aren't dependant on the success or failure state of a request.
+ *
+ * A request can also be viewed as a {@link CompletionStage}, allowing it to be
+ * composed with other requests without blocking any threads while waiting.
+ *
+ * Cancelling a request cancels it in whatever stage it is. A request waiting
+ * for call rate budget is never charged, a request waiting for a worker thread
+ * gets its budget refunded and an in-flight HTTP call is aborted.
+ *
+ * Requests waiting for an available worker thread are executed in order of their {@link
+ * Priority}, and in the order they were submitted within the same priority.
+ *
+ * @param <T> The type of result object that is expected from the request. Any attached {@code
+ *            SuccessListeners} must have the same type of generic definition.
+ */
+public class Request<T> extends FutureTask<T> implements Comparable<Request<?>> {
+    private static final AtomicLong SEQUENCE = new AtomicLong(0L);
+    private static final ExecutorService DEFAULT_EXECUTOR = new ThreadPoolExecutor(5, 5,
+            0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>());
+    private static final Runnable RELEASED = () -> {
+    };
+
+    private final CallbackManager<T> callbackManager;
+    private final long sequence;
+    private final CancellationToken token;
+    private final AtomicBoolean started;
+    private final AtomicReference<Runnable> release;
+
+    private volatile CompletableFuture<T> completion;
+    private volatile Executor executor;
+    private volatile Priority priority;
+
+
+    /**
+     * Creates a new request. The request won't execute until it's submitted
+     * to the executor, which the request builder does once the call rate
+     * limit allows it.
+     *
+     * @param priority         The priority class of the request.
+     * @param callbackExecutor The executor to call any listeners through. Null means the
+     *                         platform default; the main thread on Android, otherwise the
+     *                         worker thread producing the result.
+     * @param token            The token linking cancellation to the job. May be null.
+     * @param callable         The job producing the result.
+     * @throws NullPointerException If the priority or callable is null.
+     */
+    Request(Priority priority,
+            Executor callbackExecutor,
+            CancellationToken token,
+            Callable<T> callable) throws NullPointerException {
+
+        super(callable);
+        if (priority == null)
+            throw new NullPointerException("The priority must not be null");
+
+        this.callbackManager = new CallbackManager<>(callbackExecutor != null ?
+                callbackExecutor :
+                Platform.getDefaultCallbackExecutor());
+        this.priority = priority;
+        this.sequence = SEQUENCE.getAndIncrement();
+        this.token = token != null ? token : new CancellationToken();
+        this.started = new AtomicBoolean(false);
+        this.release = new AtomicReference<>();
+    }
+
+    /**
+     * Orders requests by priority class first and submission order second.
+     * Used internally by the executor queue.
+     */
+    @Override
+    public int compareTo(Request<?> other) {
+        int result = priority.compareTo(other.priority);
+        return result != 0 ?
+                result :
+                sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+    }
+
+    /**
+     * Hands this request over to the given executor, or to the default, five
+     * thread, executor if none is given. Should the executor reject the
+     * request, then the rejection is delivered as an error.
+     *
+     * @param executor The executor to run the request on. May be null.
+     */
+    void submit(Executor executor) {
+        Executor target = executor != null ? executor : DEFAULT_EXECUTOR;
+        this.executor = target;
+
+        try {
+            target.execute(this);
+        } catch (RejectedExecutionException e) {
+            setException(e);
+        }
+    }
+
+    /**
+     * Returns the priority class of this request.
+     *
+     * @return The priority class.
+     */
+    Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Raises the priority class of this request, should it still be waiting
+     * for call rate budget or a worker thread. The request then keeps its
+     * place in the submission order within the new priority class. Nothing
+     * happens if the given priority class isn't higher than the current one.
+     *
+     * @param higher The new priority class.
+     */
+    synchronized void raisePriority(Priority higher) {
+        if (higher.compareTo(priority) >= 0 || started.get())
+            return;
+
+        // The executor queue must not hold the request while its order
+        // changes.
+        Executor target = executor;
+        BlockingQueue<Runnable> queue = target instanceof ThreadPoolExecutor ?
+                ((ThreadPoolExecutor) target).getQueue() :
+                null;
+
+        boolean queued = queue != null && queue.remove(this);
+        priority = higher;
+
+        // Still waiting for call rate budget.
+        Runnable task = release.get();
+        if (task instanceof CallCounter.Reservation)
+            ((CallCounter.Reservation) task).raise(higher);
+
+        if (queued && !queue.offer(this))
+            setException(new RejectedExecutionException("Couldn't requeue the request"));
+    }
+
+    /**
+     * Sets the task releasing the call rate budget of this request, should it
+     * be cancelled before it starts executing. The task runs right away if
+     * that has already happened.
+     *
+     * @param task The release task.
+     */
+    void setReleaseTask(Runnable task) {
+        if (!release.compareAndSet(null, task))
+            task.run();
+    }
+
+    /**
+     * Completes this request with the given result, without executing it.
+     * Used for requests that share the result of another request.
+     *
+     * @param result The result.
+     */
+    void deliver(T result) {
+        set(result);
+    }
+
+    /**
+     * Completes this request with the given error, without executing it.
+     * Used for requests that share the outcome of another request.
+     *
+     * @param cause The error.
+     */
+    void fail(Throwable cause) {
+        setException(cause);
+    }
+
+    /**
+     * Used internally by the java concurrency framework. Don't call this method
+     * on your own.
+     */
+    @Override
+    public void run() {
+        if (started.compareAndSet(false, true))
+            super.run();
+    }
+
+    /**
+     * Removes all previously added listeners and cancels the task. Note that
+     * no callbacks are expected to be called if this request is cancelled.
+     * <p>
+     * A request that hasn't started executing yet releases its call rate
+     * budget and leaves the executor queue. An executing request aborts its
+     * HTTP call.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean notStarted = started.compareAndSet(false, true);
+        callbackManager.terminate();
+
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            token.cancel();
+
+            if (notStarted) {
+                Runnable task = release.getAndSet(RELEASED);
+                if (task != null)
+                    task.run();
+
+                Executor target = executor;
+                if (target instanceof ThreadPoolExecutor)
+                    ((ThreadPoolExecutor) target).remove(this);
+            }
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Used internally by the java concurrency framework. Don't call this method
+     * on your own.
+     */
+    @Override
+    protected void done() {
+        super.done();
+
+        CompletableFuture<T> future = completion;
+        if (future != null)
+            complete(future);
+
+        try {
+            callbackManager.deliverSuccess(get());
+        } catch (InterruptedException | ExecutionException e) {
+            callbackManager.deliverError(e.getCause());
+        } catch (CancellationException e) {
+            // Cancelled requests don't deliver anything.
+        }
+    }
+
+    /**
+     * Returns a completion stage view of this request. The stage completes
+     * on the worker thread that produced the result, as soon as the request
+     * is done, and any dependent stages that aren't explicitly asynchronous
+     * run on that thread too. Cancelling the stage cancels this request.
+     * <p>
+     * NOTE! On Android this requires API level 24 or later.
+     *
+     * @return The completion stage of this request. The same stage is
+     * returned for all calls.
+     */
+    public CompletionStage<T> asCompletionStage() {
+        CompletableFuture<T> future = completion;
+        if (future != null)
+            return future;
+
+        synchronized (this) {
+            future = completion;
+            if (future == null) {
+                future = new CompletableFuture<>();
+                future.whenComplete((result, cause) -> {
+                    if (cause instanceof CancellationException)
+                        cancel(false);
+                });
+                completion = future;
+            }
+        }
+
+        // The request may have finished before the stage was created.
+        if (isDone())
+            complete(future);
+
+        return future;
+    }
+
+    /**
+     * Completes the given future with the outcome of this request.
+     *
+     * @param future The future to complete.
+     */
+    private void complete(CompletableFuture<T> future) {
+        try {
+            future.complete(get());
+        } catch (ExecutionException e) {
+            future.completeExceptionally(e.getCause());
+        } catch (CancellationException e) {
+            future.cancel(false);
+        } catch (InterruptedException e) {
+            // Can't happen, the request is done.
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Attaches a success listener to this request. Note that the listener will
+     * only be called once and if the request produces an error, the listener
+     * won't be called at all.
+     *
+     * @param listener The success listener.
+     * @return This request object, allowing chaining of requests.
+     */
+    public Request<T> withSuccessListener(SuccessListener<T> listener) {
+        callbackManager.addSuccessListener(listener);
+        return this;
+    }
+
+    /**
+     * Attaches an error listener to this request. Note that the listener will
+     * only be called once and if the request doesn't produce an error, the
+     * listener won't be called at all.
+     *
+     * @param listener The error listener.
+     * @return This request object, allowing chaining of requests.
+     */
+    public Request<T> withErrorListener(ErrorListener listener) {
+        callbackManager.addErrorListener(listener);
+        return this;
+    }
+
+    /**
+     * Attaches a finished state listener to this request. Note that the
+     * listener will be called exactly once regardless if the produced result is
+     * a success or a failure.
+     *
+     * @param listener The finish state listener.
+     * @return This request object, allowing chaining of requests.
+     */
+    public Request<T> withFinishListener(FinishListener listener) {
+        callbackManager.addFinishListener(listener);
+        return this;
+    }
+
+}
@@ -0,0 +1,349 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class collects requests for dictionary entries, like tickers for
+ * single asset pairs, that are enqueued within a short time window and sends
+ * them as one network request. Each caller gets a request of its own, which
+ * delivers only the entries the caller asked for.
+ * <p>
+ * A batch is sent when its window closes or when it holds the max number of
+ * ids, whichever happens first. Should the network request fail, then all
+ * requests in the batch fail with the same error. Cancelling a request only
+ * removes it from its batch; the network request is only cancelled if all
+ * requests in the batch are cancelled.
+ * <p>
+ * Kraken responds with its own names of the ids, which may not be the names
+ * a caller asked for, like "XBTEUR" for "XXBTZEUR". A request whose ids are
+ * missing from the batch result is therefore sent again, on its own, rather
+ * than failed. Whether a request succeeds thereby never depends on which
+ * other requests happen to share its batch.
+ *
+ * @param <V> The type of the dictionary entries.
+ */
+final class RequestBatcher<V> {
+
+    /**
+     * This interface describes the means of sending a batch.
+     *
+     * @param <V> The type of the dictionary entries.
+     */
+    interface Launcher<V> {
+
+        /**
+         * Enqueues the actual network request. Its callbacks are expected to
+         * be delivered directly on the worker thread.
+         *
+         * @param ids The comma separated ids of the batch.
+         * @return The enqueued request.
+         */
+        Request<Dictionary<V>> launch(String ids);
+    }
+
+    /**
+     * This class describes a caller's request in a batch.
+     *
+     * @param <V> The type of the dictionary entries.
+     */
+    private static final class Member<V> {
+        private final Request<Dictionary<V>> request;
+        private final Collection<String> ids;
+
+        private Request<Dictionary<V>> fallback;
+
+        private Member(final Request<Dictionary<V>> request, final Collection<String> ids) {
+            this.request = request;
+            this.ids = new LinkedHashSet<>(ids);
+        }
+    }
+
+    private static final Object LOCK = new Object();
+    private static final HashMap<String, RequestBatcher<?>> OPEN = new HashMap<>();
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kraken-request-batcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+
+    /**
+     * Adds a request for the given ids to the currently open batch with the
+     * given key, opening a new batch if needed.
+     *
+     * @param key              The description of the request, excluding the ids.
+     * @param ids              The ids the caller asks for.
+     * @param priority         The priority class of the caller's request.
+     * @param callbackExecutor The executor to call the caller's listeners through. May be null.
+     * @param windowMillis     The number of milliseconds to collect requests for.
+     * @param maxIds           The max number of distinct ids in one batch.
+     * @param launcher         The means of sending the batch.
+     * @param <V>              The type of the dictionary entries.
+     * @return The caller's own request.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> Request<Dictionary<V>> join(final String key,
+                                           final Collection<String> ids,
+                                           final Priority priority,
+                                           final Executor callbackExecutor,
+                                           final long windowMillis,
+                                           final int maxIds,
+                                           final Launcher<V> launcher) {
+
+        Request<Dictionary<V>> request = new Request<>(priority, callbackExecutor, null, () -> {
+            throw new IllegalStateException("A batched request is never executed on its own");
+        });
+
+        Member<V> member = new Member<>(request, ids);
+        RequestBatcher<V> batch;
+        RequestBatcher<V> full = null;
+        boolean filled;
+
+        synchronized (LOCK) {
+            batch = (RequestBatcher<V>) OPEN.get(key);
+            if (batch != null && batch.countWith(ids) > maxIds) {
+                full = batch;
+                OPEN.remove(key);
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new RequestBatcher<>(key, launcher);
+                OPEN.put(key, batch);
+                RequestBatcher<V> scheduled = batch;
+                batch.timer = TIMER.schedule(scheduled::send, windowMillis, TimeUnit.MILLISECONDS);
+            }
+
+            batch.members.add(member);
+            batch.ids.addAll(ids);
+            filled = batch.ids.size() >= maxIds;
+        }
+
+        RequestBatcher<V> owner = batch;
+        request.setReleaseTask(() -> owner.detach(member));
+
+        if (full != null)
+            full.send();
+
+        if (filled)
+            batch.send();
+
+        return request;
+    }
+
+
+    private final String key;
+    private final Launcher<V> launcher;
+    private final List<Member<V>> members;
+    private final LinkedHashSet<String> ids;
+
+    private ScheduledFuture<?> timer;
+    private Request<Dictionary<V>> origin;
+    private boolean sent;
+    private boolean done;
+
+
+    private RequestBatcher(final String key, final Launcher<V> launcher) {
+        this.key = key;
+        this.launcher = launcher;
+        this.members = new ArrayList<>();
+        this.ids = new LinkedHashSet<>();
+    }
+
+    /**
+     * Returns the number of distinct ids in this batch if the given ids were
+     * added to it. Must be called while holding the lock.
+     *
+     * @param candidates The ids to add.
+     * @return The number of distinct ids.
+     */
+    private int countWith(final Collection<String> candidates) {
+        int count = ids.size();
+        for (String id : candidates)
+            if (!ids.contains(id))
+                count++;
+
+        return count;
+    }
+
+    /**
+     * Sends this batch, unless it's already sent or all its requests are
+     * cancelled.
+     */
+    private void send() {
+        String joined;
+        synchronized (LOCK) {
+            if (sent || done)
+                return;
+
+            sent = true;
+            OPEN.remove(key, this);
+            if (timer != null)
+                timer.cancel(false);
+
+            // Only ask for what the remaining requests still need.
+            LinkedHashSet<String> needed = new LinkedHashSet<>();
+            for (Member<V> member : members)
+                needed.addAll(member.ids);
+
+            if (needed.isEmpty()) {
+                done = true;
+                return;
+            }
+
+            joined = join(needed);
+        }
+
+        Request<Dictionary<V>> request = launcher.launch(joined);
+
+        boolean abandoned;
+        synchronized (LOCK) {
+            origin = request;
+            abandoned = done;
+        }
+
+        if (abandoned)
+            request.cancel(false);
+        else
+            request.withSuccessListener(this::succeed)
+                    .withErrorListener(this::fail);
+    }
+
+    /**
+     * Removes the given request from this batch. The network request is
+     * cancelled if no requests remain in a sent batch. Should the request
+     * already have been sent again on its own, then that network request is
+     * cancelled instead.
+     *
+     * @param member The request to remove.
+     */
+    private void detach(final Member<V> member) {
+        Request<Dictionary<V>> abandoned = null;
+        synchronized (LOCK) {
+            if (!members.remove(member)) {
+                // The request may have been sent again on its own.
+                abandoned = member.fallback;
+                member.fallback = null;
+            } else if (!members.isEmpty() || done) {
+                return;
+            } else {
+                done = true;
+                if (!sent) {
+                    OPEN.remove(key, this);
+                    if (timer != null)
+                        timer.cancel(false);
+                } else {
+                    abandoned = origin;
+                }
+            }
+        }
+
+        if (abandoned != null)
+            abandoned.cancel(false);
+    }
+
+    /**
+     * Delivers each request its own part of the batch result. A request is
+     * sent again, on its own, if the result lacks any of the ids it asked for,
+     * unless the batch only asked for one distinct id, in which case the
+     * result is delivered as is (Kraken may respond with a different name for
+     * it).
+     *
+     * @param result The batch result.
+     */
+    private void succeed(final Dictionary<V> result) {
+        List<Member<V>> attached = finish();
+        boolean single = ids.size() == 1;
+
+        for (Member<V> member : attached) {
+            if (single) {
+                member.request.deliver(result);
+                continue;
+            }
+
+            Dictionary<V> own = new Dictionary<>();
+            for (String id : member.ids) {
+                V value = result != null ? result.get(id) : null;
+                if (value != null)
+                    own.put(id, value);
+            }
+
+            if (own.size() == member.ids.size())
+                member.request.deliver(own);
+            else
+                fallBack(member);
+        }
+    }
+
+    /**
+     * Sends the given request again, on its own, and delivers its result as
+     * is.
+     *
+     * @param member The request to send again.
+     */
+    private void fallBack(final Member<V> member) {
+        Request<Dictionary<V>> request = launcher.launch(join(member.ids));
+
+        synchronized (LOCK) {
+            member.fallback = request;
+        }
+
+        if (member.request.isCancelled())
+            request.cancel(false);
+        else
+            request.withSuccessListener(member.request::deliver)
+                    .withErrorListener(member.request::fail);
+    }
+
+    /**
+     * Delivers the error to all requests in this batch.
+     *
+     * @param cause The error.
+     */
+    private void fail(final Throwable cause) {
+        for (Member<V> member : finish())
+            member.request.fail(cause);
+    }
+
+    /**
+     * Marks this batch as done.
+     *
+     * @return The requests in this batch.
+     */
+    private List<Member<V>> finish() {
+        synchronized (LOCK) {
+            done = true;
+            List<Member<V>> attached = new ArrayList<>(members);
+            members.clear();
+            return attached;
+        }
+    }
+
+    /**
+     * Joins the given ids into a comma separated string.
+     *
+     * @param ids The ids to join.
+     * @return The joined ids.
+     */
+    private static String join(final Collection<String> ids) {
+        StringBuilder builder = new StringBuilder();
+        for (String id : ids)
+            builder.append(builder.length() > 0 ? "," : "").append(id);
+
+        return builder.toString();
+    }
+
+}
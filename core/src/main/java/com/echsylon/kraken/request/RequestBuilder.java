@@ -0,0 +1,487 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.CancellationToken;
+import com.echsylon.kraken.internal.JsonParser;
+import com.echsylon.kraken.internal.KrakenTypeAdapterFactory;
+import com.echsylon.kraken.internal.NetworkClient;
+import com.echsylon.kraken.internal.Platform;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+
+import static com.echsylon.kraken.internal.Utils.asBytes;
+import static com.echsylon.kraken.internal.Utils.composeMessage;
+import static com.echsylon.kraken.internal.Utils.generateNonce;
+import static com.echsylon.kraken.internal.Utils.generateSignatureHeaders;
+import static com.echsylon.kraken.internal.Utils.isPrivateRequest;
+
+/**
+ * This class knows how to prepare a request for client side caching. The super
+ * API offers means of configuring client side soft and hard caching.
+ * <p>
+ * A soft cache means that the cache metrics provided by the caller will only be
+ * applied if the server itself didn't provide any cache metrics.
+ * <p>
+ * Similarly a hard cache means that the caller provided cache metrics will
+ * override any cache metrics provided by the server.
+ * <p>
+ * NOTE! Implementing classes MUST use the {@code okHttpNetworkClient}, provided
+ * by the super class as a protected field, when implementing {@code enqueue()}
+ * in order to make use of any cache configuration made by the caller.
+ */
+abstract class RequestBuilder<RESPONSE_TYPE, CONCRETE_IMPLEMENTATION extends RequestBuilder> {
+    protected final HashMap<String, String> data;
+
+    private final String method;
+    private final String baseUrl;
+    private final String path;
+
+    private final int cost;
+    private final String key;
+    private final byte[] secret;
+    private final Type typeOfResult;
+    private final CallCounter callCounter;
+
+    private Priority priority;
+    private Executor executor;
+    private Executor callbackExecutor;
+    private boolean coalescing;
+    private Set<String> projection;
+    private int priceScale;
+    private int volumeScale;
+    private int maxStaleDuration;
+    private int forcedCacheDuration;
+    private int maybeForcedCacheDuration;
+
+
+    protected RequestBuilder(final int cost,
+                             final Priority priority,
+                             final CallCounter callCounter,
+                             final String key,
+                             final byte[] secret,
+                             final String baseUrl,
+                             final String method,
+                             final String path,
+                             final Type typeOfResult) {
+
+        this.maxStaleDuration = 0;
+        this.forcedCacheDuration = 0;
+        this.maybeForcedCacheDuration = 0;
+        this.coalescing = true;
+        this.projection = null;
+        this.priceScale = -1;
+        this.volumeScale = -1;
+
+        this.cost = cost;
+        this.priority = priority;
+        this.callCounter = callCounter;
+        this.key = key;
+        this.secret = secret;
+        this.baseUrl = baseUrl;
+        this.method = method;
+        this.path = path;
+        this.typeOfResult = typeOfResult;
+        this.data = new HashMap<>();
+    }
+
+    /**
+     * Sets a forced cache age for a success response to this request. This
+     * cache age will override any cache metrics provided by the server.
+     *
+     * @param seconds The max age in seconds.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION hardCache(int seconds) {
+        forcedCacheDuration = seconds;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Sets an optional cache age for a success response to this request.
+     * This cache age will only be honored if the server doesn't provide any
+     * cache metrics.
+     *
+     * @param seconds The max age in seconds.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION softCache(int seconds) {
+        maybeForcedCacheDuration = seconds;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Sets a max age of expired cache entries during which they will still
+     * be accepted.
+     *
+     * @param seconds The max age in seconds.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION maxStale(int seconds) {
+        maxStaleDuration = seconds;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Overrides the default priority class of this request. The priority
+     * decides in which order enqueued requests are granted call rate budget
+     * and executed.
+     *
+     * @param priority The new priority class.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION usePriority(Priority priority) {
+        if (priority != null)
+            this.priority = priority;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Sets the executor to run this request on. Requests without an executor
+     * run on a shared, five thread, default executor.
+     *
+     * @param executor The executor. May be null.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION useExecutor(Executor executor) {
+        this.executor = executor;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Sets the executor to call any listeners of this request through. This
+     * can be a direct executor, calling the listeners on the worker thread
+     * that produced the result, or any other executor. Requests without a
+     * callback executor deliver on the main thread on Android and directly on
+     * the worker thread elsewhere.
+     *
+     * @param callbackExecutor The callback executor. May be null.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION useCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Enables or disables coalescing of this request. A coalesced public
+     * "GET" request shares one network call, and one result, with any
+     * identical request that is already in flight. Coalescing is enabled by
+     * default. It's never applied to private requests.
+     * <p>
+     * NOTE! Coalesced requests deliver the very same result object. Disable
+     * coalescing for requests whose result is modified by the caller.
+     *
+     * @param enabled Whether to coalesce this request.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION useCoalescing(boolean enabled) {
+        this.coalescing = enabled;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Limits the parsing of the result to the given JSON attributes of the
+     * domain objects, e.g. "pair", "price", "vol" and "time". All other
+     * attributes are skipped without being materialized and their fields are
+     * left at their default values. This saves both parse time and memory when
+     * pulling large amounts of history. Nested objects, like the order
+     * description, are only read if their own attribute is projected, and then
+     * only the projected attributes of them. The projection doesn't apply to
+     * the hand written tuple domain objects, like trades and OHLC data, nor to
+     * the entry keys of any dictionary. Calling this method without any
+     * attributes reads all of them again.
+     *
+     * @param attributes The JSON attribute names to read.
+     * @return This builder object, allowing method chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public CONCRETE_IMPLEMENTATION useProjection(String... attributes) {
+        this.projection = attributes != null && attributes.length > 0 ?
+                Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(attributes))) :
+                null;
+        return (CONCRETE_IMPLEMENTATION) this;
+    }
+
+    /**
+     * Sets the number of decimals to round any decimal prices and volumes of
+     * the result to, as they're parsed.
+     *
+     * @param priceScale  The number of decimals of prices, or -1 to keep all.
+     * @param volumeScale The number of decimals of volumes, or -1 to keep all.
+     */
+    void setDecimalScales(int priceScale, int volumeScale) {
+        this.priceScale = priceScale;
+        this.volumeScale = volumeScale;
+    }
+
+    /**
+     * Creates and enqueues the actual request. Identical public requests that
+     * are in flight at the same time are coalesced into one network request,
+     * unless coalescing has been disabled. All callers of a coalesced request
+     * then receive the same, shared, result object, which they must not
+     * modify. The network request runs at the highest priority class of its
+     * callers.
+     *
+     * @return A request object to attach any callback implementations to.
+     */
+    public Request<RESPONSE_TYPE> enqueue() {
+        HashMap<String, String> parameters = new HashMap<>(data);
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        if (!coalescing || !"GET".equals(method) || isPrivateRequest(path))
+            return launch(parameters, cachePolicy, callbackExecutor);
+
+        // The flight delivers the shared result straight on the worker
+        // thread, each caller's request then delivers it through its own
+        // callback executor.
+        return SingleFlight.join(getCoalescingKey(parameters, cachePolicy), priority, callbackExecutor,
+                () -> launch(parameters, cachePolicy, Platform.getDirectExecutor()));
+    }
+
+
+    /**
+     * Returns the priority class of this request.
+     *
+     * @return The priority class.
+     */
+    Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the executor to call any listeners of this request through.
+     *
+     * @return The callback executor. May be null.
+     */
+    Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * Returns the client side cache policy of this request.
+     *
+     * @return The cache policy.
+     */
+    NetworkClient.CachePolicy getCachePolicy() {
+        return maxStaleDuration > 0 || forcedCacheDuration > 0 || maybeForcedCacheDuration > 0 ?
+                new NetworkClient.CachePolicy(
+                        maxStaleDuration,
+                        forcedCacheDuration,
+                        maybeForcedCacheDuration) :
+                NetworkClient.CachePolicy.NONE;
+    }
+
+    /**
+     * Returns a canonical description of this request, with the parameters in
+     * sorted order, which identical requests share. Requests for the same data
+     * parsed into different result types, or with different projections or
+     * scales, don't share a description.
+     *
+     * @param parameters  The request parameters.
+     * @param cachePolicy The client side cache policy.
+     * @return The coalescing key.
+     */
+    String getCoalescingKey(final HashMap<String, String> parameters,
+                            final NetworkClient.CachePolicy cachePolicy) {
+
+        StringBuilder builder = new StringBuilder()
+                .append(method).append(' ')
+                .append(baseUrl).append(path)
+                .append('#').append(typeOfResult)
+                .append('#').append(projection)
+                .append('#').append(priceScale)
+                .append('#').append(volumeScale)
+                .append('#').append(cachePolicy.maxStaleDuration)
+                .append('#').append(cachePolicy.forcedCacheDuration)
+                .append('#').append(cachePolicy.maybeForcedCacheDuration);
+
+        for (Map.Entry<String, String> entry : new TreeMap<>(parameters).entrySet())
+            if (entry.getKey() != null && entry.getValue() != null)
+                builder.append('&').append(entry.getKey()).append('=').append(entry.getValue());
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns a description of this request, including the API key but
+     * excluding any one time password, which requests for the same data on
+     * behalf of the same account share.
+     *
+     * @param parameters The request parameters.
+     * @return The aggregation key.
+     */
+    String getAggregationKey(final HashMap<String, String> parameters) {
+        HashMap<String, String> shared = new HashMap<>(parameters);
+        shared.remove("otp");
+        return key + ' ' + getCoalescingKey(shared, NetworkClient.CachePolicy.NONE);
+    }
+
+    /**
+     * Creates an iterator over all entries of this offset paged request. The
+     * pages are requested as the caller consumes the entries.
+     *
+     * @param <V> The type of the entries. Must match the response type.
+     * @return The iterator.
+     */
+    @SuppressWarnings("unchecked")
+    <V> PagedIterator<V> paginate() {
+        HashMap<String, String> parameters = new HashMap<>(data);
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+        String offset = parameters.get("ofs");
+
+        // The iterator blocks on each page, there are no listeners to call.
+        return new PagedIterator<>(offset != null ? Integer.parseInt(offset) : 0, parameters.get("end"),
+                (pageOffset, end) -> {
+                    HashMap<String, String> page = new HashMap<>(parameters);
+                    page.put("ofs", Integer.toString(pageOffset));
+                    if (end != null)
+                        page.put("end", end);
+                    return (Request<Dictionary<V>>) launch(page, cachePolicy, Platform.getDirectExecutor());
+                });
+    }
+
+    /**
+     * Creates a backfill of all entries of this time ranged and offset paged
+     * request within the given time range.
+     *
+     * @param start  The exclusive start time, in seconds.
+     * @param end    The inclusive end time, in seconds.
+     * @param timeOf The means of reading the time of an entry.
+     * @param <V>    The type of the entries. Must match the response type.
+     * @return The backfill.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Backfill<V> createBackfill(final long start, final long end, final Backfill.TimeOf<V> timeOf) {
+        HashMap<String, String> parameters = new HashMap<>(data);
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        return new Backfill<>(start, end,
+                (offset, windowStart, windowEnd) -> {
+                    HashMap<String, String> page = new HashMap<>(parameters);
+                    page.put("ofs", Integer.toString(offset));
+                    page.put("start", Long.toString(windowStart));
+                    page.put("end", Long.toString(windowEnd));
+                    return (Request<Dictionary<V>>) launch(page, cachePolicy, Platform.getDirectExecutor());
+                },
+                timeOf);
+    }
+
+    /**
+     * Creates a poller for the new rows of this incremental request. Any
+     * configured "since" id is the initial cursor.
+     *
+     * @param keyOf The means of identifying a row. Null if the "since" cursor
+     *              is exclusive and no rows need to be deduplicated.
+     * @param <V>   The type of the rows. Must match the response type.
+     * @return The poller.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Poller<V> createPoller(final Poller.KeyOf<V> keyOf) {
+        HashMap<String, String> parameters = new HashMap<>(data);
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        return new Poller<>(path + ' ' + parameters.get("pair"), parameters.get("since"),
+                cost, callCounter, callbackExecutor,
+                since -> {
+                    HashMap<String, String> poll = new HashMap<>(parameters);
+                    if (since != null)
+                        poll.put("since", since);
+                    else
+                        poll.remove("since");
+                    return (Request<Dictionary<V[]>>) launch(poll, cachePolicy, Platform.getDirectExecutor());
+                },
+                keyOf);
+    }
+
+    /**
+     * Creates and enqueues the actual network request.
+     *
+     * @param parameters       The request parameters.
+     * @param cachePolicy      The client side cache policy.
+     * @param callbackExecutor The executor to call any listeners through. May be null.
+     * @return The enqueued request.
+     */
+    Request<RESPONSE_TYPE> launch(final HashMap<String, String> parameters,
+                                  final NetworkClient.CachePolicy cachePolicy,
+                                  final Executor callbackExecutor) {
+        CancellationToken token = new CancellationToken();
+        KrakenTypeAdapterFactory factory = projection != null || priceScale >= 0 || volumeScale >= 0 ?
+                new KrakenTypeAdapterFactory(projection, priceScale, volumeScale) :
+                null;
+        Request<RESPONSE_TYPE> request = new Request<>(priority, callbackExecutor, token, () -> {
+            // Perform coarse API key+secret validation
+            if (isPrivateRequest(path) && (key == null || secret == null))
+                throw new IllegalStateException(
+                        "An API key and secret is required for this request");
+
+            // Everything's peachy: prepare the Kraken request decoration
+            String nonce = generateNonce(path);
+            String message = composeMessage(nonce, parameters);
+            List<NetworkClient.Header> headers = generateSignatureHeaders(key, secret, path, nonce, message);
+
+            // Prepare the HTTP metrics depending on "GET" or "POST" method.
+            boolean isGetMethod = "GET".equals(method);
+            byte[] payload = isGetMethod ? null : asBytes(message);
+            String mime = isGetMethod ? null : "application/x-www-form-urlencoded";
+            String uri = isGetMethod && message != null ?
+                    String.format("%s%s?%s", baseUrl, path, message) :
+                    String.format("%s%s", baseUrl, path);
+
+            // Perform the actual network request and stream the response
+            // body straight into the parser. Any Kraken error will throw an
+            // exception (to trigger error callbacks), otherwise the result is
+            // delivered. The call counter learns from the outcome. All
+            // requests, public ones too, are charged to the call counter, but
+            // only private successes raise the max count. Being "POST"
+            // requests they are never served from the HTTP cache, while a
+            // public response may be and then never reached the server.
+            long sentAt = System.currentTimeMillis();
+            try {
+                RESPONSE_TYPE result = NetworkClient.getInstance()
+                        .execute(uri, method, headers, payload, mime, cachePolicy,
+                                source -> JsonParser.<RESPONSE_TYPE>parse(source, typeOfResult, factory),
+                                token);
+                if (callCounter != null && isPrivateRequest(path))
+                    callCounter.onRequestSucceeded(sentAt);
+                return result;
+            } catch (KrakenRequestException e) {
+                if (callCounter != null && e.isRateLimitError())
+                    callCounter.onRateLimitExceeded(sentAt);
+                throw e;
+            }
+        });
+
+        // Ensure we don't exceed our call rate limit. The request is handed
+        // over to the executor once the call counter allows it, in order of
+        // priority, without blocking any threads in the meantime. Should the
+        // request be cancelled before it executes, then its budget is
+        // released again.
+        Executor target = executor;
+        if (callCounter != null)
+            request.setReleaseTask(callCounter.schedule(cost, priority, () -> request.submit(target)));
+        else
+            request.submit(target);
+
+        return request;
+    }
+
+}
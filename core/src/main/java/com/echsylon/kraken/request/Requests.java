@@ -0,0 +1,66 @@
+package com.echsylon.kraken.request;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * This class offers means of composing requests through their completion
+ * stages. No threads are blocked while a composed stage waits for the call
+ * rate limit or the network; each stage is completed by the worker thread
+ * finishing the last request it depends on.
+ * <p>
+ * NOTE! On Android this requires API level 24 or later.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Requests {
+
+    private Requests() {
+        // Intentionally hidden.
+    }
+
+    /**
+     * Returns a stage that completes when all given requests have completed.
+     * The results are delivered in the same order as the requests. Should any
+     * request fail, then the returned stage fails too.
+     *
+     * @param requests The requests to join.
+     * @param <T>      The common type of the request results.
+     * @return A stage completing with all results.
+     */
+    public static <T> CompletionStage<List<T>> allOf(final Collection<? extends Request<? extends T>> requests) {
+        List<CompletableFuture<? extends T>> futures = new ArrayList<>(requests.size());
+        for (Request<? extends T> request : requests)
+            futures.add(request.asCompletionStage().toCompletableFuture());
+
+        return CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<? extends T> future : futures)
+                        results.add(future.join());
+                    return results;
+                });
+    }
+
+    /**
+     * Returns a stage that completes with the result of the request created
+     * from the result of the given request. The next request isn't enqueued
+     * until the first one has completed successfully.
+     *
+     * @param request The first request.
+     * @param next    The function enqueueing the next request, given the first result.
+     * @param <T>     The type of the first result.
+     * @param <U>     The type of the next result.
+     * @return A stage completing with the result of the next request.
+     */
+    public static <T, U> CompletionStage<U> thenCompose(final Request<T> request,
+                                                        final Function<? super T, Request<U>> next) {
+        return request.asCompletionStage()
+                .thenCompose(result -> next.apply(result).asCompletionStage());
+    }
+
+}
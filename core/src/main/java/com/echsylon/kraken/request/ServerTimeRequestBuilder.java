@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.Time;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -26,7 +27,7 @@ public class ServerTimeRequestBuilder extends RequestBuilder<Time, ServerTimeReq
                                     final String key,
                                     final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
                 "GET", "/0/public/Time", Time.class);
     }
 
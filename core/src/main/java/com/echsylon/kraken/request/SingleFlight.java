@@ -0,0 +1,223 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Priority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * This class coalesces identical, concurrently enqueued, requests into one
+ * single flight. Only one network request is made, and one response parsed,
+ * for each flight. The result is then fanned out to the requests of all
+ * callers that joined the flight while it was in the air.
+ * <p>
+ * Each caller gets a request of its own, with its own listeners and callback
+ * executor. Cancelling it only detaches the caller from the flight. The flight
+ * itself is cancelled, and any call rate budget released, only once all
+ * callers have detached.
+ * <p>
+ * The flight runs at the highest priority class of the callers that joined
+ * it. A caller joining with a higher priority class than the flight raises
+ * the priority of the flight, should it still be waiting for call rate budget
+ * or a worker thread.
+ * <p>
+ * NOTE! All callers receive the very same result object. A caller modifying
+ * its result thereby modifies the result of all other callers of the flight.
+ *
+ * @param <T> The type of result object that is expected from the flight.
+ */
+final class SingleFlight<T> {
+
+    /**
+     * This interface describes the means of launching the actual network
+     * request of a flight.
+     *
+     * @param <T> The type of result object that is expected from the request.
+     */
+    interface Launcher<T> {
+
+        /**
+         * Enqueues the actual network request. Its callbacks are expected to
+         * be delivered directly on the worker thread.
+         *
+         * @return The enqueued request.
+         */
+        Request<T> launch();
+    }
+
+    private static final ConcurrentHashMap<String, SingleFlight<?>> FLIGHTS =
+            new ConcurrentHashMap<>();
+
+
+    /**
+     * Joins the flight with the given key, launching a new flight if there is
+     * none in the air.
+     *
+     * @param key              The canonical description of the request.
+     * @param priority         The priority class of the caller's request.
+     * @param callbackExecutor The executor to call the caller's listeners through. May be null.
+     * @param launcher         The means of launching the network request of a new flight.
+     * @param <T>              The type of result object that is expected.
+     * @return The caller's own request.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Request<T> join(final String key,
+                               final Priority priority,
+                               final Executor callbackExecutor,
+                               final Launcher<T> launcher) {
+
+        Request<T> follower = new Request<>(priority, callbackExecutor, null, () -> {
+            throw new IllegalStateException("A coalesced request is never executed on its own");
+        });
+
+        while (true) {
+            SingleFlight<T> flight = (SingleFlight<T>) FLIGHTS.get(key);
+            if (flight != null) {
+                if (flight.attach(follower, priority))
+                    return follower;
+
+                // The flight has landed but isn't removed yet, help out.
+                FLIGHTS.remove(key, flight);
+                continue;
+            }
+
+            flight = new SingleFlight<>(key);
+            if (FLIGHTS.putIfAbsent(key, flight) == null && flight.attach(follower, priority)) {
+                flight.takeOff(launcher.launch());
+                return follower;
+            }
+        }
+    }
+
+
+    private final String key;
+    private final List<Request<T>> followers;
+
+    private Request<T> origin;
+    private Priority priority;
+    private boolean landed;
+
+
+    private SingleFlight(final String key) {
+        this.key = key;
+        this.followers = new ArrayList<>();
+        this.landed = false;
+    }
+
+    /**
+     * Attaches the given request to this flight, unless the flight has
+     * already landed. The priority of the flight is raised if the request
+     * has a higher priority class.
+     *
+     * @param follower The request to attach.
+     * @param priority The priority class of the request.
+     * @return Boolean true if attached, false if the flight has landed.
+     */
+    private boolean attach(final Request<T> follower, final Priority priority) {
+        Request<T> raised = null;
+        synchronized (this) {
+            if (landed)
+                return false;
+
+            followers.add(follower);
+            if (this.priority == null || priority.compareTo(this.priority) < 0) {
+                this.priority = priority;
+                raised = origin;
+            }
+        }
+
+        follower.setReleaseTask(() -> detach(follower));
+        if (raised != null)
+            raised.raisePriority(priority);
+
+        return true;
+    }
+
+    /**
+     * Starts listening for the outcome of the network request.
+     *
+     * @param request The network request of this flight.
+     */
+    private void takeOff(final Request<T> request) {
+        boolean abandoned;
+        Priority highest;
+        synchronized (this) {
+            origin = request;
+            abandoned = landed;
+            highest = priority;
+        }
+
+        if (abandoned) {
+            request.cancel(false);
+            return;
+        }
+
+        // Callers with a higher priority may have joined while launching.
+        request.raisePriority(highest);
+
+        request.withSuccessListener(this::succeed)
+                .withErrorListener(this::fail);
+    }
+
+    /**
+     * Detaches the given request from this flight. The network request is
+     * cancelled if no requests remain attached.
+     *
+     * @param follower The request to detach.
+     */
+    private void detach(final Request<T> follower) {
+        Request<T> abandoned = null;
+        synchronized (this) {
+            if (!followers.remove(follower) || !followers.isEmpty() || landed)
+                return;
+
+            landed = true;
+            abandoned = origin;
+        }
+
+        FLIGHTS.remove(key, this);
+        if (abandoned != null)
+            abandoned.cancel(false);
+    }
+
+    /**
+     * Delivers the successful result to all attached requests.
+     *
+     * @param result The result.
+     */
+    private void succeed(final T result) {
+        for (Request<T> follower : land())
+            follower.deliver(result);
+    }
+
+    /**
+     * Delivers the error to all attached requests.
+     *
+     * @param cause The error.
+     */
+    private void fail(final Throwable cause) {
+        for (Request<T> follower : land())
+            follower.fail(cause);
+    }
+
+    /**
+     * Marks this flight as landed, making sure no further requests are
+     * attached to it.
+     *
+     * @return The requests attached to this flight.
+     */
+    private List<Request<T>> land() {
+        List<Request<T>> attached;
+        synchronized (this) {
+            landed = true;
+            attached = new ArrayList<>(followers);
+            followers.clear();
+        }
+
+        FLIGHTS.remove(key, this);
+        return attached;
+    }
+
+}
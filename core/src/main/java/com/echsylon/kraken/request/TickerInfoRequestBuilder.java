@@ -0,0 +1,111 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.internal.CallCounter;
+import com.echsylon.kraken.internal.NetworkClient;
+import com.echsylon.kraken.internal.Platform;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static com.echsylon.kraken.internal.Utils.join;
+
+/**
+ * This class can build a request that retrieves information about the ticker
+ * state for tradable asset pairs.
+ * <p>
+ * For further technical details see Kraken API documentation at:
+ * https://www.kraken.com/help/api
+ */
+@SuppressWarnings("WeakerAccess")
+public class TickerInfoRequestBuilder extends RequestBuilder<Dictionary<Ticker>, TickerInfoRequestBuilder> {
+    private static final int MAX_BATCH_SIZE = 50;
+
+    private int batchWindow;
+
+
+    /**
+     * Creates a new request builder.
+     *
+     * @param callCounter The request call counter. May be null.
+     * @param baseUrl     The base url of the request.
+     * @param key         The user API key.
+     * @param secret      The corresponding secret.
+     */
+    public TickerInfoRequestBuilder(final CallCounter callCounter,
+                                    final String baseUrl,
+                                    final String key,
+                                    final byte[] secret) {
+
+        super(1, Priority.MARKET_DATA, callCounter, key, secret, baseUrl,
+                "GET", "/0/public/Ticker",
+                TypeToken.getParameterized(
+                        Dictionary.class,
+                        Ticker.class).getType());
+    }
+
+    /**
+     * Sets the asset pairs request property.
+     *
+     * @param pairs The asset pairs to get information on.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public TickerInfoRequestBuilder useAssetPairs(final String... pairs) {
+        data.put("pair", join(pairs));
+        return this;
+    }
+
+    /**
+     * Enables micro-batching of this request. Ticker requests enqueued within
+     * the given window, and otherwise configured the same way, are sent as
+     * one network request, of at most 50 asset pairs, and each request only
+     * delivers the tickers it asked for. A request that asks for one asset
+     * pair only will get the full response if no other request joined it.
+     * <p>
+     * NOTE! Kraken responds with the full asset pair names, like "XXBTZEUR".
+     * A batched request using an alternate name, like "XBTEUR", can't be told
+     * its ticker and is sent again on its own if it shares the batch with
+     * other asset pairs. Use the full names to get the most out of batching.
+     *
+     * @param millis The batch window in milliseconds, typically 5-20. Zero
+     *               or less disables batching, which is the default.
+     * @return This request builder instance allowing method call chaining.
+     */
+    public TickerInfoRequestBuilder useBatchWindow(final int millis) {
+        batchWindow = millis;
+        return this;
+    }
+
+    /**
+     * Creates and enqueues the actual request. A request with a batch window
+     * joins the current batch of equally configured requests.
+     *
+     * @return A request object to attach any callback implementations to.
+     */
+    @Override
+    public Request<Dictionary<Ticker>> enqueue() {
+        String pairs = data.get("pair");
+        if (batchWindow <= 0 || pairs == null || pairs.isEmpty())
+            return super.enqueue();
+
+        HashMap<String, String> parameters = new HashMap<>(data);
+        parameters.remove("pair");
+        NetworkClient.CachePolicy cachePolicy = getCachePolicy();
+
+        // The batch delivers its result straight on the worker thread, each
+        // caller's request then delivers its own part through its own
+        // callback executor.
+        return RequestBatcher.join(getCoalescingKey(parameters, cachePolicy),
+                Arrays.asList(pairs.split(",")),
+                getPriority(), getCallbackExecutor(), batchWindow, MAX_BATCH_SIZE,
+                ids -> {
+                    HashMap<String, String> batched = new HashMap<>(parameters);
+                    batched.put("pair", ids);
+                    return launch(batched, cachePolicy, Platform.getDirectExecutor());
+                });
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.TradeBalance;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -25,7 +26,7 @@ public class TradeBalanceRequestBuilder extends RequestBuilder<TradeBalance, Tra
                                       final String key,
                                       final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/TradeBalance",
                 TradeBalance.class);
     }
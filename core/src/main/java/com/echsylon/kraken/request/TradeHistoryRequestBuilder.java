@@ -1,6 +1,7 @@
 package com.echsylon.kraken.request;
 
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.TradeHistory;
 import com.echsylon.kraken.internal.CallCounter;
 import com.google.gson.reflect.TypeToken;
@@ -29,7 +30,7 @@ public class TradeHistoryRequestBuilder extends RequestBuilder<Dictionary<TradeH
                                       final String key,
                                       final byte[] secret) {
 
-        super(2, callCounter, key, secret, baseUrl,
+        super(2, Priority.BULK_HISTORY, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/TradesHistory",
                 TypeToken.getParameterized(
                         Dictionary.class,
@@ -104,4 +105,27 @@ public class TradeHistoryRequestBuilder extends RequestBuilder<Dictionary<TradeH
         return this;
     }
 
+    /**
+     * Creates an iterator over the full trades history matching this request,
+     * page by page, starting at any configured offset.
+     *
+     * @return The iterator. Should be closed if abandoned before its end.
+     */
+    public PagedIterator<TradeHistory> iterate() {
+        return paginate();
+    }
+
+    /**
+     * Creates a backfill of the trades history within the given time range. The
+     * backfill sets the start, end and offset of each of its time windows
+     * itself.
+     *
+     * @param start The exclusive start time, in unix seconds.
+     * @param end   The inclusive end time, in unix seconds.
+     * @return The backfill to configure and run.
+     */
+    public Backfill<TradeHistory> backfill(final long start, final long end) {
+        return createBackfill(start, end, trade -> trade.time != 0D ? trade.time : null);
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.TradeVolume;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -29,7 +30,7 @@ public class TradeVolumeRequestBuilder extends RequestBuilder<TradeVolume, Trade
                                      final String key,
                                      final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/TradeVolume",
                 TradeVolume.class);
     }
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.WithdrawInfo;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -27,7 +28,7 @@ public class WithdrawInfoRequestBuilder extends RequestBuilder<WithdrawInfo, Wit
                                       final String key,
                                       final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/WithdrawInfo",
                 WithdrawInfo.class);
     }
@@ -1,5 +1,6 @@
 package com.echsylon.kraken.request;
 
+import com.echsylon.kraken.Priority;
 import com.echsylon.kraken.dto.WithdrawStatus;
 import com.echsylon.kraken.internal.CallCounter;
 
@@ -26,7 +27,7 @@ public class WithdrawStatusesRequestBuilder extends RequestBuilder<WithdrawStatu
                                           final String key,
                                           final byte[] secret) {
 
-        super(1, callCounter, key, secret, baseUrl,
+        super(1, Priority.ACCOUNT, callCounter, key, secret, baseUrl,
                 "POST", "/0/private/WithdrawStatus",
                 WithdrawStatus[].class);
     }
@@ -0,0 +1,533 @@
+package com.echsylon.kraken.websocket;
+
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Depth;
+import com.echsylon.kraken.dto.Ohlc;
+import com.echsylon.kraken.dto.Spread;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Trade;
+import com.echsylon.kraken.internal.JsonParser;
+import com.echsylon.kraken.internal.NetworkClient;
+import com.echsylon.kraken.internal.Platform;
+import com.echsylon.kraken.request.ErrorListener;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * This class subscribes to live market data through the Kraken WebSocket API,
+ * as an alternative to polling the public REST endpoints. Each update is
+ * delivered as soon as Kraken publishes it, without any call rate cost.
+ * <p>
+ * The socket connects on the first subscription. Should the connection be
+ * lost, then the socket reconnects automatically, with a growing delay, and
+ * renews all subscriptions. Any errors, including lost connections, are
+ * delivered to the error listener.
+ * <p>
+ * Updates are delivered as the same domain objects as the REST requests
+ * deliver, through the callback executor. Note that the WebSocket API names
+ * asset pairs like "XBT/EUR".
+ * <p>
+ * For further technical details see Kraken WebSocket API documentation at:
+ * https://www.kraken.com/features/websocket-api
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MarketDataSocket {
+    private static final String DEFAULT_URL = "wss://ws.kraken.com";
+    private static final int NORMAL_CLOSURE = 1000;
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kraken-websocket");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * This interface describes the means of parsing the payloads of a
+     * channel message.
+     *
+     * @param <T> The type of the update.
+     */
+    private interface PayloadParser<T> {
+        T parse(List<JsonElement> payloads);
+    }
+
+    /**
+     * This class describes a subscription to one channel for any number of
+     * asset pairs.
+     *
+     * @param <T> The type of the updates.
+     */
+    private static final class Subscription<T> {
+        private final String channel;
+        private final JsonObject options;
+        private final String[] pairs;
+        private final PayloadParser<T> parser;
+        private final UpdateListener<T> listener;
+
+        private Subscription(final String channel,
+                             final JsonObject options,
+                             final String[] pairs,
+                             final PayloadParser<T> parser,
+                             final UpdateListener<T> listener) {
+
+            this.channel = channel;
+            this.options = options;
+            this.pairs = pairs;
+            this.parser = parser;
+            this.listener = listener;
+        }
+
+        private void deliver(final Executor executor, final String pair, final List<JsonElement> payloads) {
+            T update = parser.parse(payloads);
+            executor.execute(() -> listener.onUpdate(pair, update));
+        }
+    }
+
+    private final String url;
+    private final Executor callbackExecutor;
+    private final List<Subscription<?>> subscriptions;
+    private final Map<String, Subscription<?>> routes;
+
+    private ErrorListener errorListener;
+    private long minReconnectDelayMillis;
+    private long maxReconnectDelayMillis;
+    private long reconnectDelayMillis;
+    private WebSocket webSocket;
+    private ScheduledFuture<?> reconnect;
+    private boolean open;
+    private boolean closed;
+
+
+    /**
+     * Creates a new socket to the Kraken WebSocket API. Updates are delivered
+     * on the main thread on Android and directly on the socket thread
+     * elsewhere.
+     */
+    public MarketDataSocket() {
+        this(DEFAULT_URL, null);
+    }
+
+    /**
+     * Creates a new socket to the given WebSocket URL.
+     *
+     * @param url              The URL of the WebSocket API.
+     * @param callbackExecutor The executor to call any listeners through. May be null.
+     */
+    public MarketDataSocket(final String url, final Executor callbackExecutor) {
+        this.url = url;
+        this.callbackExecutor = callbackExecutor != null ?
+                callbackExecutor :
+                Platform.getDefaultCallbackExecutor();
+        this.subscriptions = new ArrayList<>();
+        this.routes = new HashMap<>();
+        this.minReconnectDelayMillis = 1000L;
+        this.maxReconnectDelayMillis = 30000L;
+        this.reconnectDelayMillis = minReconnectDelayMillis;
+    }
+
+    /**
+     * Sets the error listener of this socket.
+     *
+     * @param listener The error listener. May be null.
+     * @return This socket, allowing method chaining.
+     */
+    public synchronized MarketDataSocket withErrorListener(final ErrorListener listener) {
+        errorListener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the bounds of the delay before reconnecting a lost connection.
+     * The delay doubles for each failed attempt. Defaults to one and thirty
+     * seconds.
+     *
+     * @param minMillis The delay of the first attempt.
+     * @param maxMillis The longest delay.
+     * @return This socket, allowing method chaining.
+     */
+    public synchronized MarketDataSocket useReconnectDelay(final long minMillis, final long maxMillis) {
+        if (minMillis > 0L && maxMillis >= minMillis) {
+            minReconnectDelayMillis = minMillis;
+            maxReconnectDelayMillis = maxMillis;
+            reconnectDelayMillis = minMillis;
+        }
+        return this;
+    }
+
+    /**
+     * Subscribes to ticker updates.
+     *
+     * @param listener The receiver of the updates.
+     * @param pairs    The asset pairs to subscribe to.
+     * @return This socket, allowing method chaining.
+     */
+    public MarketDataSocket subscribeTicker(final UpdateListener<Ticker> listener, final String... pairs) {
+        return subscribe(new Subscription<>("ticker", options("ticker"), pairs,
+                MarketDataSocket::parseTicker, listener));
+    }
+
+    /**
+     * Subscribes to order book updates. The first update after subscribing,
+     * or reconnecting, is a snapshot of the book. Subsequent updates only
+     * hold the changed price levels, where a zero volume means the level has
+     * been removed. Either side of an update may be null.
+     *
+     * @param depth    The number of price levels; 10, 25, 100, 500 or 1000.
+     * @param listener The receiver of the updates.
+     * @param pairs    The asset pairs to subscribe to.
+     * @return This socket, allowing method chaining.
+     */
+    public MarketDataSocket subscribeBook(final int depth, final UpdateListener<Depth> listener, final String... pairs) {
+        JsonObject options = options("book");
+        options.addProperty("depth", depth);
+        return subscribe(new Subscription<>("book-" + depth, options, pairs,
+                MarketDataSocket::parseDepth, listener));
+    }
+
+    /**
+     * Subscribes to trades.
+     *
+     * @param listener The receiver of the updates.
+     * @param pairs    The asset pairs to subscribe to.
+     * @return This socket, allowing method chaining.
+     */
+    public MarketDataSocket subscribeTrades(final UpdateListener<Trade[]> listener, final String... pairs) {
+        return subscribe(new Subscription<>("trade", options("trade"), pairs,
+                MarketDataSocket::parseTrades, listener));
+    }
+
+    /**
+     * Subscribes to spread updates.
+     *
+     * @param listener The receiver of the updates.
+     * @param pairs    The asset pairs to subscribe to.
+     * @return This socket, allowing method chaining.
+     */
+    public MarketDataSocket subscribeSpread(final UpdateListener<Spread> listener, final String... pairs) {
+        return subscribe(new Subscription<>("spread", options("spread"), pairs,
+                MarketDataSocket::parseSpread, listener));
+    }
+
+    /**
+     * Subscribes to open-high-low-close updates of the current interval.
+     *
+     * @param interval The interval in minutes; 1, 5, 15, 30, 60, 240, 1440, 10080 or 21600.
+     * @param listener The receiver of the updates.
+     * @param pairs    The asset pairs to subscribe to.
+     * @return This socket, allowing method chaining.
+     */
+    public MarketDataSocket subscribeOhlc(final int interval, final UpdateListener<Ohlc> listener, final String... pairs) {
+        JsonObject options = options("ohlc");
+        options.addProperty("interval", interval);
+        return subscribe(new Subscription<>("ohlc-" + interval, options, pairs,
+                MarketDataSocket::parseOhlc, listener));
+    }
+
+    /**
+     * Closes the connection and drops all subscriptions. The socket can't be
+     * used after this.
+     */
+    public void close() {
+        WebSocket socket;
+        synchronized (this) {
+            closed = true;
+            socket = webSocket;
+            webSocket = null;
+            subscriptions.clear();
+            routes.clear();
+            if (reconnect != null)
+                reconnect.cancel(false);
+        }
+
+        if (socket != null)
+            socket.close(NORMAL_CLOSURE, null);
+    }
+
+    /**
+     * Adds the given subscription and sends it if connected, or connects if
+     * not yet connected.
+     *
+     * @param subscription The subscription.
+     * @return This socket, allowing method chaining.
+     * @throws IllegalStateException If the socket is closed.
+     */
+    private synchronized MarketDataSocket subscribe(final Subscription<?> subscription) throws IllegalStateException {
+        if (closed)
+            throw new IllegalStateException("The socket is closed");
+
+        subscriptions.add(subscription);
+        for (String pair : subscription.pairs)
+            routes.put(subscription.channel + ' ' + pair, subscription);
+
+        // Pending subscriptions are sent once the connection is open.
+        if (webSocket == null)
+            connect();
+        else if (open)
+            send(webSocket, subscription);
+
+        return this;
+    }
+
+    /**
+     * Opens a new connection. Must be called while holding the lock.
+     */
+    private void connect() {
+        reconnect = null;
+        open = false;
+        webSocket = NetworkClient.getInstance().newWebSocket(url, new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket socket, Response response) {
+                onConnected(socket);
+            }
+
+            @Override
+            public void onMessage(WebSocket socket, String text) {
+                onText(text);
+            }
+
+            @Override
+            public void onClosing(WebSocket socket, int code, String reason) {
+                socket.close(NORMAL_CLOSURE, null);
+            }
+
+            @Override
+            public void onClosed(WebSocket socket, int code, String reason) {
+                onDisconnected(socket, null);
+            }
+
+            @Override
+            public void onFailure(WebSocket socket, Throwable cause, Response response) {
+                onDisconnected(socket, cause);
+            }
+        });
+    }
+
+    /**
+     * Renews all subscriptions on a new connection.
+     *
+     * @param socket The connected socket.
+     */
+    private synchronized void onConnected(final WebSocket socket) {
+        if (socket != webSocket)
+            return;
+
+        open = true;
+        reconnectDelayMillis = minReconnectDelayMillis;
+        for (Subscription<?> subscription : subscriptions)
+            send(socket, subscription);
+    }
+
+    /**
+     * Schedules a reconnect, unless the socket was closed on purpose.
+     *
+     * @param socket The disconnected socket.
+     * @param cause  The cause of the disconnect. May be null.
+     */
+    private void onDisconnected(final WebSocket socket, final Throwable cause) {
+        synchronized (this) {
+            if (closed || socket != webSocket)
+                return;
+
+            webSocket = null;
+            open = false;
+            long delay = reconnectDelayMillis;
+            reconnectDelayMillis = Math.min(maxReconnectDelayMillis, reconnectDelayMillis * 2);
+            reconnect = TIMER.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+        }
+
+        if (cause != null)
+            deliverError(cause);
+    }
+
+    /**
+     * Reconnects, unless closed in the meantime.
+     */
+    private synchronized void reconnect() {
+        if (!closed && webSocket == null)
+            connect();
+    }
+
+    /**
+     * Routes a received message to its subscription.
+     *
+     * @param text The message.
+     */
+    private void onText(final String text) {
+        try {
+            JsonElement message = new com.google.gson.JsonParser().parse(text);
+            if (message.isJsonObject()) {
+                JsonObject event = message.getAsJsonObject();
+                if (event.has("status") && "error".equals(event.get("status").getAsString()))
+                    deliverError(new KrakenRequestException(new String[]{event.has("errorMessage") ?
+                            event.get("errorMessage").getAsString() :
+                            "Subscription failed"}));
+                return;
+            }
+
+            // Channel messages look like: [channelID, payload..., channelName, pair]
+            JsonArray array = message.getAsJsonArray();
+            int size = array.size();
+            if (size < 4)
+                return;
+
+            String channel = array.get(size - 2).getAsString();
+            String pair = array.get(size - 1).getAsString();
+            List<JsonElement> payloads = new ArrayList<>(size - 3);
+            for (int i = 1; i < size - 2; i++)
+                payloads.add(array.get(i));
+
+            Subscription<?> subscription;
+            synchronized (this) {
+                subscription = routes.get(channel + ' ' + pair);
+            }
+
+            if (subscription != null)
+                subscription.deliver(callbackExecutor, pair, payloads);
+        } catch (RuntimeException e) {
+            deliverError(e);
+        }
+    }
+
+    /**
+     * Delivers the given error to the error listener, if any.
+     *
+     * @param cause The error.
+     */
+    private void deliverError(final Throwable cause) {
+        ErrorListener listener;
+        synchronized (this) {
+            listener = errorListener;
+        }
+
+        if (listener != null)
+            callbackExecutor.execute(() -> listener.onError(cause));
+    }
+
+
+    // Message building and parsing
+
+    private static JsonObject options(final String name) {
+        JsonObject options = new JsonObject();
+        options.addProperty("name", name);
+        return options;
+    }
+
+    private static void send(final WebSocket socket, final Subscription<?> subscription) {
+        JsonArray pairs = new JsonArray();
+        for (String pair : subscription.pairs)
+            pairs.add(pair);
+
+        JsonObject message = new JsonObject();
+        message.addProperty("event", "subscribe");
+        message.add("pair", pairs);
+        message.add("subscription", subscription.options);
+        socket.send(message.toString());
+    }
+
+    private static Ticker parseTicker(final List<JsonElement> payloads) {
+        // The WebSocket API delivers today's and the last 24 hours' opening
+        // prices, the REST API only today's.
+        JsonObject object = payloads.get(0).getAsJsonObject();
+        JsonElement open = object.get("o");
+        if (open != null && open.isJsonArray()) {
+            JsonObject copy = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+                copy.add(entry.getKey(), entry.getValue());
+            copy.add("o", open.getAsJsonArray().get(0));
+            object = copy;
+        }
+
+        TypeAdapter<Ticker> adapter = JsonParser.getResultAdapter(Ticker.class);
+        return adapter.fromJsonTree(object);
+    }
+
+    private static Depth parseDepth(final List<JsonElement> payloads) {
+        Depth depth = new Depth();
+        for (JsonElement payload : payloads) {
+            JsonObject object = payload.getAsJsonObject();
+            if (object.has("as"))
+                depth.asks = parseOffers(object.getAsJsonArray("as"));
+            if (object.has("bs"))
+                depth.bids = parseOffers(object.getAsJsonArray("bs"));
+            if (object.has("a"))
+                depth.asks = parseOffers(object.getAsJsonArray("a"));
+            if (object.has("b"))
+                depth.bids = parseOffers(object.getAsJsonArray("b"));
+        }
+
+        return depth;
+    }
+
+    private static Depth.Offer[] parseOffers(final JsonArray levels) {
+        Depth.Offer[] offers = new Depth.Offer[levels.size()];
+        for (int i = 0; i < offers.length; i++) {
+            JsonArray level = levels.get(i).getAsJsonArray();
+            Depth.Offer offer = new Depth.Offer();
+            offer.price = level.get(0).getAsString();
+            offer.volume = level.get(1).getAsString();
+            offer.timestamp = (long) level.get(2).getAsDouble();
+            offers[i] = offer;
+        }
+
+        return offers;
+    }
+
+    private static Trade[] parseTrades(final List<JsonElement> payloads) {
+        TypeAdapter<Trade> adapter = JsonParser.getResultAdapter(Trade.class);
+        JsonArray rows = payloads.get(0).getAsJsonArray();
+        Trade[] trades = new Trade[rows.size()];
+        for (int i = 0; i < trades.length; i++)
+            trades[i] = adapter.fromJsonTree(rows.get(i));
+
+        return trades;
+    }
+
+    private static Spread parseSpread(final List<JsonElement> payloads) {
+        // [bid, ask, timestamp, bidVolume, askVolume]
+        JsonArray row = payloads.get(0).getAsJsonArray();
+        if (row.size() < 3)
+            throw new JsonParseException("Unexpected spread: " + row);
+
+        Spread spread = new Spread();
+        spread.bid = row.get(0).getAsString();
+        spread.ask = row.get(1).getAsString();
+        spread.timestamp = (long) row.get(2).getAsDouble();
+        return spread;
+    }
+
+    private static Ohlc parseOhlc(final List<JsonElement> payloads) {
+        // [time, endTime, open, high, low, close, vwap, volume, count]
+        JsonArray row = payloads.get(0).getAsJsonArray();
+        if (row.size() < 9)
+            throw new JsonParseException("Unexpected ohlc: " + row);
+
+        Ohlc ohlc = new Ohlc();
+        ohlc.time = (long) row.get(0).getAsDouble();
+        ohlc.open = row.get(2).getAsString();
+        ohlc.high = row.get(3).getAsString();
+        ohlc.low = row.get(4).getAsString();
+        ohlc.close = row.get(5).getAsString();
+        ohlc.volumeWeightedAveragePrice = row.get(6).getAsString();
+        ohlc.volume = row.get(7).getAsString();
+        ohlc.count = row.get(8).getAsInt();
+        return ohlc;
+    }
+
+}
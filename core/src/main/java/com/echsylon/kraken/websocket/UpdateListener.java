@@ -0,0 +1,17 @@
+package com.echsylon.kraken.websocket;
+
+/**
+ * This interface describes the receiver of live market data updates.
+ *
+ * @param <T> The type of the updates.
+ */
+public interface UpdateListener<T> {
+
+    /**
+     * Delivers an update to the implementing infrastructure.
+     *
+     * @param pair   The asset pair the update applies to, like "XBT/EUR".
+     * @param update The update.
+     */
+    void onUpdate(String pair, T update);
+}
@@ -0,0 +1,96 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.internal.JsonParser;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the fixed-point decimal arithmetic.
+ */
+public class DecimalTest {
+
+    @Test
+    public void parsing_shouldKeepAllDecimalsExactly() throws Exception {
+        Decimal decimal = Decimal.parse("271.49000");
+        assertThat(decimal.getUnscaledValue(), is(27149000L));
+        assertThat(decimal.getScale(), is(5));
+        assertThat(decimal.toString(), is("271.49000"));
+
+        assertThat(Decimal.parse("-0.005").toString(), is("-0.005"));
+        assertThat(Decimal.parse("42").getScale(), is(0));
+        assertThat(Decimal.parse("1.5e3").toString(), is("1500"));
+        assertThat(Decimal.parse("12345678901234.12345").toString(), is("12345678901234.12345"));
+    }
+
+    @Test
+    public void parsingMalformedOrHugeNumbers_shouldThrowNumberFormatException() throws Exception {
+        assertThatThrownBy(() -> Decimal.parse("")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Decimal.parse("1.2.3")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Decimal.parse("99999999999999999999")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Decimal.parse("0.0000000000000000001")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    public void parsingWithAssetPairScale_shouldRoundHalfUp() throws Exception {
+        AssetPair pair = new AssetPair();
+        pair.pairDecimals = 1;
+        pair.lotDecimals = 3;
+
+        assertThat(Decimal.parsePrice("271.45000", pair).toString(), is("271.5"));
+        assertThat(Decimal.parsePrice("-271.45000", pair).toString(), is("-271.5"));
+        assertThat(Decimal.parseVolume("0.12340000", pair).toString(), is("0.123"));
+        assertThat(Decimal.parse("0.1", 4).toString(), is("0.1000"));
+    }
+
+    @Test
+    public void arithmetic_shouldBeExact() throws Exception {
+        Decimal price = Decimal.parse("271.49");
+        Decimal volume = Decimal.parse("0.72000000");
+
+        assertThat(price.add(Decimal.parse("0.001")).toString(), is("271.491"));
+        assertThat(price.subtract(price).signum(), is(0));
+        assertThat(price.multiply(volume, 5).toString(), is("195.47280"));
+        assertThat(price.divide(Decimal.parse("3"), 4).toString(), is("90.4967"));
+        assertThat(price.negate().toString(), is("-271.49"));
+        assertThat(price.doubleValue(), is(271.49D));
+    }
+
+    @Test
+    public void overflowingArithmetic_shouldFallBackOrThrow() throws Exception {
+        Decimal large = Decimal.valueOf(Long.MAX_VALUE / 10, 9);
+        assertThat(large.multiply(Decimal.parse("0.000000001"), 9).toBigDecimal(),
+                is(large.toBigDecimal().multiply(new BigDecimal("0.000000001")).setScale(9, RoundingMode.HALF_UP)));
+
+        assertThatThrownBy(() -> Decimal.valueOf(Long.MAX_VALUE, 0).add(Decimal.parse("1")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void comparing_shouldIgnoreScale() throws Exception {
+        assertThat(Decimal.parse("1.50"), is(Decimal.parse("1.5")));
+        assertThat(Decimal.parse("1.50").hashCode(), is(Decimal.parse("1.5").hashCode()));
+        assertThat(Decimal.parse("1.51"), is(not(Decimal.parse("1.5"))));
+        assertThat(Decimal.parse("1.499").compareTo(Decimal.parse("1.5")) < 0, is(true));
+        assertThat(Decimal.parse("2").max(Decimal.parse("10.0")).toString(), is("10.0"));
+    }
+
+    @Test
+    public void jsonParsing_shouldReadStringsAndNumbers() throws Exception {
+        Decimal[] decimals = JsonParser.<Decimal[]>getResultAdapter(Decimal[].class)
+                .fromJson("[\"271.49000\", 1534614057.3, null]");
+
+        assertThat(decimals[0].getScale(), is(5));
+        assertThat(decimals[1].toString(), is("1534614057.3"));
+        assertThat(decimals[2] == null, is(true));
+    }
+
+}
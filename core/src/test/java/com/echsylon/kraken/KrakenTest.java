@@ -0,0 +1,266 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.dto.OrderCancelReceipt;
+import com.echsylon.kraken.dto.Time;
+import com.echsylon.kraken.request.Request;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static com.echsylon.kraken.TestHelper.startMockServer;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the core capabilities of the Android Kraken SDK.
+ * <p>
+ * The tests will take advantage of the fact that the Kraken implementation
+ * returns a {@code Request} object. Since the {@code Request}
+ * class extends {@code FutureTask} we can block the test thread until a result
+ * is produced.
+ */
+public class KrakenTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void responseWithError_shouldThrowException() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': ['Some:Error:Structure']}");
+
+        Request<Time> request = getKrakenInstance()
+                .getServerTime()
+                .enqueue();
+
+        assertThatThrownBy(() -> request.get(1, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KrakenRequestException.class);
+    }
+
+    @Test
+    public void responseWithSuccess_shouldNotThrowException() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {" +
+                        " 'unixtime': 0," +
+                        " 'rfc1123': 'some_rfc1123_time'}}");
+
+        Request<Time> request = getKrakenInstance()
+                .getServerTime()
+                .enqueue();
+
+        assertThat(request.get(1, SECONDS), is(notNullValue()));
+    }
+
+    @Test
+    public void requestWithCallbackExecutor_shouldDeliverResultThroughExecutor() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {" +
+                        " 'unixtime': 0," +
+                        " 'rfc1123': 'some_rfc1123_time'}}");
+
+        AtomicInteger deliveries = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        getKrakenInstance()
+                .getServerTime()
+                .useCallbackExecutor(task -> {
+                    deliveries.incrementAndGet();
+                    task.run();
+                })
+                .enqueue()
+                .withSuccessListener(time -> latch.countDown());
+
+        assertThat(latch.await(1, SECONDS), is(true));
+        assertThat(deliveries.get(), is(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    public void requestingPrivateResource_shouldThrowExceptionIfNoCredentialsProvided() throws Exception {
+        server = startMockServer("POST", "/0/private/Balance",
+                "{'error': [], 'result': {}}");
+
+        Request<?> request = getKrakenInstance()
+                .getAccountBalance()
+                .enqueue();
+
+        assertThatThrownBy(() -> request.get(1, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void requestingPrivateResource_shouldNotThrowExceptionIfCredentialsProvided() throws Exception {
+        server = startMockServer("POST", "/0/private/Balance",
+                "{'error': [], result: {}}");
+
+        String key = "key";
+        String secret = "c2VjcmV0";
+
+        Request<?> request = getKrakenInstance(key, secret)
+                .getAccountBalance()
+                .enqueue();
+
+        assertThat(request.get(1, SECONDS), is(notNullValue()));
+    }
+
+    @Test
+    public void performingTooFrequentRequests_shouldPauseProcessingRequests() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {}}");
+
+        try {
+            Kraken.setCallRateLimit(2); // limit 15, reduced by 1 per 3 sec
+            Kraken kraken = getKrakenInstance();
+            // Identical requests would otherwise share one network call.
+            for (int i = 0; i < 15; i++)
+                kraken.getServerTime().useCoalescing(false).enqueue();
+
+            long start = System.currentTimeMillis();
+
+            kraken.getServerTime()
+                    .enqueue()
+                    .get(4, SECONDS);
+
+            // The call counter chills down continuously, with millisecond
+            // precision, from the moment the first request was enqueued.
+            long stop = System.currentTimeMillis();
+            assertThat(stop - start, is(greaterThanOrEqualTo(2900L)));
+        } finally {
+            Kraken.clearCallRateLimit();
+        }
+    }
+
+    @Test
+    public void performingTooFrequentRequestsAndThenWaiting_shouldChillCallCounterEnoughToAllowMoreRequests() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {}}");
+
+        try {
+            Kraken.setCallRateLimit(2); // limit 15, reduced by 1 per 3 sec
+            Kraken kraken = getKrakenInstance();
+            // Identical requests would otherwise share one network call.
+            for (int i = 0; i < 15; i++)
+                kraken.getServerTime().useCoalescing(false).enqueue();
+
+            Thread.sleep(3000L);
+
+            long start = System.currentTimeMillis();
+
+            kraken.getServerTime()
+                    .enqueue()
+                    .get(4, SECONDS);
+
+            long stop = System.currentTimeMillis();
+            assertThat(stop - start, is(lessThan(1000L)));
+        } finally {
+            Kraken.clearCallRateLimit();
+        }
+    }
+
+    @Test
+    public void cancellingInFlightRequest_shouldAbortHttpCall() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse()
+                .setHeadersDelay(5, SECONDS)
+                .setBody("{'error': [], 'result': {}}"));
+        server.start(8080);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Request<Time> request = getKrakenInstance()
+                    .getServerTime()
+                    .useExecutor(executor)
+                    .enqueue();
+
+            assertThat(server.takeRequest(2, SECONDS), is(notNullValue()));
+            request.cancel(false);
+
+            // The worker thread is only freed if the HTTP call was aborted.
+            Future<?> next = executor.submit(() -> {
+            });
+            next.get(2, SECONDS);
+            assertThat(request.isCancelled(), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cancellingRateLimitedRequest_shouldReleaseCallRateBudget() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {}}");
+
+        try {
+            Kraken.setCallRateLimit(2); // limit 15, reduced by 1 per 3 sec
+            Kraken kraken = getKrakenInstance();
+            // Identical requests would otherwise share one network call.
+            for (int i = 0; i < 15; i++)
+                kraken.getServerTime().useCoalescing(false).enqueue();
+
+            Request<Time> abandoned = kraken.getServerTime().useCoalescing(false).enqueue();
+            assertThat(Kraken.getMillisUntilCallRateAvailable(1), is(greaterThan(3000L)));
+
+            abandoned.cancel(false);
+            assertThat(Kraken.getMillisUntilCallRateAvailable(1), is(lessThanOrEqualTo(3000L)));
+        } finally {
+            Kraken.clearCallRateLimit();
+        }
+    }
+
+    @Test
+    public void reservedHeadroom_shouldLetOrderEntryThroughWhileMarketDataWaits() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{'error': [], 'result': {}}");
+            }
+        });
+        server.start(8080);
+
+        try {
+            Kraken.setCallRateLimit(2, 4); // limit 15, 4 reserved, reduced by 1 per 3 sec
+            Kraken kraken = getKrakenInstance("key", "c2VjcmV0");
+            // Identical requests would otherwise share one network call.
+            for (int i = 0; i < 11; i++)
+                kraken.getServerTime().useCoalescing(false).enqueue();
+
+            Request<Time> marketData = kraken.getServerTime().useCoalescing(false).enqueue();
+            Request<OrderCancelReceipt> order = kraken.cancelOpenOrder("OQCLML-BW3P3-BUCMWZ").enqueue();
+
+            assertThat(order.get(2, SECONDS), is(notNullValue()));
+            assertThat(marketData.isDone(), is(false));
+            assertThat(Kraken.getMillisUntilCallRateAvailable(1), is(greaterThan(1000L)));
+        } finally {
+            Kraken.clearCallRateLimit();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.echsylon.kraken;
+
+import com.echsylon.kraken.dto.Depth;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the local order book maintained from depth
+ * snapshots.
+ */
+public class OrderBookTest {
+
+    @Test
+    public void appliedSnapshot_shouldExposeTopOfBookAndDepthAtPrice() {
+        OrderBook book = new OrderBook("XXBTZEUR");
+        book.apply(depth(
+                new String[][]{{"100.0", "1.0"}, {"99.5", "2.0"}, {"99.0", "3.0"}},
+                new String[][]{{"101.0", "0.5"}, {"102.0", "1.5"}}));
+
+        assertThat(book.getBestBid(), is(100.0D));
+        assertThat(book.getBestAsk(), is(101.0D));
+        assertThat(book.getLevelCount(OrderBook.Side.BID), is(3));
+        assertThat(book.getPrice(OrderBook.Side.BID, 2), is(99.0D));
+        assertThat(book.getVolume(OrderBook.Side.ASK, 1), is(1.5D));
+        assertThat(book.getVolumeAt(OrderBook.Side.BID, 99.5D), is(2.0D));
+        assertThat(book.getVolumeAt(OrderBook.Side.ASK, 102.0D), is(1.5D));
+        assertThat(book.getVolumeAt(OrderBook.Side.ASK, 101.5D), is(0D));
+    }
+
+    @Test
+    public void emptyBook_shouldHaveNoTopOfBook() {
+        OrderBook book = new OrderBook("XXBTZEUR");
+
+        assertThat(Double.isNaN(book.getBestBid()), is(true));
+        assertThat(Double.isNaN(book.getBestAsk()), is(true));
+        assertThat(book.getLevelCount(OrderBook.Side.ASK), is(0));
+    }
+
+    @Test
+    public void nextSnapshot_shouldBeReportedAsLevelChanges() {
+        OrderBook book = new OrderBook("XXBTZEUR");
+        book.apply(depth(
+                new String[][]{{"100.0", "1.0"}, {"99.5", "2.0"}},
+                new String[][]{{"101.0", "0.5"}, {"102.0", "1.5"}}));
+
+        List<String> events = new ArrayList<>();
+        book.addListener((source, side, change, price, volume) ->
+                events.add(side + " " + change + " " + price + " " + volume));
+
+        book.apply(depth(
+                new String[][]{{"100.5", "1.0"}, {"100.0", "1.0"}},
+                new String[][]{{"101.0", "0.7"}, {"102.0", "1.5"}}));
+
+        assertThat(events.size(), is(3));
+        assertThat(events.get(0), is("BID ADD 100.5 1.0"));
+        assertThat(events.get(1), is("BID REMOVE 99.5 0.0"));
+        assertThat(events.get(2), is("ASK CHANGE 101.0 0.7"));
+        assertThat(book.getBestBid(), is(100.5D));
+    }
+
+    @Test
+    public void unsortedSnapshot_shouldBeSortedAndMerged() {
+        OrderBook book = new OrderBook("XXBTZEUR");
+        book.apply(depth(
+                new String[][]{{"99.0", "1.0"}, {"100.0", "1.0"}, {"99.0", "2.0"}},
+                new String[][]{}));
+
+        assertThat(book.getLevelCount(OrderBook.Side.BID), is(2));
+        assertThat(book.getBestBid(), is(100.0D));
+        assertThat(book.getVolumeAt(OrderBook.Side.BID, 99.0D), is(3.0D));
+    }
+
+
+    private static Depth depth(String[][] bids, String[][] asks) {
+        Depth depth = new Depth();
+        depth.bids = offers(bids);
+        depth.asks = offers(asks);
+        return depth;
+    }
+
+    private static Depth.Offer[] offers(String[][] levels) {
+        Depth.Offer[] offers = new Depth.Offer[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            offers[i] = new Depth.Offer();
+            offers[i].price = levels[i][0];
+            offers[i].volume = levels[i][1];
+        }
+        return offers;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.echsylon.kraken;
+
+import java.io.IOException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class TestHelper {
+
+    public static Kraken getKrakenInstance() {
+        return getKrakenInstance(null, null);
+    }
+
+    public static Kraken getKrakenInstance(String key, String secret) {
+        return new Kraken("http://localhost:8080", key, secret);
+    }
+
+    public static Kraken getKrakenInstance(MockWebServer server) {
+        return new Kraken("http://" + server.getHostName() + ":" + server.getPort(), null, (String) null);
+    }
+
+    public static MockWebServer startMockServer(String method, String url, String response) {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                int query = path.indexOf('?');
+                if (query != -1)
+                    path = path.substring(0, query);
+
+                return method.equals(request.getMethod()) && url.equals(path) ?
+                        new MockResponse()
+                                .addHeader("Content-Type", "application/json")
+                                .setResponseCode(200)
+                                .setBody(response) :
+                        new MockResponse()
+                                .setResponseCode(404);
+            }
+        });
+
+        try {
+            server.start(8080);
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't start mock server", e);
+        }
+
+        return server;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.RequestExecutors;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the bounded, priority ordered, request queue and
+ * the executors built on top of it.
+ */
+public class BoundedPriorityBlockingQueueTest {
+
+    /**
+     * A comparable task, mimicking how requests are ordered by priority.
+     */
+    private static final class Task extends FutureTask<Void> implements Comparable<Task> {
+        private final int priority;
+
+        private Task(int priority, Runnable runnable) {
+            super(runnable, null);
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            return Integer.compare(priority, other.priority);
+        }
+    }
+
+
+    @Test
+    public void offeringToFullQueue_shouldFail() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(2);
+
+        assertThat(queue.offer(3), is(true));
+        assertThat(queue.offer(1), is(true));
+        assertThat(queue.offer(2), is(false));
+        assertThat(queue.remainingCapacity(), is(0));
+        assertThat(queue.poll(), is(1));
+        assertThat(queue.remainingCapacity(), is(1));
+    }
+
+    @Test
+    public void addingToFullQueue_shouldThrowException() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(1);
+        queue.add(1);
+
+        assertThatThrownBy(() -> queue.add(2)).isInstanceOf(IllegalStateException.class);
+        assertThat(queue.size(), is(1));
+    }
+
+    @Test
+    public void puttingToFullQueue_shouldWaitForSpace() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(1);
+        queue.put(1);
+
+        CountDownLatch putting = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            putting.countDown();
+            queue.put(2);
+        });
+        producer.start();
+
+        assertThat(putting.await(2, SECONDS), is(true));
+        producer.join(100L);
+        assertThat(producer.isAlive(), is(true));
+        assertThat(queue.size(), is(1));
+
+        assertThat(queue.take(), is(1));
+        producer.join(2000L);
+        assertThat(producer.isAlive(), is(false));
+        assertThat(queue.poll(), is(2));
+    }
+
+    @Test
+    public void timedOfferToFullQueue_shouldFailAfterTimeout() throws Exception {
+        BoundedPriorityBlockingQueue<Integer> queue = new BoundedPriorityBlockingQueue<>(1);
+        queue.add(1);
+
+        assertThat(queue.offer(2, 50L, MILLISECONDS), is(false));
+        assertThat(queue.size(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingQueueWithoutCapacity_shouldThrowException() throws Exception {
+        new BoundedPriorityBlockingQueue<Integer>(0);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void boundedExecutor_shouldRejectTasksBeyondCapacity() throws Exception {
+        ExecutorService executor = RequestExecutors.newBoundedExecutor(1, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        try {
+            executor.execute(new Task(0, () -> {
+                try {
+                    latch.await(2, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            executor.execute(new Task(0, () -> {
+            })); // Queued
+            executor.execute(new Task(0, () -> {
+            })); // Rejected
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+}
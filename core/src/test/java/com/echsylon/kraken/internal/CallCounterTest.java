@@ -0,0 +1,290 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.Priority;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the non-blocking call rate limit management of the
+ * call counter.
+ */
+public class CallCounterTest {
+
+    @Test
+    public void schedulingWithinBudget_shouldRunTasksImmediatelyOnCallingThread() throws Exception {
+        CallCounter callCounter = new CallCounter(2); // limit 15, reduced by 1 per 3 sec
+        AtomicInteger counter = new AtomicInteger(0);
+
+        for (int i = 0; i < 15; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, counter::incrementAndGet);
+
+        assertThat(counter.get(), is(15));
+    }
+
+    @Test
+    public void schedulingBeyondBudget_shouldPostponeTaskWithoutBlockingCaller() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        CountDownLatch latch = new CountDownLatch(1);
+
+        for (int i = 0; i < 20; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            });
+
+        long start = System.currentTimeMillis();
+        callCounter.schedule(1, Priority.MARKET_DATA, latch::countDown);
+        long scheduled = System.currentTimeMillis();
+
+        assertThat(scheduled - start, is(lessThanOrEqualTo(100L)));
+        assertThat(latch.getCount(), is(1L));
+        assertThat(latch.await(2, SECONDS), is(true));
+        assertThat(System.currentTimeMillis() - start, is(greaterThanOrEqualTo(900L)));
+    }
+
+    @Test
+    public void millisUntilAvailable_shouldIncludePendingRequests() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+
+        assertThat(callCounter.getMillisUntilAvailable(20), is(0L));
+
+        for (int i = 0; i < 22; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            });
+
+        // Two pending requests and the requested cost make three units.
+        long millis = callCounter.getMillisUntilAvailable(1);
+        assertThat(millis, is(greaterThan(2900L)));
+        assertThat(millis, is(lessThanOrEqualTo(3000L)));
+    }
+
+    @Test
+    public void expensiveRequest_shouldBeAllowedOnIdleCallCounter() throws Exception {
+        CallCounter callCounter = new CallCounter(2); // limit 15, reduced by 1 per 3 sec
+        AtomicInteger counter = new AtomicInteger(0);
+
+        callCounter.schedule(20, Priority.MARKET_DATA, counter::incrementAndGet);
+
+        assertThat(counter.get(), is(1));
+    }
+
+    @Test
+    public void pendingRequests_shouldBeDispatchedInPriorityOrder() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        List<Priority> dispatched = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+
+        for (int i = 0; i < 20; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            });
+
+        callCounter.schedule(1, Priority.BULK_HISTORY, () -> {
+            dispatched.add(Priority.BULK_HISTORY);
+            latch.countDown();
+        });
+        callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            dispatched.add(Priority.MARKET_DATA);
+            latch.countDown();
+        });
+        callCounter.schedule(1, Priority.ACCOUNT, () -> {
+            dispatched.add(Priority.ACCOUNT);
+            latch.countDown();
+        });
+
+        assertThat(latch.await(5, SECONDS), is(true));
+        assertThat(dispatched.get(0), is(Priority.ACCOUNT));
+        assertThat(dispatched.get(1), is(Priority.MARKET_DATA));
+        assertThat(dispatched.get(2), is(Priority.BULK_HISTORY));
+    }
+
+    @Test
+    public void reservedHeadroom_shouldOnlyBeAvailableToOrderEntry() throws Exception {
+        CallCounter callCounter = new CallCounter(4, 5); // limit 20, 5 reserved
+        List<Priority> dispatched = new ArrayList<>();
+
+        for (int i = 0; i < 15; i++)
+            callCounter.schedule(1, Priority.BULK_HISTORY, () -> {
+            });
+
+        callCounter.schedule(1, Priority.BULK_HISTORY, () -> dispatched.add(Priority.BULK_HISTORY));
+        callCounter.schedule(1, Priority.ORDER_ENTRY, () -> dispatched.add(Priority.ORDER_ENTRY));
+
+        assertThat(dispatched.size(), is(1));
+        assertThat(dispatched, hasItems(Priority.ORDER_ENTRY));
+        assertThat(callCounter.getMillisUntilAvailable(1, Priority.ORDER_ENTRY), is(0L));
+        assertThat(callCounter.getMillisUntilAvailable(1, Priority.BULK_HISTORY), is(greaterThan(1000L)));
+    }
+
+    @Test
+    public void raisedReservation_shouldBeDispatchedAheadOfLowerPriorities() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        List<Priority> dispatched = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+
+        for (int i = 0; i < 20; i++)
+            callCounter.schedule(1, Priority.BULK_HISTORY, () -> {
+            });
+
+        CallCounter.Reservation raised = callCounter.schedule(1, Priority.BULK_HISTORY, () -> {
+            dispatched.add(Priority.BULK_HISTORY);
+            latch.countDown();
+        });
+        callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            dispatched.add(Priority.MARKET_DATA);
+            latch.countDown();
+        });
+
+        raised.raise(Priority.ACCOUNT);
+
+        assertThat(latch.await(5, SECONDS), is(true));
+        assertThat(dispatched.get(0), is(Priority.BULK_HISTORY));
+        assertThat(dispatched.get(1), is(Priority.MARKET_DATA));
+    }
+
+    @Test
+    public void rateLimitExceeded_shouldHalveMaxCountAndBackOff() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        AtomicInteger counter = new AtomicInteger(0);
+
+        callCounter.onRateLimitExceeded(System.currentTimeMillis());
+        CallCounter.Status status = callCounter.getStatus();
+        assertThat(status.effectiveMaxCount, is(10.0D));
+        assertThat(status.remainingBackoffMillis, is(greaterThan(900L)));
+
+        // Requests with a cost wait for the back off, free requests don't.
+        callCounter.schedule(1, Priority.MARKET_DATA, counter::incrementAndGet);
+        callCounter.schedule(0, Priority.ORDER_ENTRY, counter::incrementAndGet);
+        assertThat(counter.get(), is(1));
+        assertThat(callCounter.getMillisUntilAvailable(1), is(greaterThan(900L)));
+    }
+
+    @Test
+    public void consecutiveRateLimitErrors_shouldGrowBackOffExponentially() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+
+        callCounter.onRateLimitExceeded(System.currentTimeMillis());
+        long first = callCounter.getStatus().remainingBackoffMillis;
+        callCounter.onRateLimitExceeded(System.currentTimeMillis() + first);
+        long second = callCounter.getStatus().remainingBackoffMillis;
+
+        assertThat(second, is(greaterThan(first)));
+        assertThat(callCounter.getStatus().effectiveMaxCount, is(5.0D));
+    }
+
+    @Test
+    public void concurrentRateLimitErrors_shouldOnlyHalveMaxCountOnce() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+
+        // Five requests in flight at the same time are all rejected.
+        long sentAt = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++)
+            callCounter.onRateLimitExceeded(sentAt);
+
+        CallCounter.Status status = callCounter.getStatus();
+        assertThat(status.effectiveMaxCount, is(10.0D));
+        assertThat(status.remainingBackoffMillis, is(lessThanOrEqualTo(1000L)));
+    }
+
+    @Test
+    public void freeRequestAfterRateLimitError_shouldRunImmediately() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        AtomicInteger counter = new AtomicInteger(0);
+
+        for (int i = 0; i < 6; i++)
+            callCounter.schedule(2, Priority.BULK_HISTORY, () -> {
+            });
+
+        callCounter.onRateLimitExceeded(System.currentTimeMillis());
+        callCounter.schedule(0, Priority.ORDER_ENTRY, counter::incrementAndGet);
+
+        assertThat(counter.get(), is(1));
+        assertThat(callCounter.getMillisUntilAvailable(0, Priority.ORDER_ENTRY), is(0L));
+    }
+
+    @Test
+    public void successOfRequestSentBeforeRateLimitError_shouldNotResetBackOff() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+
+        long inFlightSentAt = System.currentTimeMillis();
+        callCounter.onRateLimitExceeded(System.currentTimeMillis());
+        long first = callCounter.getStatus().remainingBackoffMillis;
+
+        // Requests in flight during the rejection keep succeeding.
+        callCounter.onRequestSucceeded(inFlightSentAt);
+        callCounter.onRequestSucceeded(System.currentTimeMillis());
+        assertThat(callCounter.getStatus().effectiveMaxCount, is(10.0D));
+
+        callCounter.onRateLimitExceeded(System.currentTimeMillis() + first);
+        long second = callCounter.getStatus().remainingBackoffMillis;
+
+        assertThat(second, is(greaterThan(first)));
+        assertThat(callCounter.getStatus().effectiveMaxCount, is(5.0D));
+    }
+
+    @Test
+    public void successfulRequests_shouldProbeMaxCountUpToCeiling() throws Exception {
+        CallCounter callCounter = new CallCounter(4, 0, 22); // limit 20, ceiling 22
+
+        callCounter.onRateLimitExceeded(System.currentTimeMillis());
+        long sentAt = System.currentTimeMillis() + callCounter.getStatus().remainingBackoffMillis;
+        for (int i = 0; i < 10; i++)
+            callCounter.onRequestSucceeded(sentAt);
+
+        double probed = callCounter.getStatus().effectiveMaxCount;
+        assertThat(probed, is(greaterThan(10.0D)));
+        assertThat(probed, is(lessThanOrEqualTo(11.0D)));
+        assertThat(callCounter.getStatus().remainingBackoffMillis, is(greaterThan(0L)));
+
+        for (int i = 0; i < 1000; i++)
+            callCounter.onRequestSucceeded(sentAt);
+
+        assertThat(callCounter.getStatus().effectiveMaxCount, is(22.0D));
+    }
+
+    @Test
+    public void releasingPendingRequest_shouldNeverChargeItsCost() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+        AtomicInteger counter = new AtomicInteger(0);
+
+        for (int i = 0; i < 20; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            });
+
+        Runnable release = callCounter.schedule(5, Priority.MARKET_DATA, counter::incrementAndGet);
+        assertThat(callCounter.getMillisUntilAvailable(1), is(greaterThan(5000L)));
+
+        release.run();
+        assertThat(callCounter.getMillisUntilAvailable(1), is(lessThanOrEqualTo(1000L)));
+
+        Thread.sleep(1500L);
+        assertThat(counter.get(), is(0));
+    }
+
+    @Test
+    public void releasingDispatchedRequest_shouldRefundItsCost() throws Exception {
+        CallCounter callCounter = new CallCounter(4); // limit 20, reduced by 1 per sec
+
+        for (int i = 0; i < 19; i++)
+            callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+            });
+
+        Runnable release = callCounter.schedule(1, Priority.MARKET_DATA, () -> {
+        });
+        assertThat(callCounter.getMillisUntilAvailable(1), is(greaterThan(0L)));
+
+        release.run();
+        assertThat(callCounter.getMillisUntilAvailable(1), is(0L));
+    }
+}
@@ -0,0 +1,65 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.dto.Order;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the generated streaming type adapters.
+ */
+public class GeneratedTypeAdaptersTest {
+
+    @Test
+    public void checkedInSource_shouldMatchGeneratedSource() throws Exception {
+        byte[] bytes = Files.readAllBytes(new File(TypeAdapterGenerator.TARGET).toPath());
+        assertThat("GeneratedTypeAdapters.java is out of date, run ./gradlew :core:generateTypeAdapters",
+                new String(bytes, StandardCharsets.UTF_8),
+                is(TypeAdapterGenerator.generate()));
+    }
+
+    @Test
+    public void parsingOrder_shouldReadNestedObjectsAndSkipUnknownAttributes() throws Exception {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new KrakenTypeAdapterFactory())
+                .create();
+
+        TypeAdapter<Order> adapter = gson.getAdapter(Order.class);
+        assertThat(adapter, is(instanceOf(KrakenTypeAdapterFactory.ReadOnlyTypeAdapter.class)));
+
+        Order order = adapter.fromJson("{" +
+                "\"refid\": null," +
+                "\"unknown\": {\"nested\": [1, 2, 3]}," +
+                "\"userref\": 12," +
+                "\"status\": \"open\"," +
+                "\"opentm\": 1507654891.1234," +
+                "\"descr\": {\"pair\": \"XETHZEUR\", \"type\": \"buy\"}," +
+                "\"vol\": \"1.00000000\"," +
+                "\"oflags\": \"fciq\"," +
+                "\"trades\": [\"TRADE-1\", \"TRADE-2\"]" +
+                "}");
+
+        assertThat(order.referenceId, is(nullValue()));
+        assertThat(order.userReference, is("12"));
+        assertThat(order.status, is("open"));
+        assertThat(order.openTime, is(1507654891.1234D));
+        assertThat(order.closeTime, is(0D));
+        assertThat(order.description.pair, is("XETHZEUR"));
+        assertThat(order.description.type, is("buy"));
+        assertThat(order.volume, is("1.00000000"));
+        assertThat(order.orderFlags, is("fciq"));
+        assertThat(order.trades, is(new String[]{"TRADE-1", "TRADE-2"}));
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Trade;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+
+import okio.Buffer;
+
+/**
+ * This benchmark measures the per call cost of parsing a Kraken response with
+ * the shared {@link JsonParser} context compared to building a new Gson
+ * instance for each call, and of streaming a large response straight from the
+ * source compared to buffering it in a string first. It's not part of the unit
+ * test suite, run it manually:
+ * <pre>
+ *     java -cp ... com.echsylon.kraken.internal.JsonParserBenchmark
+ * </pre>
+ * The allocation metrics are read from the thread MX bean of the JVM, where
+ * supported (HotSpot). Elsewhere only the latency figures are reported.
+ */
+public final class JsonParserBenchmark {
+
+    /**
+     * Describes the Kraken response envelope the way it was parsed before the
+     * shared streaming context existed.
+     */
+    @SuppressWarnings("unused")
+    private static final class Response<T> {
+        @SerializedName("error")
+        private String[] error;
+        @SerializedName("result")
+        private T result;
+    }
+
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int ITERATIONS = 2000;
+
+    private static final String JSON = "{'error': [], 'result': {" +
+            " 'XXBTZEUR': {" +
+            "  'a': ['3631.30000', '1', '1.000']," +
+            "  'b': ['3630.10000', '2', '2.000']," +
+            "  'c': ['3631.30000', '0.01000000']," +
+            "  'v': ['1520.43016471', '3112.64524633']," +
+            "  'p': ['3607.54216', '3624.04811']," +
+            "  't': [5683, 11424]," +
+            "  'l': ['3566.00000', '3566.00000']," +
+            "  'h': ['3661.90000', '3688.30000']," +
+            "  'o': '3612.70000'}}}";
+
+    private static final Type TYPE_OF_RESULT =
+            TypeToken.getParameterized(Dictionary.class, Ticker.class).getType();
+
+    private static final Type TYPE_OF_TRADES =
+            TypeToken.getParameterized(Dictionary.class, Trade[].class).getType();
+
+
+    private JsonParserBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        sharedContextVersusFreshGson();
+        streamedVersusBufferedTrades();
+    }
+
+
+    private static void sharedContextVersusFreshGson() {
+        Runnable fresh = () -> new GsonBuilder()
+                .registerTypeAdapterFactory(new KrakenTypeAdapterFactory())
+                .create()
+                .fromJson(JSON, TypeToken.getParameterized(Response.class, TYPE_OF_RESULT).getType());
+
+        Runnable shared = () -> JsonParser.parse(JSON, TYPE_OF_RESULT);
+
+        measure(fresh, WARMUP_ITERATIONS);
+        measure(shared, WARMUP_ITERATIONS);
+
+        report("Fresh Gson", measure(fresh, ITERATIONS));
+        report("Shared Gson", measure(shared, ITERATIONS));
+    }
+
+    private static void streamedVersusBufferedTrades() throws UnsupportedEncodingException {
+        StringBuilder builder = new StringBuilder("{'error': [], 'result': {'XETHZEUR': [");
+        for (int i = 0; i < 1000; i++)
+            builder.append(i == 0 ? "" : ",").append("['271.49021','0.72000000',1503524391.0341,'s','l','']");
+        builder.append("], 'last':'1503524404183915423'}}");
+        byte[] bytes = builder.toString().getBytes("UTF-8");
+
+        // Both sides use the same shared result adapter. The buffered side
+        // reads the full body into a string before parsing it.
+        Runnable buffered = () -> JsonParser.parse(new Buffer().write(bytes).readUtf8(), TYPE_OF_TRADES);
+
+        Runnable streamed = () -> {
+            try {
+                JsonParser.parse(new Buffer().write(bytes), TYPE_OF_TRADES);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        };
+
+        measure(buffered, WARMUP_ITERATIONS / 10);
+        measure(streamed, WARMUP_ITERATIONS / 10);
+
+        report("Buffered trades", measure(buffered, ITERATIONS / 10));
+        report("Streamed trades", measure(streamed, ITERATIONS / 10));
+    }
+
+
+    /**
+     * Runs the given task repeatedly and measures the average allocation and
+     * latency per call.
+     *
+     * @param task       The task to measure.
+     * @param iterations The number of times to run the task.
+     * @return The average allocated bytes, or -1 if not supported, and
+     * nanoseconds per call, in that order.
+     */
+    private static long[] measure(Runnable task, int iterations) {
+        long bytesBefore = getAllocatedBytes();
+        long timeBefore = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++)
+            task.run();
+
+        long timeAfter = System.nanoTime();
+        long bytesAfter = getAllocatedBytes();
+
+        return new long[]{
+                bytesBefore >= 0L ? (bytesAfter - bytesBefore) / iterations : -1L,
+                (timeAfter - timeBefore) / iterations};
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return The allocated bytes or -1 if the JVM can't tell.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ?
+                ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId()) :
+                -1L;
+    }
+
+    private static void report(String name, long[] metrics) {
+        System.out.printf("%-16s %d bytes/call, %d ns/call%n", name + ":", metrics[0], metrics[1]);
+    }
+
+}
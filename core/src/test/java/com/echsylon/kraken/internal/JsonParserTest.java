@@ -0,0 +1,28 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.dto.Ticker;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the shared JSON parsing context.
+ */
+public class JsonParserTest {
+
+    @Test
+    public void resolvingResultAdapter_shouldReuseCachedInstance() throws Exception {
+        Type typeOfResult = TypeToken.getParameterized(Dictionary.class, Ticker.class).getType();
+        Type otherTypeOfResult = TypeToken.getParameterized(Dictionary.class, Ticker.class).getType();
+        assertThat(JsonParser.getResultAdapter(typeOfResult),
+                is(sameInstance(JsonParser.getResultAdapter(otherTypeOfResult))));
+    }
+
+}
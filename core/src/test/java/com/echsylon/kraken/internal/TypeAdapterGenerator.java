@@ -0,0 +1,321 @@
+package com.echsylon.kraken.internal;
+
+import com.echsylon.kraken.dto.Asset;
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.dto.DecimalDepth;
+import com.echsylon.kraken.dto.DepositAddress;
+import com.echsylon.kraken.dto.DepositMethod;
+import com.echsylon.kraken.dto.DepositStatus;
+import com.echsylon.kraken.dto.Depth;
+import com.echsylon.kraken.dto.Ledger;
+import com.echsylon.kraken.dto.Order;
+import com.echsylon.kraken.dto.OrderAddReceipt;
+import com.echsylon.kraken.dto.OrderCancelReceipt;
+import com.echsylon.kraken.dto.Position;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Time;
+import com.echsylon.kraken.dto.TradeBalance;
+import com.echsylon.kraken.dto.TradeHistory;
+import com.echsylon.kraken.dto.TradeVolume;
+import com.echsylon.kraken.dto.WithdrawInfo;
+import com.echsylon.kraken.dto.WithdrawReceipt;
+import com.echsylon.kraken.dto.WithdrawStatus;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * This class generates the streaming JSON type adapters of all domain objects
+ * that Kraken delivers as JSON objects, from their public fields and any
+ * {@code SerializedName} annotations. Domain objects that Kraken delivers as
+ * tuples have hand written type adapters in {@code KrakenTypeAdapterFactory}.
+ * <p>
+ * Run it, with the target file as argument, whenever a domain object changes:
+ * <pre>
+ *     ./gradlew :core:generateTypeAdapters
+ * </pre>
+ * The {@code GeneratedTypeAdaptersTest} fails if the checked in source is out
+ * of date.
+ */
+public final class TypeAdapterGenerator {
+    static final String TARGET = "src/main/java/com/echsylon/kraken/internal/GeneratedTypeAdapters.java";
+
+    private static final Class<?>[] TYPES = {
+            Asset.class,
+            AssetPair.class,
+            DepositAddress.class,
+            DepositMethod.class,
+            DepositStatus.class,
+            DecimalDepth.class,
+            Depth.class,
+            Ledger.class,
+            Order.class,
+            Order.Description.class,
+            OrderAddReceipt.class,
+            OrderAddReceipt.Description.class,
+            OrderCancelReceipt.class,
+            Position.class,
+            Ticker.class,
+            Time.class,
+            TradeBalance.class,
+            TradeHistory.class,
+            TradeVolume.class,
+            TradeVolume.FeeInfo.class,
+            WithdrawInfo.class,
+            WithdrawReceipt.class,
+            WithdrawStatus.class
+    };
+
+    private final TreeSet<String> imports = new TreeSet<>();
+    private final StringBuilder body = new StringBuilder();
+
+
+    public static void main(String[] args) throws IOException {
+        File target = new File(args.length > 0 ? args[0] : TARGET);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8)) {
+            writer.write(generate());
+        }
+    }
+
+    /**
+     * Generates the full source of the {@code GeneratedTypeAdapters} class.
+     *
+     * @return The Java source.
+     */
+    static String generate() {
+        return new TypeAdapterGenerator().render();
+    }
+
+    private String render() {
+        imports.add("com.google.gson.Gson");
+        imports.add("com.google.gson.TypeAdapter");
+        imports.add("com.google.gson.stream.JsonReader");
+        imports.add("com.google.gson.stream.JsonToken");
+        imports.add("java.io.IOException");
+        imports.add("java.util.Map");
+        imports.add("java.util.Set");
+
+        line(0, "/**");
+        line(0, " * This class holds the streaming JSON type adapters of the Kraken domain");
+        line(0, " * objects. The adapters read the JSON straight into the public fields of the");
+        line(0, " * objects, without any reflection, and skip any unknown attributes. Any");
+        line(0, " * attributes outside a given projection are skipped as well.");
+        line(0, " * <p>");
+        line(0, " * GENERATED CODE. Don't edit, run {@code ./gradlew :core:generateTypeAdapters}");
+        line(0, " * instead.");
+        line(0, " */");
+        line(0, "final class GeneratedTypeAdapters {");
+        line(0, "");
+        line(1, "private GeneratedTypeAdapters() {");
+        line(1, "}");
+        line(0, "");
+        line(1, "/**");
+        line(1, " * Registers the type adapter creators of all generated type adapters.");
+        line(1, " *");
+        line(1, " * @param creators The type adapter creators, by class.");
+        line(1, " */");
+        line(1, "static void register(final Map<Class<?>, KrakenTypeAdapterFactory.Creator> creators) {");
+        for (Class<?> type : TYPES)
+            line(2, "creators.put(" + typeName(type) + ".class, (gson, type, factory) -> new " + adapterName(type) + "(gson, factory.projection));");
+        line(1, "}");
+
+        for (Class<?> type : TYPES)
+            adapter(type);
+
+        line(0, "");
+        line(0, "}");
+
+        StringBuilder source = new StringBuilder()
+                .append("package com.echsylon.kraken.internal;\n\n");
+
+        String group = null;
+        for (String name : imports) {
+            String prefix = name.startsWith("java.") ? "java" : "other";
+            if (group != null && !group.equals(prefix))
+                source.append('\n');
+            group = prefix;
+            source.append("import ").append(name).append(";\n");
+        }
+
+        return source.append('\n').append(body).toString();
+    }
+
+    private void adapter(final Class<?> type) {
+        String typeName = typeName(type);
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields())
+            if (Modifier.isPublic(field.getModifiers()) &&
+                    !Modifier.isStatic(field.getModifiers()) &&
+                    !Modifier.isTransient(field.getModifiers()))
+                fields.add(field);
+
+        List<Field> delegated = new ArrayList<>();
+        for (Field field : fields)
+            if (reader(field) == null)
+                delegated.add(field);
+
+        line(0, "");
+        line(0, "");
+        line(1, "private static final class " + adapterName(type) + " extends KrakenTypeAdapterFactory.ReadOnlyTypeAdapter<" + typeName + "> {");
+        line(2, "private final Set<String> projection;");
+        for (Field field : delegated)
+            line(2, "private final TypeAdapter<" + typeName(field.getGenericType()) + "> " + field.getName() + "Adapter;");
+        line(0, "");
+
+        boolean unchecked = false;
+        for (Field field : delegated)
+            unchecked |= field.getGenericType() instanceof ParameterizedType;
+        if (unchecked)
+            line(2, "@SuppressWarnings(\"unchecked\")");
+        line(2, "private " + adapterName(type) + "(final Gson gson, final Set<String> projection) {");
+        line(3, "this.projection = projection;");
+        for (Field field : delegated) {
+            Type fieldType = field.getGenericType();
+            if (fieldType instanceof ParameterizedType) {
+                imports.add("com.google.gson.reflect.TypeToken");
+                line(3, field.getName() + "Adapter = (TypeAdapter<" + typeName(fieldType) + ">) gson.getAdapter(" + typeToken(fieldType) + ");");
+            } else {
+                line(3, field.getName() + "Adapter = gson.getAdapter(" + typeName(fieldType) + ".class);");
+            }
+        }
+        line(2, "}");
+        line(0, "");
+        line(2, "@Override");
+        line(2, "public " + typeName + " read(JsonReader in) throws IOException {");
+        line(3, "if (in.peek() == JsonToken.NULL) {");
+        line(4, "in.nextNull();");
+        line(4, "return null;");
+        line(3, "}");
+        line(0, "");
+        line(3, typeName + " result = new " + typeName + "();");
+        line(3, "in.beginObject();");
+        line(3, "while (in.hasNext()) {");
+        line(4, "String name = in.nextName();");
+        line(4, "if (projection != null && !projection.contains(name)) {");
+        line(5, "in.skipValue();");
+        line(5, "continue;");
+        line(4, "}");
+        line(0, "");
+        line(4, "switch (name) {");
+        for (Field field : fields) {
+            String reader = reader(field);
+            line(5, "case \"" + jsonName(field) + "\":");
+            line(6, "result." + field.getName() + " = " + (reader != null ?
+                    reader :
+                    field.getName() + "Adapter.read(in)") + ";");
+            line(6, "break;");
+        }
+        line(5, "default:");
+        line(6, "in.skipValue();");
+        line(6, "break;");
+        line(4, "}");
+        line(3, "}");
+        line(3, "in.endObject();");
+        line(3, "return result;");
+        line(2, "}");
+        line(1, "}");
+    }
+
+    /**
+     * Returns the expression reading the value of the given field, or null if
+     * the field needs a delegate type adapter.
+     */
+    private static String reader(final Field field) {
+        Class<?> type = field.getType();
+        String current = "result." + field.getName();
+        if (type == String.class)
+            return "JsonValues.readString(in)";
+        if (type == long.class)
+            return "JsonValues.readLong(in, " + current + ")";
+        if (type == double.class)
+            return "JsonValues.readDouble(in, " + current + ")";
+        if (type == int.class)
+            return "JsonValues.readInt(in, " + current + ")";
+        if (type == boolean.class)
+            return "JsonValues.readBoolean(in, " + current + ")";
+        if (type == Long.class)
+            return "JsonValues.readLongOrNull(in)";
+        if (type == Double.class)
+            return "JsonValues.readDoubleOrNull(in)";
+        if (type == Integer.class)
+            return "JsonValues.readIntOrNull(in)";
+        if (type == Boolean.class)
+            return "JsonValues.readBooleanOrNull(in)";
+        return null;
+    }
+
+    private static String jsonName(final Field field) {
+        SerializedName annotation = field.getAnnotation(SerializedName.class);
+        return annotation != null ? annotation.value() : field.getName();
+    }
+
+    private static String adapterName(final Class<?> type) {
+        return name(type).replace(".", "") + "Adapter";
+    }
+
+    /**
+     * Returns the name of the given class relative to its package, like
+     * "Order.Description".
+     */
+    private static String name(final Class<?> type) {
+        String packageName = type.getPackage().getName();
+        return type.getCanonicalName().substring(packageName.length() + 1);
+    }
+
+    private String typeName(final Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            StringBuilder builder = new StringBuilder(typeName(parameterized.getRawType())).append('<');
+            Type[] arguments = parameterized.getActualTypeArguments();
+            for (int i = 0; i < arguments.length; i++)
+                builder.append(i > 0 ? ", " : "").append(typeName(arguments[i]));
+            return builder.append('>').toString();
+        }
+
+        Class<?> clazz = (Class<?>) type;
+        if (clazz.isArray())
+            return typeName(clazz.getComponentType()) + "[]";
+        if (clazz.isPrimitive() || "java.lang".equals(clazz.getPackage().getName()))
+            return clazz.getSimpleName();
+
+        Class<?> topLevel = clazz;
+        while (topLevel.getEnclosingClass() != null)
+            topLevel = topLevel.getEnclosingClass();
+        imports.add(topLevel.getName());
+        return name(clazz);
+    }
+
+    private String typeToken(final Type type) {
+        if (!(type instanceof ParameterizedType))
+            return typeName(type) + ".class";
+
+        ParameterizedType parameterized = (ParameterizedType) type;
+        StringBuilder builder = new StringBuilder("TypeToken.getParameterized(")
+                .append(typeName(parameterized.getRawType())).append(".class");
+        for (Type argument : parameterized.getActualTypeArguments())
+            builder.append(", ").append(argument instanceof ParameterizedType ?
+                    typeToken(argument) + ".getType()" :
+                    typeName(argument) + ".class");
+        return builder.append(')').toString();
+    }
+
+    private void line(final int indent, final String text) {
+        if (!text.isEmpty())
+            for (int i = 0; i < indent; i++)
+                body.append("    ");
+        body.append(text).append('\n');
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.echsylon.kraken.internal;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the platform independent encoding helpers.
+ */
+public class UtilsTest {
+
+    @Test
+    public void composingMessage_shouldPercentEncodeReservedAndNonAsciiCharacters() throws Exception {
+        HashMap<String, String> data = new HashMap<>();
+        data.put("pair", "XETH ZEUR,a&b=c/\u20AC");
+
+        assertThat(Utils.composeMessage("0123", data),
+                is("nonce=0123&pair=XETH%20ZEUR%2Ca%26b%3Dc%2F%E2%82%AC"));
+    }
+
+    @Test
+    public void composingMessage_shouldLeaveUnreservedCharactersAsIs() throws Exception {
+        HashMap<String, String> data = new HashMap<>();
+        data.put("key", "aZ09_-!.~'()*");
+
+        assertThat(Utils.composeMessage(null, data), is("key=aZ09_-!.~'()*"));
+    }
+
+    @Test
+    public void composingEmptyMessage_shouldReturnNull() throws Exception {
+        assertThat(Utils.composeMessage(null, new HashMap<>()), is(nullValue()));
+    }
+
+    @Test
+    public void base64_shouldEncodeWithPaddingAndDecodeBack() throws Exception {
+        assertThat(Utils.base64Encode("".getBytes("UTF-8")), is(""));
+        assertThat(Utils.base64Encode("f".getBytes("UTF-8")), is("Zg=="));
+        assertThat(Utils.base64Encode("fo".getBytes("UTF-8")), is("Zm8="));
+        assertThat(Utils.base64Encode("foo".getBytes("UTF-8")), is("Zm9v"));
+        assertThat(Utils.base64Encode(new byte[]{(byte) 0xFB, (byte) 0xFF}), is("+/8="));
+
+        assertThat(new String(Utils.base64Decode("Zm9vYmE="), "UTF-8"), is("fooba"));
+        assertThat(new String(Utils.base64Decode("Zm9v\nYmE"), "UTF-8"), is("fooba"));
+        assertThat(Utils.base64Decode("+/8=")[1], is((byte) 0xFF));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodingInvalidBase64_shouldThrowException() throws Exception {
+        Utils.base64Decode("Zm9v#");
+    }
+
+}
@@ -1,13 +1,11 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -24,22 +22,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class AccountBalanceTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingAccountBalance_shouldReturnMapOfParsedKeyValuePairs() throws Exception {
-        atlantis = startMockServer("POST", "/0/private/Balance",
+        server = startMockServer("POST", "/0/private/Balance",
                 "{'error': [], 'result': {" +
                         " 'ZEUR': '0.0000'," +
                         " 'XETH': '21.1589468600'}}");
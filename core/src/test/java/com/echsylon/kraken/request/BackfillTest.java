@@ -0,0 +1,208 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Ledger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the parallel, time windowed, backfill of time
+ * ranged and offset paged requests.
+ */
+public class BackfillTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void backfill_shouldDeliverAllEntriesInTimeOrder() throws Exception {
+        server = startLedgerMockServer(300);
+
+        List<Double> times = new ArrayList<>();
+        getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .useWindowSize(100L)
+                .useParallelism(3)
+                .run((id, ledger) -> times.add(ledger.time));
+
+        assertThat(times.size(), is(300));
+        for (int i = 0; i < times.size(); i++)
+            assertThat(times.get(i), is(i + 1D));
+
+        // Three windows of two pages each.
+        assertThat(server.getRequestCount(), is(6));
+    }
+
+    @Test
+    public void backfill_shouldResumeFromCheckpoint() throws Exception {
+        server = startLedgerMockServer(300);
+
+        File checkpoint = folder.newFile("ledgers.checkpoint");
+        try (Writer writer = new FileWriter(checkpoint)) {
+            writer.write("start=200\nend=300\n");
+        }
+
+        List<Double> times = new ArrayList<>();
+        getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .useWindowSize(100L)
+                .useCheckpoint(checkpoint)
+                .run((id, ledger) -> times.add(ledger.time));
+
+        assertThat(times.size(), is(100));
+        assertThat(times.get(0), is(201D));
+        assertThat(times.get(99), is(300D));
+    }
+
+    @Test
+    public void interruptedBackfill_shouldLeaveCheckpointAfterLastDeliveredWindow() throws Exception {
+        server = startLedgerMockServer(300);
+
+        File checkpoint = new File(folder.getRoot(), "ledgers.checkpoint");
+        List<Double> times = new ArrayList<>();
+
+        assertThatThrownBy(() -> getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .useWindowSize(100L)
+                .useCheckpoint(checkpoint)
+                .run((id, ledger) -> {
+                    if (ledger.time > 150D)
+                        throw new IOException("Disk full");
+                    times.add(ledger.time);
+                }))
+                .isInstanceOf(IOException.class);
+
+        assertThat(times.size(), is(150));
+
+        times.clear();
+        getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .useWindowSize(100L)
+                .useCheckpoint(checkpoint)
+                .run((id, ledger) -> times.add(ledger.time));
+
+        assertThat(times.size(), is(200));
+        assertThat(times.get(0), is(101D));
+    }
+
+    @Test
+    public void deliveredWindows_shouldBeReleased() throws Exception {
+        server = startLedgerMockServer(300);
+
+        AtomicReference<WeakReference<Ledger>> first = new AtomicReference<>();
+        AtomicBoolean released = new AtomicBoolean(false);
+        getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .useWindowSize(100L)
+                .useParallelism(1)
+                .run((id, ledger) -> {
+                    if (first.get() == null)
+                        first.set(new WeakReference<>(ledger));
+
+                    // The first window has been delivered, and released, by
+                    // the time the last window is delivered.
+                    if (ledger.time == 300D) {
+                        for (int i = 0; i < 20 && first.get().get() != null; i++) {
+                            System.gc();
+                            System.runFinalization();
+                        }
+                        released.set(first.get().get() == null);
+                    }
+                });
+
+        assertThat(released.get(), is(true));
+    }
+
+    @Test
+    public void failingRequest_shouldFailTheBackfill() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{'error': ['EGeneral:Internal error']}");
+            }
+        });
+        server.start(8080);
+
+        assertThatThrownBy(() -> getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .backfill(0L, 300L)
+                .run((id, ledger) -> {
+                }))
+                .isInstanceOf(KrakenRequestException.class);
+    }
+
+
+    /**
+     * Starts a mock server serving the given number of ledger entries, one
+     * per second from time 1, newest first, in pages of 50.
+     */
+    private static MockWebServer startLedgerMockServer(int total) throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Map<String, String> parameters = new HashMap<>();
+                for (String parameter : request.getBody().readUtf8().split("&")) {
+                    String[] pair = parameter.split("=", 2);
+                    parameters.put(pair[0], pair.length > 1 ? pair[1] : "");
+                }
+
+                int start = Integer.parseInt(parameters.get("start"));
+                int end = Math.min(Integer.parseInt(parameters.get("end")), total);
+                int ofs = Integer.parseInt(parameters.get("ofs"));
+
+                StringBuilder page = new StringBuilder();
+                for (int time = end - ofs; time > end - ofs - 50 && time > start; time--)
+                    page.append(page.length() > 0 ? "," : "")
+                            .append("'LEDGER-").append(time).append("': {'time': ").append(time).append("}");
+
+                return new MockResponse().setBody("{'error': [], 'result': {" +
+                        "'ledger': {" + page + "}, 'count': " + (end - start) + "}}");
+            }
+        });
+
+        server.start(8080);
+        return server;
+    }
+
+}
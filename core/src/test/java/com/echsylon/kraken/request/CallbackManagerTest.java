@@ -0,0 +1,66 @@
+package com.echsylon.kraken.request;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the delivery of results to the attached
+ * listeners.
+ */
+public class CallbackManagerTest {
+
+    @Test
+    public void addingListenersWhileDeliveringOnWorkerThread_shouldCallEachListenerOnce() throws Exception {
+        for (int i = 0; i < 20000; i++) {
+            CallbackManager<String> callbackManager = new CallbackManager<>(Runnable::run);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            AtomicInteger successes = new AtomicInteger(0);
+            AtomicInteger finishes = new AtomicInteger(0);
+
+            Thread worker = new Thread(() -> {
+                await(barrier);
+                callbackManager.deliverSuccess("result");
+            });
+            worker.start();
+
+            await(barrier);
+            callbackManager.addFinishListener(finishes::incrementAndGet);
+            callbackManager.addSuccessListener(result -> successes.incrementAndGet());
+            worker.join();
+
+            assertThat(finishes.get(), is(1));
+            assertThat(successes.get(), is(1));
+        }
+    }
+
+    @Test
+    public void addingSuccessListenerAfterDelivery_shouldCallListenerWithResult() throws Exception {
+        CallbackManager<String> callbackManager = new CallbackManager<>(Runnable::run);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        callbackManager.deliverSuccess("result");
+        callbackManager.addSuccessListener(result -> {
+            if ("result".equals(result))
+                latch.countDown();
+        });
+
+        assertThat(latch.await(1, SECONDS), is(true));
+    }
+
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+}
@@ -1,14 +1,12 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 import com.echsylon.kraken.dto.Order;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -26,22 +24,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class ClosedOrdersTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingClosedOrders_shouldReturnParsedAndUnwrappedOrderObjects() throws Exception {
-        atlantis = startMockServer("POST", "/0/private/ClosedOrders",
+        server = startMockServer("POST", "/0/private/ClosedOrders",
                 "{'error': [], 'result': {" +
                         "'open': {" +
                         "  'ORDER-ID': {" +
@@ -109,4 +105,44 @@ public class ClosedOrdersTest {
         assertThat(description.order, is("buy 20.73170000 ETHEUR @ limit 82.00000"));
     }
 
+    @Test
+    public void requestingProjectedClosedOrders_shouldOnlyParseProjectedAttributes() throws Exception {
+        server = startMockServer("POST", "/0/private/ClosedOrders",
+                "{'error': [], 'result': {" +
+                        "'closed': {" +
+                        "  'ORDER-ID': {" +
+                        "    'status': 'closed'," +
+                        "    'closetm': 1495161357.6272," +
+                        "    'descr': {" +
+                        "      'pair': 'ETHEUR'," +
+                        "      'order': 'buy 20.73170000 ETHEUR @ limit 82.00000'}," +
+                        "    'vol': '20.73170000'," +
+                        "    'price': '82.00000'," +
+                        "    'misc': 'some,misc'," +
+                        "    'oflags': 'some,flags'," +
+                        "    'trades': ['TRADE-1', 'TRADE-2']}}," +
+                        "'count': 1}}");
+
+        String key = "key";
+        String secret = "c2VjcmV0";
+
+        Dictionary<Order> result = getKrakenInstance(key, secret)
+                .getClosedOrders()
+                .useProjection("closetm", "vol", "price")
+                .enqueue()
+                .get(10, SECONDS);
+
+        assertThat(result.count, is(1));
+
+        Order order = result.get("ORDER-ID");
+        assertThat(order.closeTime, is(1495161357.6272D));
+        assertThat(order.volume, is("20.73170000"));
+        assertThat(order.price, is("82.00000"));
+        assertThat(order.status, is(nullValue()));
+        assertThat(order.description, is(nullValue()));
+        assertThat(order.misc, is(nullValue()));
+        assertThat(order.orderFlags, is(nullValue()));
+        assertThat(order.trades, is(nullValue()));
+    }
+
 }
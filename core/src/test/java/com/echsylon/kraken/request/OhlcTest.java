@@ -1,14 +1,13 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 import com.echsylon.kraken.dto.Ohlc;
+import com.echsylon.kraken.dto.OhlcSeries;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -24,22 +23,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a
  * result is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class OhlcTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingOhlc_shouldReturnMapOfParsedOhlcObjects() throws Exception {
-        atlantis = startMockServer("GET", "/0/public/OHLC",
+        server = startMockServer("GET", "/0/public/OHLC",
                 "{'error': [], 'result': {" +
                         " 'XETHZEUR': [[" +
                         "   1503405000," +
@@ -71,4 +68,41 @@ public class OhlcTest {
         assertThat(ohlc.count, is(616));
     }
 
+    @Test
+    public void requestingOhlcSeries_shouldReturnMapOfColumnarSeries() throws Exception {
+        StringBuilder candles = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            candles.append(i == 0 ? "" : ",").append("[")
+                    .append(1503405000 + i * 60).append(",")
+                    .append("'268.00050','270.02758','267.51370','269.00106','268.70391','1365.04869100',")
+                    .append(i).append("]");
+
+        server = startMockServer("GET", "/0/public/OHLC",
+                "{'error': [], 'result': {" +
+                        " 'XETHZEUR': [" + candles + "]," +
+                        " 'last': 1503403200}}");
+
+        Dictionary<OhlcSeries> result = getKrakenInstance()
+                .getOhlcSeries(null)
+                .enqueue()
+                .get(10, SECONDS);
+
+        assertThat(result.size(), is(1));
+        assertThat(result.last, is("1503403200"));
+
+        OhlcSeries series = result.get("XETHZEUR");
+        assertThat(series.size, is(100));
+        assertThat(series.time.length, is(100));
+        assertThat(series.count.length, is(100));
+        assertThat(series.time[0], is(1503405000L));
+        assertThat(series.time[99], is(1503405000L + 99 * 60));
+        assertThat(series.open[0], is(268.0005D));
+        assertThat(series.high[0], is(270.02758D));
+        assertThat(series.low[0], is(267.5137D));
+        assertThat(series.close[0], is(269.00106D));
+        assertThat(series.volumeWeightedAveragePrice[0], is(268.70391D));
+        assertThat(series.volume[0], is(1365.048691D));
+        assertThat(series.count[99], is(99));
+    }
+
 }
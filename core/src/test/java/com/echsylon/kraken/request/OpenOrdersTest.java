@@ -1,14 +1,12 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 import com.echsylon.kraken.dto.Order;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -26,22 +24,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class OpenOrdersTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingOpenOrders_shouldReturnParsedAndUnwrappedOrderObjects() throws Exception {
-        atlantis = startMockServer("POST", "/0/private/OpenOrders",
+        server = startMockServer("POST", "/0/private/OpenOrders",
                 "{'error': [], 'result': {" +
                         "'open': {" +
                         "  'ORDER-ID': {" +
@@ -112,4 +108,24 @@ public class OpenOrdersTest {
         assertThat(description.close, is(nullValue()));
     }
 
+    @Test
+    public void requestingOpenOrders_shouldDefaultAbsentTimesToZero() throws Exception {
+        server = startMockServer("POST", "/0/private/OpenOrders",
+                "{'error': [], 'result': {'open': {" +
+                        "  'ORDER-ID': {" +
+                        "    'status': 'open'," +
+                        "    'opentm': 1495104207.9914}}}}");
+
+        Dictionary<Order> result = getKrakenInstance("key", "c2VjcmV0")
+                .getOpenOrders()
+                .enqueue()
+                .get(10, SECONDS);
+
+        Order order = result.get("ORDER-ID");
+        assertThat(order.openTime, is(1495104207.9914D));
+        assertThat(order.closeTime, is(0D));
+        assertThat(order.startTime, is(0D));
+        assertThat(order.expireTime, is(0D));
+    }
+
 }
@@ -1,14 +1,15 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
+import com.echsylon.kraken.Decimal;
 import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.dto.AssetPair;
+import com.echsylon.kraken.dto.DecimalDepth;
 import com.echsylon.kraken.dto.Depth;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -25,22 +26,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class OrderBookTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingDepth_shouldReturnMapOfParsedDepthObject() throws Exception {
-        atlantis = startMockServer("GET", "/0/public/Depth",
+        server = startMockServer("GET", "/0/public/Depth",
                 "{'error': [], 'result': {" +
                         " 'XETHZEUR': {" +
                         "  'asks': [" +
@@ -74,4 +73,30 @@ public class OrderBookTest {
         assertThat(depth.bids[1].timestamp, is(1503523300L));
     }
 
+    @Test
+    public void requestingDecimalDepth_shouldRoundToScaleOfAssetPair() throws Exception {
+        server = startMockServer("GET", "/0/public/Depth",
+                "{'error': [], 'result': {" +
+                        " 'XETHZEUR': {" +
+                        "  'asks': [['271.13350','2.36849',1503523308]]," +
+                        "  'bids': [['271.07985','2.750',1503523300]]}}}");
+
+        AssetPair assetPair = new AssetPair();
+        assetPair.pairDecimals = 2;
+        assetPair.lotDecimals = 3;
+
+        Dictionary<DecimalDepth> result = getKrakenInstance()
+                .getDecimalOrderBook(null)
+                .useScaleOf(assetPair)
+                .enqueue()
+                .get(10, SECONDS);
+
+        DecimalDepth depth = result.get("XETHZEUR");
+        assertThat(depth.asks[0].price.toString(), is("271.13"));
+        assertThat(depth.asks[0].volume.toString(), is("2.368"));
+        assertThat(depth.asks[0].timestamp, is(1503523308L));
+        assertThat(depth.bids[0].price, is(Decimal.valueOf(27108L, 2)));
+        assertThat(depth.bids[0].volume.getScale(), is(3));
+    }
+
 }
@@ -0,0 +1,141 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Ledger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the iteration over all pages of an offset paged
+ * request.
+ */
+public class PagedIteratorTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void iteration_shouldDeliverAllEntriesAndStopAtCount() throws Exception {
+        List<Map<String, String>> requests = new ArrayList<>();
+        server = startPagingMockServer(120, 0, requests);
+
+        List<String> ids = new ArrayList<>();
+        PagedIterator<Ledger> iterator = getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .iterate();
+
+        while (iterator.hasNext())
+            ids.add(iterator.next().getKey());
+
+        assertThat(ids.size(), is(120));
+        assertThat(ids.get(0), is("LEDGER-119"));
+        assertThat(ids.get(119), is("LEDGER-0"));
+        assertThat(server.getRequestCount(), is(3));
+
+        // The first page pins the end of the result for the remaining ones.
+        assertThat(requests.get(0).get("end"), is(nullValue()));
+        assertThat(requests.get(1).get("end"), is("LEDGER-119"));
+        assertThat(requests.get(1).get("ofs"), is("50"));
+        assertThat(requests.get(2).get("ofs"), is("100"));
+    }
+
+    @Test
+    public void entriesArrivingMidScan_shouldNotShiftTheRemainingPages() throws Exception {
+        List<Map<String, String>> requests = new ArrayList<>();
+        server = startPagingMockServer(100, 5, requests);
+
+        List<String> ids = new ArrayList<>();
+        PagedIterator<Ledger> iterator = getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .iterate();
+
+        while (iterator.hasNext())
+            ids.add(iterator.next().getKey());
+
+        assertThat(ids.size(), is(100));
+        assertThat(ids.get(0), is("LEDGER-99"));
+        assertThat(ids.get(50), is("LEDGER-49"));
+        assertThat(ids.get(99), is("LEDGER-0"));
+    }
+
+    @Test
+    public void failingPage_shouldThrowFromHasNext() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': ['EGeneral:Internal error']}"));
+        server.start(8080);
+
+        PagedIterator<Ledger> iterator = getKrakenInstance("key", "c2VjcmV0")
+                .getLedgersInfo()
+                .iterate();
+
+        assertThatThrownBy(iterator::hasNext)
+                .isInstanceOf(KrakenRequestException.class);
+    }
+
+
+    /**
+     * Starts a mock server serving ledger entries, newest first, in pages of
+     * 50. The given number of new entries "arrive" once the first page has
+     * been served; they're only visible to requests without an end.
+     */
+    private static MockWebServer startPagingMockServer(int total, int arriving, List<Map<String, String>> requests) throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Map<String, String> parameters = new HashMap<>();
+                for (String parameter : request.getBody().readUtf8().split("&")) {
+                    String[] pair = parameter.split("=", 2);
+                    parameters.put(pair[0], pair.length > 1 ? pair[1] : "");
+                }
+
+                int served;
+                synchronized (requests) {
+                    served = requests.size();
+                    requests.add(parameters);
+                }
+
+                String end = parameters.get("end");
+                int ofs = parameters.containsKey("ofs") ? Integer.parseInt(parameters.get("ofs")) : 0;
+                int newest = end != null ?
+                        Integer.parseInt(end.substring("LEDGER-".length())) :
+                        total - 1 + (served > 0 ? arriving : 0);
+
+                StringBuilder page = new StringBuilder();
+                for (int i = newest - ofs; i > newest - ofs - 50 && i >= 0; i--)
+                    page.append(page.length() > 0 ? "," : "")
+                            .append("'LEDGER-").append(i).append("': {'time': ").append(i).append("}");
+
+                return new MockResponse().setBody("{'error': [], 'result': {" +
+                        "'ledger': {" + page + "}, 'count': " + (newest + 1) + "}}");
+            }
+        });
+
+        server.start(8080);
+        return server;
+    }
+
+}
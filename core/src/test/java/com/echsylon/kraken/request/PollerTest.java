@@ -0,0 +1,272 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Kraken;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.Spread;
+import com.echsylon.kraken.dto.Trade;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.echsylon.kraken.RequestExecutors.directExecutor;
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the polling of incremental requests, like the
+ * recent trades request.
+ */
+public class PollerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void pollingTrades_shouldDeliverEveryTradeSinceCursorAndMoveTheCursor() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['1.0','1.0',1.1,'s','l',''], ['2.0','1.0',1.2,'b','l','']]," +
+                "'last': '12'}}"));
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['2.0','1.0',1.2,'b','l',''], ['3.0','1.0',1.3,'b','l','']]," +
+                "'last': '13'}}"));
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': []," +
+                "'last': '13'}}"));
+        server.start(8080);
+
+        BlockingQueue<List<Trade>> deliveries = new LinkedBlockingQueue<>();
+        Poller<Trade> poller = getKrakenInstance()
+                .getRecentTrades("XETHZEUR")
+                .useCallbackExecutor(directExecutor())
+                .poll()
+                .useInterval(50L, 100L)
+                .start(deliveries::add, null);
+
+        List<Trade> first = deliveries.poll(2, SECONDS);
+        List<Trade> second = deliveries.poll(2, SECONDS);
+
+        // Identical values in consecutive polls are still distinct trades.
+        assertThat(first.size(), is(2));
+        assertThat(second.size(), is(2));
+        assertThat(second.get(0).price, is("2.0"));
+        assertThat(second.get(1).price, is("3.0"));
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getPath(), containsString("since=12"));
+
+        poller.stop();
+        assertThat(poller.getCursor(), is("13"));
+    }
+
+    @Test
+    public void pollingSpread_shouldDropRowsRepeatedByInclusiveCursor() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [[11,'1.0','2.0'], [12,'1.1','2.0']]," +
+                "'last': 12}}"));
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [[12,'1.1','2.0'], [13,'1.2','2.0']]," +
+                "'last': 13}}"));
+        server.start(8080);
+
+        BlockingQueue<List<Spread>> deliveries = new LinkedBlockingQueue<>();
+        Poller<Spread> poller = getKrakenInstance()
+                .getRecentSpreadData("XETHZEUR")
+                .useCallbackExecutor(directExecutor())
+                .poll()
+                .useInterval(50L, 100L)
+                .start(deliveries::add, null);
+
+        assertThat(deliveries.poll(2, SECONDS).size(), is(2));
+        List<Spread> second = deliveries.poll(2, SECONDS);
+        poller.stop();
+
+        assertThat(second.size(), is(1));
+        assertThat(second.get(0).timestamp, is(13L));
+    }
+
+    @Test
+    public void restartingPollerDuringPoll_shouldIgnoreThePreviousPoll() throws Exception {
+        server = new MockWebServer(); // Not used, but shut down after the test.
+        AtomicInteger launches = new AtomicInteger(0);
+        BlockingQueue<List<String>> deliveries = new LinkedBlockingQueue<>();
+        AtomicReference<Poller<String>> reference = new AtomicReference<>();
+
+        Poller<String> poller = new Poller<>("test", null, 0, null, directExecutor(),
+                since -> {
+                    Dictionary<String[]> result = new Dictionary<>();
+                    if (launches.incrementAndGet() == 1) {
+                        // Stop and start again before the first poll is
+                        // even registered as pending.
+                        reference.get().stop();
+                        reference.get().start(deliveries::add, null);
+                        result.put("rows", new String[]{"old"});
+                        result.last = "1";
+                    } else {
+                        result.put("rows", new String[]{"new"});
+                        result.last = "2";
+                    }
+
+                    Request<Dictionary<String[]>> request =
+                            new Request<>(Priority.MARKET_DATA, directExecutor(), null, () -> result);
+                    request.run();
+                    return request;
+                },
+                null);
+
+        reference.set(poller);
+        poller.useInterval(10000L, 10000L).start(deliveries::add, null);
+
+        List<String> delivered = deliveries.poll(2, SECONDS);
+        assertThat(delivered.get(0), is("new"));
+        assertThat(deliveries.poll(500, MILLISECONDS) == null, is(true));
+        assertThat(launches.get(), is(2));
+        assertThat(poller.getCursor(), is("2"));
+        poller.stop();
+    }
+
+    @Test
+    public void restartedPoller_shouldContinueFromStoredCursor() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['1.0','1.0',1.1,'s','l','']]," +
+                "'last': '11'}}"));
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['2.0','1.0',1.2,'s','l','']]," +
+                "'last': '12'}}"));
+        server.start(8080);
+
+        File cursors = new File(folder.getRoot(), "cursors.properties");
+        Kraken kraken = getKrakenInstance();
+
+        BlockingQueue<List<Trade>> deliveries = new LinkedBlockingQueue<>();
+        Poller<Trade> poller = kraken.getRecentTrades("XETHZEUR")
+                .useCallbackExecutor(directExecutor())
+                .poll()
+                .useInterval(10000L, 10000L)
+                .useCursorFile(cursors)
+                .start(deliveries::add, null);
+
+        assertThat(deliveries.poll(2, SECONDS).size(), is(1));
+        // The cursor is stored right after the listener has been called.
+        awaitStoredCursor(cursors, "11");
+        poller.stop();
+
+        Poller<Trade> restarted = kraken.getRecentTrades("XETHZEUR")
+                .useCallbackExecutor(directExecutor())
+                .poll()
+                .useInterval(10000L, 10000L)
+                .useCursorFile(cursors)
+                .start(deliveries::add, null);
+
+        assertThat(deliveries.poll(2, SECONDS).get(0).price, is("2.0"));
+        restarted.stop();
+
+        assertThat(server.takeRequest().getPath(), not(containsString("since=")));
+        assertThat(server.takeRequest().getPath(), containsString("since=11"));
+    }
+
+    @Test
+    public void stoppingPollerBeforeDelivery_shouldNotStoreTheCursor() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['1.0','1.0',1.1,'s','l','']]," +
+                "'last': '11'}}"));
+        server.enqueue(new MockResponse().setBody("{'error': [], 'result': {" +
+                "'XETHZEUR': [['1.0','1.0',1.1,'s','l','']]," +
+                "'last': '11'}}"));
+        server.start(8080);
+
+        File cursors = new File(folder.getRoot(), "cursors.properties");
+        Kraken kraken = getKrakenInstance();
+
+        // Stops the poller after the poll, but before the listener is called.
+        AtomicReference<Poller<Trade>> reference = new AtomicReference<>();
+        CountDownLatch stopped = new CountDownLatch(1);
+        BlockingQueue<List<Trade>> deliveries = new LinkedBlockingQueue<>();
+        Poller<Trade> poller = kraken.getRecentTrades("XETHZEUR")
+                .useCallbackExecutor(runnable -> {
+                    reference.get().stop();
+                    runnable.run();
+                    stopped.countDown();
+                })
+                .poll()
+                .useInterval(10000L, 10000L)
+                .useCursorFile(cursors);
+
+        reference.set(poller);
+        poller.start(deliveries::add, null);
+
+        assertThat(stopped.await(2, SECONDS), is(true));
+        assertThat(deliveries.isEmpty(), is(true));
+        assertThat(cursors.exists(), is(false));
+
+        // The undelivered rows are polled again.
+        Poller<Trade> restarted = kraken.getRecentTrades("XETHZEUR")
+                .useCallbackExecutor(directExecutor())
+                .poll()
+                .useInterval(10000L, 10000L)
+                .useCursorFile(cursors)
+                .start(deliveries::add, null);
+
+        assertThat(deliveries.poll(2, SECONDS).get(0).price, is("1.0"));
+        restarted.stop();
+
+        assertThat(server.takeRequest().getPath(), not(containsString("since=")));
+        assertThat(server.takeRequest().getPath(), not(containsString("since=")));
+    }
+
+
+    /**
+     * Waits, for at most two seconds, for the given cursor file to contain
+     * the given cursor.
+     */
+    private static void awaitStoredCursor(File file, String cursor) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            if (file.isFile()) {
+                Properties properties = new Properties();
+                try (InputStream input = new FileInputStream(file)) {
+                    properties.load(input);
+                }
+
+                if (properties.containsValue(cursor))
+                    return;
+            }
+
+            Thread.sleep(10L);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Kraken;
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Ledger;
+import com.echsylon.kraken.dto.Order;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the aggregation of "query" requests with more
+ * ids than Kraken accepts in one call.
+ */
+public class QueryAggregatorTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void manyIds_shouldBeDedupedChunkedAndMerged() throws Exception {
+        server = startEchoingMockServer("'time': 1");
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 45; i++)
+            ids.add("LEDGER-" + i % 40);
+
+        Dictionary<Ledger> result = getKrakenInstance("chunking-key", "c2VjcmV0")
+                .queryLedgers(ids.toArray(new String[ids.size()]))
+                .enqueue()
+                .get(2, SECONDS);
+
+        assertThat(result.size(), is(40));
+        assertThat(result.get("LEDGER-0"), is(notNullValue()));
+        assertThat(result.get("LEDGER-39"), is(notNullValue()));
+        assertThat(server.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void resolvedIds_shouldNotBeRequestedAgain() throws Exception {
+        server = startEchoingMockServer("'time': 1");
+
+        Kraken kraken = getKrakenInstance("caching-key", "c2VjcmV0");
+        kraken.queryLedgers("LEDGER-1", "LEDGER-2").enqueue().get(2, SECONDS);
+        Dictionary<Ledger> result = kraken.queryLedgers("LEDGER-2", "LEDGER-1").enqueue().get(2, SECONDS);
+
+        assertThat(result.size(), is(2));
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void leastRecentlyUsedCache_shouldBeDroppedWhenThereAreTooManyCaches() throws Exception {
+        server = startEchoingMockServer("'time': 1");
+
+        Kraken evicted = getKrakenInstance("evicted-key", "c2VjcmV0");
+        evicted.queryLedgers("LEDGER-1").enqueue().get(2, SECONDS);
+        for (int i = 0; i < 16; i++)
+            getKrakenInstance("other-key-" + i, "c2VjcmV0").queryLedgers("LEDGER-1").enqueue().get(2, SECONDS);
+
+        evicted.queryLedgers("LEDGER-1").enqueue().get(2, SECONDS);
+        assertThat(server.getRequestCount(), is(18));
+    }
+
+    @Test
+    public void openOrders_shouldNotBeCached() throws Exception {
+        server = startEchoingMockServer("'status': 'open'");
+
+        Kraken kraken = getKrakenInstance("open-orders-key", "c2VjcmV0");
+        kraken.queryOrdersInfo("ORDER-1").enqueue().get(2, SECONDS);
+        Dictionary<Order> result = kraken.queryOrdersInfo("ORDER-1").enqueue().get(2, SECONDS);
+
+        assertThat(result.get("ORDER-1").status, is("open"));
+        assertThat(server.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void failingChunk_shouldFailTheAggregatedRequest() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{'error': ['EGeneral:Internal error']}"));
+        server.enqueue(new MockResponse().setBody("{'error': ['EGeneral:Internal error']}"));
+        server.start(8080);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++)
+            ids.add("LEDGER-" + i);
+
+        Request<Dictionary<Ledger>> request = getKrakenInstance("failing-key", "c2VjcmV0")
+                .queryLedgers(ids.toArray(new String[ids.size()]))
+                .enqueue();
+
+        assertThatThrownBy(() -> request.get(2, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KrakenRequestException.class);
+    }
+
+
+    private static MockWebServer startEchoingMockServer(String entry) throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                StringBuilder result = new StringBuilder();
+                for (String parameter : request.getBody().readUtf8().split("&")) {
+                    String[] pair = parameter.split("=", 2);
+                    if (!"id".equals(pair[0]) && !"txid".equals(pair[0]))
+                        continue;
+
+                    try {
+                        for (String id : URLDecoder.decode(pair[1], "UTF-8").split(","))
+                            result.append(result.length() > 0 ? "," : "")
+                                    .append("'").append(id).append("': {").append(entry).append("}");
+                    } catch (Exception e) {
+                        return new MockResponse().setResponseCode(400);
+                    }
+                }
+
+                return new MockResponse().setBody("{'error': [], 'result': {" + result + "}}");
+            }
+        });
+
+        server.start(8080);
+        return server;
+    }
+
+}
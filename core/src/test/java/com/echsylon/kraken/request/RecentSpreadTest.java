@@ -1,14 +1,13 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 import com.echsylon.kraken.dto.Spread;
+import com.echsylon.kraken.dto.SpreadBatch;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
@@ -25,22 +24,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class RecentSpreadTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingRecentSpread_shouldReturnMapOfParsedSpreadObjects() throws Exception {
-        atlantis = startMockServer("GET", "/0/public/Spread",
+        server = startMockServer("GET", "/0/public/Spread",
                 "{'error': [], 'result': {" +
                         " 'XETHZEUR': [" +
                         "  [1503526467,'271.13909','271.49000']," +
@@ -64,4 +61,32 @@ public class RecentSpreadTest {
         assertThat(trades[1].ask, is("271.49001"));
     }
 
+    @Test
+    public void requestingRecentSpreadBatch_shouldReturnMapOfColumnarBatches() throws Exception {
+        server = startMockServer("GET", "/0/public/Spread",
+                "{'error': [], 'result': {" +
+                        " 'XETHZEUR': [" +
+                        "  [1503526467,'271.13909','271.49000']," +
+                        "  [1503526475,'271.1798','271.49001']]," +
+                        " 'last':1503526481}}");
+
+        Dictionary<SpreadBatch> result = getKrakenInstance()
+                .getRecentSpreadBatch(null)
+                .enqueue()
+                .get(10, SECONDS);
+
+        assertThat(result.size(), is(1));
+        assertThat(result.last, is("1503526481"));
+
+        SpreadBatch spreads = result.get("XETHZEUR");
+        assertThat(spreads.size, is(2));
+        assertThat(spreads.priceScale, is(5));
+        assertThat(spreads.timeMicros[0], is(1503526467000000L));
+        assertThat(spreads.bid[0], is(27113909L));
+        assertThat(spreads.ask[0], is(27149000L));
+        assertThat(spreads.timeMicros[1], is(1503526475000000L));
+        assertThat(spreads.bid[1], is(27117980L));
+        assertThat(spreads.ask[1], is(27149001L));
+    }
+
 }
@@ -1,19 +1,19 @@
 package com.echsylon.kraken.request;
 
-import com.echsylon.atlantis.Atlantis;
 import com.echsylon.kraken.Dictionary;
 import com.echsylon.kraken.dto.Trade;
+import com.echsylon.kraken.dto.TradeBatch;
 
 import org.junit.After;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
+
+import okhttp3.mockwebserver.MockWebServer;
 
 import static com.echsylon.kraken.TestHelper.getKrakenInstance;
 import static com.echsylon.kraken.TestHelper.startMockServer;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -25,22 +25,20 @@ import static org.junit.Assert.assertThat;
  * class extends {@code FutureTask} we can block the test thread until a result
  * is produced.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(manifest = Config.NONE, sdk = 25)
 public class RecentTradesTest {
 
-    private Atlantis atlantis;
+    private MockWebServer server;
 
     @After
-    public void after() {
-        atlantis.stop();
-        atlantis = null;
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
     }
 
 
     @Test
     public void requestingRecentTrades_shouldReturnMapOfParsedTradesObjects() throws Exception {
-        atlantis = startMockServer("GET", "/0/public/Trades",
+        server = startMockServer("GET", "/0/public/Trades",
                 "{'error': [], 'result': {" +
                         " 'XETHZEUR': [" +
                         "  ['271.49021','0.72000000',1503524391.0341,'s','l','']," +
@@ -70,4 +68,39 @@ public class RecentTradesTest {
         assertThat(trades[1].misc, is(""));
     }
 
+    @Test
+    public void requestingRecentTradeBatch_shouldReturnMapOfColumnarBatches() throws Exception {
+        server = startMockServer("GET", "/0/public/Trades",
+                "{'error': [], 'result': {" +
+                        " 'XETHZEUR': [" +
+                        "  ['271.49021','0.72000000',1503524391.0341,'s','l','']," +
+                        "  ['271.4','0.10043200',1503524391.3286,'b','m','x', 12345]]," +
+                        " 'last':'1503524404183915423'}}");
+
+        Dictionary<TradeBatch> result = getKrakenInstance()
+                .getRecentTradeBatch(null)
+                .enqueue()
+                .get(10, SECONDS);
+
+        assertThat(result.size(), is(1));
+        assertThat(result.last, is("1503524404183915423"));
+
+        TradeBatch trades = result.get("XETHZEUR");
+        assertThat(trades.size, is(2));
+        assertThat(trades.priceScale, is(5));
+        assertThat(trades.volumeScale, is(8));
+        assertThat(trades.price[0], is(27149021L));
+        assertThat(trades.price[1], is(27140000L));
+        assertThat(trades.volume[0], is(72000000L));
+        assertThat(trades.volume[1], is(10043200L));
+        assertThat(trades.timeMicros[0], is(1503524391034100L));
+        assertThat(trades.timeMicros[1], is(1503524391328600L));
+        assertThat(trades.buyOrSell[0], is(TradeBatch.SELL));
+        assertThat(trades.buyOrSell[1], is(TradeBatch.BUY));
+        assertThat(trades.marketOrLimit[0], is(TradeBatch.LIMIT));
+        assertThat(trades.marketOrLimit[1], is(TradeBatch.MARKET));
+        assertThat(trades.misc[0], is(nullValue()));
+        assertThat(trades.misc[1], is("x"));
+    }
+
 }
@@ -0,0 +1,153 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Kraken;
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Ticker;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the micro-batching of ticker requests that are
+ * enqueued within the same batch window.
+ */
+public class RequestBatcherTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void singlePairRequestsWithinWindow_shouldShareOneNetworkCall() throws Exception {
+        server = startMockServer(
+                "{'error': [], 'result': {'XXBTZEUR': {}, 'XETHZEUR': {}, 'XLTCZEUR': {}}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Dictionary<Ticker>> first = kraken.getTickerInformation("XXBTZEUR").useBatchWindow(100).enqueue();
+        Request<Dictionary<Ticker>> second = kraken.getTickerInformation("XETHZEUR").useBatchWindow(100).enqueue();
+        Request<Dictionary<Ticker>> third = kraken.getTickerInformation("XLTCZEUR").useBatchWindow(100).enqueue();
+
+        Dictionary<Ticker> firstResult = first.get(2, SECONDS);
+        Dictionary<Ticker> secondResult = second.get(2, SECONDS);
+        Dictionary<Ticker> thirdResult = third.get(2, SECONDS);
+
+        assertThat(firstResult.size(), is(1));
+        assertThat(firstResult.get("XXBTZEUR"), is(notNullValue()));
+        assertThat(secondResult.size(), is(1));
+        assertThat(secondResult.get("XETHZEUR"), is(notNullValue()));
+        assertThat(thirdResult.size(), is(1));
+        assertThat(thirdResult.get("XLTCZEUR"), is(notNullValue()));
+
+        assertThat(server.getRequestCount(), is(1));
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getPath(), containsString("pair=XXBTZEUR%2CXETHZEUR%2CXLTCZEUR"));
+    }
+
+    @Test
+    public void fullBatch_shouldBeSentRightAway() throws Exception {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 50; i++)
+            result.append(i > 0 ? "," : "").append("'PAIR").append(i).append("': {}");
+
+        server = startMockServer("{'error': [], 'result': {" + result + "}}");
+
+        Kraken kraken = getKrakenInstance();
+        List<Request<Dictionary<Ticker>>> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++)
+            requests.add(kraken.getTickerInformation("PAIR" + i).useBatchWindow(10000).enqueue());
+
+        // The first batch is full and must not wait for the window to close.
+        assertThat(requests.get(0).get(2, SECONDS).get("PAIR0"), is(notNullValue()));
+        assertThat(requests.get(49).get(2, SECONDS).get("PAIR49"), is(notNullValue()));
+        assertThat(server.getRequestCount(), is(1));
+
+        // Leave nothing behind in the still open second batch.
+        for (Request<Dictionary<Ticker>> request : requests)
+            request.cancel(false);
+    }
+
+    @Test
+    public void alternativePairNameMissingFromBatch_shouldBeSentOnItsOwn() throws Exception {
+        server = startMockServer(
+                "{'error': [], 'result': {'XXBTZEUR': {}, 'XETHZEUR': {}}}",
+                "{'error': [], 'result': {'XXBTZEUR': {}}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Dictionary<Ticker>> first = kraken.getTickerInformation("XBTEUR").useBatchWindow(100).enqueue();
+        Request<Dictionary<Ticker>> second = kraken.getTickerInformation("XETHZEUR").useBatchWindow(100).enqueue();
+
+        assertThat(first.get(2, SECONDS).get("XXBTZEUR"), is(notNullValue()));
+        assertThat(second.get(2, SECONDS).get("XETHZEUR"), is(notNullValue()));
+
+        assertThat(server.getRequestCount(), is(2));
+        assertThat(server.takeRequest().getPath(), containsString("pair=XBTEUR%2CXETHZEUR"));
+        assertThat(server.takeRequest().getPath(), containsString("pair=XBTEUR"));
+    }
+
+    @Test
+    public void failingBatch_shouldFailAllRequests() throws Exception {
+        server = startMockServer(
+                "{'error': ['EGeneral:Internal error'], 'result': {}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Dictionary<Ticker>> first = kraken.getTickerInformation("XXBTZEUR").useBatchWindow(50).enqueue();
+        Request<Dictionary<Ticker>> second = kraken.getTickerInformation("XETHZEUR").useBatchWindow(50).enqueue();
+
+        assertThatThrownBy(() -> first.get(2, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KrakenRequestException.class);
+        assertThatThrownBy(() -> second.get(2, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KrakenRequestException.class);
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void cancelledRequest_shouldBeLeftOutOfTheBatch() throws Exception {
+        server = startMockServer(
+                "{'error': [], 'result': {'XETHZEUR': {}}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Dictionary<Ticker>> first = kraken.getTickerInformation("XXBTZEUR").useBatchWindow(100).enqueue();
+        Request<Dictionary<Ticker>> second = kraken.getTickerInformation("XETHZEUR").useBatchWindow(100).enqueue();
+
+        first.cancel(false);
+
+        assertThat(second.get(2, SECONDS).get("XETHZEUR"), is(notNullValue()));
+        assertThat(server.takeRequest().getPath(), containsString("pair=XETHZEUR"));
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+
+    private static MockWebServer startMockServer(String... responses) throws Exception {
+        MockWebServer server = new MockWebServer();
+        for (String response : responses)
+            server.enqueue(new MockResponse().setBody(response));
+
+        server.start(8080);
+        return server;
+    }
+
+}
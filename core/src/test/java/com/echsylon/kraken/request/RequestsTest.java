@@ -0,0 +1,143 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Kraken;
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Time;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static com.echsylon.kraken.TestHelper.startMockServer;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the completion stage view of requests and the
+ * request composition helpers.
+ */
+public class RequestsTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void completionStage_shouldCompleteWithRequestResult() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {'unixtime': 42, 'rfc1123': ''}}");
+
+        Time time = getKrakenInstance()
+                .getServerTime()
+                .enqueue()
+                .asCompletionStage()
+                .toCompletableFuture()
+                .get(10, SECONDS);
+
+        assertThat(time.unixtime, is(42L));
+    }
+
+    @Test
+    public void completionStage_shouldFailWithRequestError() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': ['Some:Error:Structure']}");
+
+        Request<Time> request = getKrakenInstance()
+                .getServerTime()
+                .enqueue();
+
+        assertThatThrownBy(() -> request.asCompletionStage().toCompletableFuture().get(10, SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KrakenRequestException.class);
+    }
+
+    @Test
+    public void allOf_shouldCollectResultsInRequestOrder() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {'unixtime': 7, 'rfc1123': ''}}");
+
+        Kraken kraken = getKrakenInstance();
+        List<Time> times = Requests.<Time>allOf(Arrays.asList(
+                kraken.getServerTime().enqueue(),
+                kraken.getServerTime().enqueue(),
+                kraken.getServerTime().enqueue()))
+                .toCompletableFuture()
+                .get(10, SECONDS);
+
+        assertThat(times.size(), is(3));
+        assertThat(times.get(2).unixtime, is(7L));
+    }
+
+    @Test
+    public void thenCompose_shouldEnqueueNextRequestWithFirstResult() throws Exception {
+        server = startMockServer("GET", "/0/public/Time",
+                "{'error': [], 'result': {'unixtime': 3, 'rfc1123': ''}}");
+
+        Kraken kraken = getKrakenInstance();
+        Long unixtime = Requests
+                .thenCompose(kraken.getServerTime().enqueue(),
+                        first -> kraken.getServerTime().maxStale(first.unixtime.intValue()).enqueue())
+                .thenApply(second -> second.unixtime)
+                .toCompletableFuture()
+                .get(10, SECONDS);
+
+        assertThat(unixtime, is(3L));
+    }
+
+    @Test
+    public void cancellingCompletionStage_shouldCancelRequest() throws Exception {
+        // Hold back the response until the completion stage is cancelled, on
+        // a server of this test's own, so that the request is guaranteed to
+        // be pending.
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                received.countDown();
+                release.await(10, SECONDS);
+                return new MockResponse().setBody("{'error': [], 'result': {'unixtime': 0, 'rfc1123': ''}}");
+            }
+        });
+        server.start();
+
+        try {
+            Request<Time> request = getKrakenInstance(server)
+                    .getServerTime()
+                    .useCoalescing(false)
+                    .enqueue();
+
+            assertThat(received.await(10, SECONDS), is(true));
+            assertThat(request.isDone(), is(false));
+
+            CompletableFuture<Time> future = request.asCompletionStage().toCompletableFuture();
+            assertThat(future.cancel(false), is(true));
+            assertThat(future.isCancelled(), is(true));
+            assertThat(request.isCancelled(), is(true));
+            assertThatThrownBy(request::get).isInstanceOf(CancellationException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+}
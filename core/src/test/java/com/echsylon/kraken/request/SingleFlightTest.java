@@ -0,0 +1,137 @@
+package com.echsylon.kraken.request;
+
+import com.echsylon.kraken.Dictionary;
+import com.echsylon.kraken.Kraken;
+import com.echsylon.kraken.Priority;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Time;
+
+import org.junit.After;
+import org.junit.Test;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.echsylon.kraken.TestHelper.getKrakenInstance;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the coalescing of identical, concurrently
+ * enqueued, public requests.
+ */
+public class SingleFlightTest {
+
+    private MockWebServer server;
+
+    @After
+    public void after() throws Exception {
+        server.shutdown();
+        server = null;
+    }
+
+
+    @Test
+    public void identicalConcurrentRequests_shouldShareOneNetworkCall() throws Exception {
+        server = startDelayedMockServer(
+                "{'error': [], 'result': {'unixtime': 1, 'rfc1123': ''}}",
+                "{'error': [], 'result': {'unixtime': 2, 'rfc1123': ''}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Time> first = kraken.getServerTime().enqueue();
+        Request<Time> second = kraken.getServerTime().enqueue();
+
+        Time firstTime = first.get(2, SECONDS);
+        Time secondTime = second.get(2, SECONDS);
+
+        assertThat(first == second, is(false));
+        assertThat(firstTime, is(sameInstance(secondTime)));
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+    @Test
+    public void requestsWithDifferentParameters_shouldNotBeCoalesced() throws Exception {
+        server = startDelayedMockServer(
+                "{'error': [], 'result': {'XXBTZEUR': {}}}",
+                "{'error': [], 'result': {'XETHZEUR': {}}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Dictionary<Ticker>> first = kraken.getTickerInformation("XXBTZEUR").enqueue();
+        Request<Dictionary<Ticker>> second = kraken.getTickerInformation("XETHZEUR").enqueue();
+
+        assertThat(first.get(2, SECONDS), is(notNullValue()));
+        assertThat(second.get(2, SECONDS), is(notNullValue()));
+        assertThat(server.getRequestCount(), is(2));
+    }
+
+    @Test
+    public void cancellingOneCoalescedRequest_shouldNotAffectTheOthers() throws Exception {
+        server = startDelayedMockServer(
+                "{'error': [], 'result': {'unixtime': 1, 'rfc1123': ''}}");
+
+        Kraken kraken = getKrakenInstance();
+        Request<Time> first = kraken.getServerTime().enqueue();
+        Request<Time> second = kraken.getServerTime().enqueue();
+
+        first.cancel(false);
+
+        assertThat(first.isCancelled(), is(true));
+        assertThat(second.get(2, SECONDS).unixtime, is(1L));
+        assertThat(server.getRequestCount(), is(1));
+    }
+
+
+    @Test
+    public void joiningWithHigherPriority_shouldRaiseThePriorityOfTheFlight() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{'error': [], 'result': {}}");
+            }
+        });
+        server.start(8080);
+
+        try {
+            Kraken.setCallRateLimit(4); // limit 20, reduced by 1 per sec
+            Kraken kraken = getKrakenInstance();
+            for (int i = 0; i < 20; i++)
+                kraken.getServerTime().useCoalescing(false).enqueue();
+
+            // The bulk flight waits behind the market data request, until an
+            // account priority caller joins it.
+            Request<Time> bulk = kraken.getServerTime().usePriority(Priority.BULK_HISTORY).enqueue();
+            Request<Dictionary<Ticker>> marketData = kraken.getTickerInformation("XXBTZEUR").enqueue();
+            Request<Time> account = kraken.getServerTime().usePriority(Priority.ACCOUNT).enqueue();
+
+            for (int i = 0; i < 20; i++)
+                server.takeRequest(2, SECONDS);
+
+            RecordedRequest next = server.takeRequest(3, SECONDS);
+            assertThat(next.getPath(), is("/0/public/Time"));
+            assertThat(account.get(2, SECONDS), is(sameInstance(bulk.get(2, SECONDS))));
+            assertThat(marketData.get(3, SECONDS), is(notNullValue()));
+        } finally {
+            Kraken.clearCallRateLimit();
+        }
+    }
+
+
+    private static MockWebServer startDelayedMockServer(String... responses) throws Exception {
+        MockWebServer server = new MockWebServer();
+        for (String response : responses)
+            server.enqueue(new MockResponse()
+                    .setHeadersDelay(300, MILLISECONDS)
+                    .setBody(response));
+
+        server.start(8080);
+        return server;
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.echsylon.kraken.websocket;
+
+import com.echsylon.kraken.KrakenRequestException;
+import com.echsylon.kraken.dto.Depth;
+import com.echsylon.kraken.dto.Ohlc;
+import com.echsylon.kraken.dto.Spread;
+import com.echsylon.kraken.dto.Ticker;
+import com.echsylon.kraken.dto.Trade;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.echsylon.kraken.RequestExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the WebSocket market data subscriptions against
+ * a local WebSocket server.
+ */
+public class MarketDataSocketTest {
+
+    /**
+     * Keeps track of the server side of a WebSocket connection.
+     */
+    private static final class ServerSide extends WebSocketListener {
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final BlockingQueue<WebSocket> sockets = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            sockets.add(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            messages.add(text);
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+        }
+    }
+
+    private MockWebServer server;
+    private MarketDataSocket socket;
+
+    @After
+    public void after() throws Exception {
+        if (socket != null)
+            socket.close();
+        server.shutdown();
+        server = null;
+        socket = null;
+    }
+
+
+    @Test
+    public void subscriptions_shouldDeliverUpdatesAsDomainObjects() throws Exception {
+        ServerSide serverSide = new ServerSide();
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(serverSide));
+        server.start(8080);
+
+        BlockingQueue<Object> updates = new LinkedBlockingQueue<>();
+        socket = new MarketDataSocket("ws://localhost:8080", directExecutor())
+                .subscribeTicker((pair, update) -> updates.add(update), "XBT/EUR")
+                .subscribeBook(10, (pair, update) -> updates.add(update), "XBT/EUR")
+                .subscribeTrades((pair, update) -> updates.add(update), "XBT/EUR")
+                .subscribeSpread((pair, update) -> updates.add(update), "XBT/EUR")
+                .subscribeOhlc(5, (pair, update) -> updates.add(update), "XBT/EUR");
+
+        WebSocket remote = serverSide.sockets.poll(2, SECONDS);
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"name\":\"ticker\""));
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"depth\":10"));
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"name\":\"trade\""));
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"name\":\"spread\""));
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"interval\":5"));
+
+        remote.send("{\"event\":\"heartbeat\"}");
+        remote.send("[1,{\"a\":[\"2.0\",1,\"1.0\"],\"b\":[\"1.0\",1,\"1.0\"],\"c\":[\"1.5\",\"0.1\"]," +
+                "\"v\":[\"1\",\"2\"],\"p\":[\"1\",\"2\"],\"t\":[1,2],\"l\":[\"1\",\"1\"],\"h\":[\"2\",\"2\"]," +
+                "\"o\":[\"1.2\",\"1.3\"]},\"ticker\",\"XBT/EUR\"]");
+        remote.send("[2,{\"as\":[[\"2.0\",\"1.0\",\"1534614057.3\"]],\"bs\":[[\"1.0\",\"3.0\",\"1534614057.3\"]]}," +
+                "\"book-10\",\"XBT/EUR\"]");
+        remote.send("[2,{\"a\":[[\"2.5\",\"0.0\",\"1534614058.1\"]]},\"book-10\",\"XBT/EUR\"]");
+        remote.send("[3,[[\"1.5\",\"0.2\",\"1534614059.1\",\"s\",\"l\",\"\"]],\"trade\",\"XBT/EUR\"]");
+        remote.send("[4,[\"1.0\",\"2.0\",\"1534614060.1\",\"1.0\",\"2.0\"],\"spread\",\"XBT/EUR\"]");
+        remote.send("[5,[\"1534614000.0\",\"1534614300.0\",\"1\",\"2\",\"0.5\",\"1.5\",\"1.2\",\"10\",7]," +
+                "\"ohlc-5\",\"XBT/EUR\"]");
+
+        Ticker ticker = (Ticker) updates.poll(2, SECONDS);
+        assertThat(ticker.openingPriceToday, is("1.2"));
+
+        Depth snapshot = (Depth) updates.poll(2, SECONDS);
+        assertThat(snapshot.asks[0].price, is("2.0"));
+        assertThat(snapshot.bids[0].volume, is("3.0"));
+        assertThat(snapshot.bids[0].timestamp, is(1534614057L));
+
+        Depth change = (Depth) updates.poll(2, SECONDS);
+        assertThat(change.asks[0].price, is("2.5"));
+        assertThat(change.bids, is(nullValue()));
+
+        Trade[] trades = (Trade[]) updates.poll(2, SECONDS);
+        assertThat(trades[0].price, is("1.5"));
+        assertThat(trades[0].volume, is("0.2"));
+
+        Spread spread = (Spread) updates.poll(2, SECONDS);
+        assertThat(spread.ask, is("2.0"));
+        assertThat(spread.timestamp, is(1534614060L));
+
+        Ohlc ohlc = (Ohlc) updates.poll(2, SECONDS);
+        assertThat(ohlc.time, is(1534614000L));
+        assertThat(ohlc.close, is("1.5"));
+        assertThat(ohlc.count, is(7));
+    }
+
+    @Test
+    public void subscriptionError_shouldBeDeliveredToErrorListener() throws Exception {
+        ServerSide serverSide = new ServerSide();
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(serverSide));
+        server.start(8080);
+
+        BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        socket = new MarketDataSocket("ws://localhost:8080", directExecutor())
+                .withErrorListener(errors::add)
+                .subscribeTicker((pair, update) -> {
+                }, "NOT/APAIR");
+
+        serverSide.sockets.poll(2, SECONDS).send("{\"event\":\"subscriptionStatus\"," +
+                "\"status\":\"error\",\"errorMessage\":\"Currency pair not supported\"}");
+
+        assertThat(errors.poll(2, SECONDS), is(instanceOf(KrakenRequestException.class)));
+    }
+
+    @Test
+    public void lostConnection_shouldReconnectAndResubscribe() throws Exception {
+        ServerSide serverSide = new ServerSide();
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(serverSide));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(serverSide));
+        server.start(8080);
+
+        BlockingQueue<Spread> updates = new LinkedBlockingQueue<>();
+        socket = new MarketDataSocket("ws://localhost:8080", directExecutor())
+                .useReconnectDelay(10L, 100L)
+                .subscribeSpread((pair, update) -> updates.add(update), "XBT/EUR");
+
+        WebSocket first = serverSide.sockets.poll(2, SECONDS);
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"name\":\"spread\""));
+        first.close(1001, "Going away");
+
+        WebSocket second = serverSide.sockets.poll(2, SECONDS);
+        assertThat(serverSide.messages.poll(2, SECONDS), containsString("\"name\":\"spread\""));
+        second.send("[4,[\"1.0\",\"2.0\",\"1534614060.1\",\"1.0\",\"2.0\"],\"spread\",\"XBT/EUR\"]");
+
+        assertThat(updates.poll(2, SECONDS).bid, is("1.0"));
+    }
+
+}
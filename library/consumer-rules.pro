@@ -0,0 +1,4 @@
+# The core Kraken client instantiates the main thread executor by reflection.
+-keep class com.echsylon.kraken.android.MainThreadExecutor {
+    public <init>();
+}
@@ -0,0 +1,29 @@
+package com.echsylon.kraken.android;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+/**
+ * This class posts any tasks to the Android main thread. It's picked up by the
+ * core Kraken client, when available, and used as the default executor for
+ * request callbacks, which means that any listeners are called on the main
+ * thread on Android.
+ */
+public final class MainThreadExecutor implements Executor {
+    private final Handler handler;
+
+    /**
+     * Creates a new executor posting tasks to the main looper.
+     */
+    public MainThreadExecutor() {
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        handler.post(task);
+    }
+
+}
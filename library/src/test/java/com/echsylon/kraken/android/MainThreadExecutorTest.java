@@ -0,0 +1,45 @@
+package com.echsylon.kraken.android;
+
+import android.os.Looper;
+
+import com.echsylon.kraken.internal.Platform;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * These test cases will test the Android main thread callback delivery.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class MainThreadExecutorTest {
+
+    @Test
+    public void defaultCallbackExecutor_shouldBeMainThreadExecutorOnAndroid() throws Exception {
+        assertThat(Platform.getDefaultCallbackExecutor(), is(instanceOf(MainThreadExecutor.class)));
+    }
+
+    @Test
+    public void executingTaskFromWorkerThread_shouldRunTaskOnMainThread() throws Exception {
+        MainThreadExecutor executor = new MainThreadExecutor();
+        AtomicReference<Looper> looper = new AtomicReference<>();
+
+        Thread worker = new Thread(() -> executor.execute(() -> looper.set(Looper.myLooper())));
+        worker.start();
+        worker.join();
+
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertThat(looper.get(), is(sameInstance(Looper.getMainLooper())));
+    }
+
+}